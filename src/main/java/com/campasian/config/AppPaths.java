@@ -0,0 +1,31 @@
+package com.campasian.config;
+
+import java.nio.file.Path;
+
+/**
+ * Local directories used by Campasian for caches and other per-user data.
+ * Override the root via CAMPASIAN_DATA_DIR if needed.
+ */
+public final class AppPaths {
+
+    private AppPaths() {}
+
+    /**
+     * Root data directory: %LOCALAPPDATA%\Campasian on Windows, ~/.campasian elsewhere.
+     */
+    public static Path getDataDir() {
+        String v = System.getProperty("CAMPASIAN_DATA_DIR");
+        if (v == null || v.isBlank()) v = System.getenv("CAMPASIAN_DATA_DIR");
+        if (v != null && !v.isBlank()) return Path.of(v.trim());
+        String localAppData = System.getenv("LOCALAPPDATA");
+        if (localAppData != null && !localAppData.isBlank()) return Path.of(localAppData, "Campasian");
+        return Path.of(System.getProperty("user.home"), ".campasian");
+    }
+
+    /**
+     * Named cache directory under the data dir (not created here).
+     */
+    public static Path getCacheDir(String name) {
+        return getDataDir().resolve("cache").resolve(name);
+    }
+}
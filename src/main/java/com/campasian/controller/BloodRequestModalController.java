@@ -3,6 +3,7 @@ package com.campasian.controller;
 import com.campasian.model.UserProfile;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -10,7 +11,9 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class BloodRequestModalController {
     
@@ -56,7 +59,7 @@ public class BloodRequestModalController {
         }
         
         // Send notification to all donors
-        new Thread(() -> {
+        TaskScheduler.getInstance().submit(() -> {
             try {
                 String currentUserId = ApiService.getInstance().getCurrentUserId();
                 String currentUserName = null;
@@ -69,11 +72,10 @@ public class BloodRequestModalController {
                 
                 final String senderName = currentUserName != null ? currentUserName : "Someone";
                 
-                // Send notification to all donors in this blood group
+                // Queue a notification for every donor in this blood group, then count what the server accepted
                 int attempted = 0;
-                int sent = 0;
-                int failed = 0;
-                ApiException lastApiError = null;
+                List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+                ApiException queueError = null;
                 if (donors != null) {
                     for (UserProfile donor : donors) {
                         if (donor == null) continue;
@@ -84,38 +86,52 @@ public class BloodRequestModalController {
                         attempted++;
                             try {
                                 String message = senderName + " needs " + bloodGroup + " blood. Contact: " + contact;
-                                ApiService.getInstance().sendBloodRequestNotification(donorId, message);
-                                sent++;
+                                deliveries.add(ApiService.getInstance().sendBloodRequestNotification(donorId, message));
                             } catch (ApiException ex) {
-                                failed++;
-                                lastApiError = ex;
+                                queueError = ex;
                             }
                     }
                 }
 
                 final int finalAttempted = attempted;
-                final int finalSent = sent;
-                final int finalFailed = failed;
-                final ApiException finalLastApiError = lastApiError;
-                
-                Platform.runLater(() -> {
-                    if (finalSent > 0) {
-                        String msg = "Blood request sent to " + finalSent + " donor(s) (attempted: " + finalAttempted + ").";
-                        if (finalFailed > 0) msg += " Failed: " + finalFailed + ".";
-                        showSuccess(msg);
-                        if (stage != null) {
-                            stage.close();
+                final ApiException lastQueueError = queueError;
+                CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+                    int sent = 0;
+                    ApiException lastApiError = lastQueueError;
+                    for (CompletableFuture<Void> delivery : deliveries) {
+                        if (!delivery.isCompletedExceptionally()) {
+                            sent++;
+                            continue;
+                        }
+                        try {
+                            delivery.join();
+                        } catch (RuntimeException e) {
+                            lastApiError = ApiService.unwrap(e);
                         }
-                    } else {
-                        String details = finalLastApiError != null ? finalLastApiError.getMessage() : null;
-                        showError("Failed to send blood request" + (details != null && !details.isBlank() ? (": " + details) : "."));
                     }
+                    final int finalSent = sent;
+                    final int finalFailed = finalAttempted - sent;
+                    final ApiException finalLastApiError = lastApiError;
+
+                    Platform.runLater(() -> {
+                        if (finalSent > 0) {
+                            String msg = "Blood request sent to " + finalSent + " donor(s) (attempted: " + finalAttempted + ").";
+                            if (finalFailed > 0) msg += " Failed: " + finalFailed + ".";
+                            showSuccess(msg);
+                            if (stage != null) {
+                                stage.close();
+                            }
+                        } else {
+                            String details = finalLastApiError != null ? finalLastApiError.getMessage() : null;
+                            showError("Failed to send blood request" + (details != null && !details.isBlank() ? (": " + details) : "."));
+                        }
+                    });
                 });
                 
             } catch (Exception e) {
                 Platform.runLater(() -> showError("Failed to send request: " + e.getMessage()));
             }
-        }).start();
+        });
     }
     
     private void showError(String message) {
@@ -3,6 +3,7 @@ package com.campasian.controller;
 import com.campasian.model.UserProfile;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import com.campasian.view.SceneManager;
 import javafx.application.Platform;
@@ -32,6 +33,8 @@ public class BloodSearchController implements Initializable {
     @FXML private Label groupSummaryLabel;
     @FXML private Button groupRequestButton;
     @FXML private VBox donorsVBox;
+
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
     
     private String selectedBloodGroup;
     private List<UserProfile> currentDonors;
@@ -76,10 +79,10 @@ public class BloodSearchController implements Initializable {
         if (donorsVBox == null) return;
         donorsVBox.getChildren().clear();
         
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 currentDonors = ApiService.getInstance().getProfilesByBloodGroup(group);
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (donorsVBox == null) return;
                     donorsVBox.getChildren().clear();
                     
@@ -94,9 +97,9 @@ public class BloodSearchController implements Initializable {
                             donorsVBox.getChildren().add(buildDonorCard(profile, group));
                         }
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (donorsVBox != null) {
                         donorsVBox.getChildren().clear();
                         Label err = new Label("Unable to load donors.");
@@ -104,9 +107,9 @@ public class BloodSearchController implements Initializable {
                         donorsVBox.getChildren().add(err);
                     }
                     updateGroupActionError();
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildDonorCard(UserProfile profile, String bloodGroup) {
@@ -6,7 +6,10 @@ import com.campasian.model.UserProfile;
 import com.campasian.service.ApiService;
 import com.campasian.service.ApiException;
 import com.campasian.service.BrowserCallBridgeService;
+import com.campasian.service.ImageCache;
+import com.campasian.service.ModelAdapters;
 import com.campasian.service.SupabaseRealtimeService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.util.ImageSelectionSupport;
 import com.campasian.view.NavigationContext;
 import javafx.animation.KeyFrame;
@@ -23,7 +26,6 @@ import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.ToggleButton;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.Node;
 import javafx.scene.layout.HBox;
@@ -37,11 +39,14 @@ import java.net.URL;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for the Messages / Chat view. One-to-one messaging with accepted friends.
@@ -69,9 +74,12 @@ public class ChatController implements Initializable {
     @FXML private ToggleButton muteCallBtn;
     @FXML private Button endCallBtn;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private byte[] pendingImageBytes;
     private String pendingImageExtension = "png";
     private String pendingImageContentType = "image/png";
+    private boolean uploadingImage;
 
     private String selectedPartnerId;
     private String selectedPartnerName;
@@ -80,11 +88,11 @@ public class ChatController implements Initializable {
     private Timeline callTimerTimeline;
     private long callDurationSeconds;
     private final SupabaseRealtimeService realtimeService = new SupabaseRealtimeService();
-    private final ScheduledExecutorService pollExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "chat-poll");
-        t.setDaemon(true);
-        return t;
-    });
+    /** On-screen timeline nodes keyed by "m:" + message id or "c:" + call id, with the content each was built from. */
+    private final Map<String, Node> conversationNodes = new HashMap<>();
+    /** The "no messages yet" card while the open conversation is empty. */
+    private Node noMessagesCard;
+    private final Map<String, String> conversationSignatures = new HashMap<>();
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -92,7 +100,10 @@ public class ChatController implements Initializable {
         updateComposerState(false);
         showEmptyConversationState();
         loadChatPartners();
-        pollExecutor.scheduleAtFixedRate(this::pollMessages, 2, 2, TimeUnit.SECONDS);
+        tasks.onCancel(realtimeService::unsubscribe);
+        realtimeService.setOnReconnect(() -> Platform.runLater(tasks.guard(() -> {
+            if (selectedPartnerId != null) loadMessages();
+        })));
         String partnerId = NavigationContext.getChatPartnerUserId();
         String partnerName = NavigationContext.getChatPartnerName();
         if (partnerId != null && !partnerId.isBlank()) {
@@ -104,15 +115,20 @@ public class ChatController implements Initializable {
             ApiService.getInstance().getAccessToken(),
             this::handleCallChange
         );
+        realtimeService.subscribeToMessages(
+            ApiService.getInstance().getCurrentUserId(),
+            ApiService.getInstance().getAccessToken(),
+            this::handleMessageChange
+        );
     }
 
     private void loadChatPartners() {
         if (friendsList == null) return;
         friendsList.getChildren().clear();
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<UserProfile> partners = ApiService.getInstance().getChatPartners();
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (friendsList == null) return;
                     friendsList.getChildren().clear();
                     for (UserProfile p : partners) {
@@ -132,12 +148,15 @@ public class ChatController implements Initializable {
                         friendsList.getChildren().add(empty);
                     }
                     refreshFriendSelectionStyles();
-                });
+                }));
             } catch (ApiException ignored) {}
-        }).start();
+        });
     }
 
     private void selectPartner(String partnerId, String name) {
+        if (partnerId != null && !partnerId.equals(selectedPartnerId)) {
+            Platform.runLater(this::resetConversation);
+        }
         selectedPartnerId = partnerId;
         selectedPartnerName = name;
         Platform.runLater(() -> {
@@ -170,59 +189,162 @@ public class ChatController implements Initializable {
             Platform.runLater(this::showEmptyConversationState);
             return;
         }
-        new Thread(() -> {
-            try {
-                List<Message> msgs = ApiService.getInstance().getMessages(selectedPartnerId);
-                List<CallRecord> calls = ApiService.getInstance().getCallsBetweenUsers(
-                    ApiService.getInstance().getCurrentUserId(), 
-                    selectedPartnerId
-                );
-                
-                Platform.runLater(() -> {
-                    if (messagesVBox == null) return;
-                    messagesVBox.getChildren().clear();
-                    String currentId = ApiService.getInstance().getCurrentUserId();
-                    
-                    // Merge and sort messages and calls by timestamp
-                    java.util.List<Object> items = new java.util.ArrayList<>();
-                    items.addAll(msgs);
-                    items.addAll(calls);
-                    
-                    items.sort((a, b) -> {
-                        String timeA = a instanceof Message ? ((Message) a).getCreatedAt() : ((CallRecord) a).getCreatedAt();
-                        String timeB = b instanceof Message ? ((Message) b).getCreatedAt() : ((CallRecord) b).getCreatedAt();
-                        if (timeA == null || timeB == null) return 0;
-                        return timeA.compareTo(timeB);
-                    });
-                    
-                    for (Object item : items) {
-                        if (item instanceof Message) {
-                            Message m = (Message) item;
-                            boolean fromMe = currentId != null && currentId.equals(m.getSenderId());
-                            HBox bubble = buildMessageBubble(m, fromMe);
-                            messagesVBox.getChildren().add(bubble);
-                        } else if (item instanceof CallRecord) {
-                            CallRecord call = (CallRecord) item;
-                            VBox callCard = buildCallCard(call, currentId);
-                            messagesVBox.getChildren().add(callCard);
-                        }
-                    }
-                    
-                    if (msgs.isEmpty() && calls.isEmpty()) {
-                        messagesVBox.getChildren().add(buildNoMessagesCard());
-                    }
-                    scrollToBottom();
-                });
-            } catch (ApiException e) {
-                Platform.runLater(() -> {
+        ApiService api = ApiService.getInstance();
+        String partnerId = selectedPartnerId;
+        // Messages and call history are fetched concurrently rather than one after the other.
+        tasks.track(api.getMessagesAsync(partnerId))
+            .thenCombine(api.getCallsBetweenUsersAsync(api.getCurrentUserId(), partnerId), (msgs, calls) -> {
+                Platform.runLater(tasks.guard(() -> {
+                    if (messagesVBox == null || !partnerId.equals(selectedPartnerId)) return;
+                    renderConversation(msgs, calls);
+                }));
+                return null;
+            })
+            .exceptionally(error -> {
+                ApiException e = ApiService.unwrap(error);
+                Platform.runLater(tasks.guard(() -> {
                     showChatError("Failed to load messages: " + (e.getMessage() != null ? e.getMessage() : "Network error"));
-                });
+                }));
+                return null;
+            });
+    }
+
+    /**
+     * Applies a realtime INSERT/UPDATE/DELETE on messages to the open conversation.
+     */
+    private void handleMessageChange(com.google.gson.JsonObject payload) {
+        com.google.gson.JsonObject data = payload != null && payload.has("data") && payload.get("data").isJsonObject()
+            ? payload.getAsJsonObject("data")
+            : payload;
+        if (data == null) return;
+        String type = asString(data, "type");
+        com.google.gson.JsonObject record = data.has("record") && data.get("record").isJsonObject()
+            ? data.getAsJsonObject("record")
+            : null;
+        com.google.gson.JsonObject oldRecord = data.has("old_record") && data.get("old_record").isJsonObject()
+            ? data.getAsJsonObject("old_record")
+            : null;
+        Platform.runLater(tasks.guard(() -> {
+            if (messagesVBox == null || selectedPartnerId == null) return;
+            if ("DELETE".equals(type)) {
+                String id = oldRecord != null ? asString(oldRecord, "id") : null;
+                if (id != null) removeConversationNode("m:" + id);
+                return;
             }
-        }).start();
+            if (record == null) return;
+            Message m = ModelAdapters.fromTree(record, Message.class);
+            if (m.getId() == null || !isInOpenConversation(m)) return;
+            String key = "m:" + m.getId();
+            if (!"INSERT".equals(type) && !conversationNodes.containsKey(key)) return;
+            if (noMessagesCard != null) {
+                messagesVBox.getChildren().remove(noMessagesCard);
+                noMessagesCard = null;
+            }
+            Node node = messageNodeFor(m, ApiService.getInstance().getCurrentUserId());
+            if (node.getParent() != messagesVBox) {
+                messagesVBox.getChildren().add(node);
+                scrollToBottom();
+            }
+        }));
+    }
+
+    /**
+     * Diffs the fetched timeline against what is on screen: unchanged bubbles are kept as-is,
+     * edited ones are rebuilt in place, removed ones are dropped and new ones inserted in order.
+     */
+    private void renderConversation(List<Message> msgs, List<CallRecord> calls) {
+        String currentId = ApiService.getInstance().getCurrentUserId();
+        List<Object> items = new ArrayList<>(msgs.size() + calls.size());
+        items.addAll(msgs);
+        items.addAll(calls);
+        items.sort((a, b) -> {
+            String timeA = a instanceof Message ? ((Message) a).getCreatedAt() : ((CallRecord) a).getCreatedAt();
+            String timeB = b instanceof Message ? ((Message) b).getCreatedAt() : ((CallRecord) b).getCreatedAt();
+            if (timeA == null || timeB == null) return 0;
+            return timeA.compareTo(timeB);
+        });
+
+        List<Node> desired = new ArrayList<>(items.size());
+        Set<String> keys = new HashSet<>();
+        for (Object item : items) {
+            Node node = item instanceof Message m
+                ? messageNodeFor(m, currentId)
+                : callNodeFor((CallRecord) item, currentId);
+            if (node != null && keys.add((String) node.getUserData())) desired.add(node);
+        }
+        conversationNodes.keySet().retainAll(keys);
+        conversationSignatures.keySet().retainAll(keys);
+        if (desired.isEmpty()) {
+            if (noMessagesCard == null) noMessagesCard = buildNoMessagesCard();
+            desired.add(noMessagesCard);
+        } else {
+            noMessagesCard = null;
+        }
+
+        List<Node> children = messagesVBox.getChildren();
+        boolean grew = desired.size() > children.size();
+        children.retainAll(new HashSet<>(desired));
+        for (int i = 0; i < desired.size(); i++) {
+            Node node = desired.get(i);
+            if (i < children.size() && children.get(i) == node) continue;
+            children.remove(node);
+            children.add(i, node);
+        }
+        if (grew) scrollToBottom();
     }
 
-    private void pollMessages() {
-        if (selectedPartnerId != null) loadMessages();
+    private Node messageNodeFor(Message m, String currentId) {
+        if (m.getId() == null) return null;
+        String key = "m:" + m.getId();
+        String signature = m.getContent() + "|" + m.getImageUrl() + "|" + m.getCreatedAt();
+        Node existing = conversationNodes.get(key);
+        if (existing != null && signature.equals(conversationSignatures.get(key))) return existing;
+        Node node = buildMessageBubble(m, currentId != null && currentId.equals(m.getSenderId()));
+        node.setUserData(key);
+        replaceConversationNode(existing, node);
+        conversationNodes.put(key, node);
+        conversationSignatures.put(key, signature);
+        return node;
+    }
+
+    private Node callNodeFor(CallRecord call, String currentId) {
+        if (call.getId() == null) return null;
+        String key = "c:" + call.getId();
+        String signature = call.getStatus() + "|" + call.getCreatedAt();
+        Node existing = conversationNodes.get(key);
+        if (existing != null && signature.equals(conversationSignatures.get(key))) return existing;
+        Node node = buildCallCard(call, currentId);
+        node.setUserData(key);
+        replaceConversationNode(existing, node);
+        conversationNodes.put(key, node);
+        conversationSignatures.put(key, signature);
+        return node;
+    }
+
+    private void replaceConversationNode(Node existing, Node replacement) {
+        if (existing == null || messagesVBox == null) return;
+        int index = messagesVBox.getChildren().indexOf(existing);
+        if (index >= 0) messagesVBox.getChildren().set(index, replacement);
+    }
+
+    private void removeConversationNode(String key) {
+        Node node = conversationNodes.remove(key);
+        conversationSignatures.remove(key);
+        if (node != null && messagesVBox != null) messagesVBox.getChildren().remove(node);
+    }
+
+    private void resetConversation() {
+        noMessagesCard = null;
+        conversationNodes.clear();
+        conversationSignatures.clear();
+        if (messagesVBox != null) messagesVBox.getChildren().clear();
+    }
+
+    private boolean isInOpenConversation(Message m) {
+        String currentId = ApiService.getInstance().getCurrentUserId();
+        if (currentId == null || selectedPartnerId == null) return false;
+        return (currentId.equals(m.getSenderId()) && selectedPartnerId.equals(m.getReceiverId()))
+            || (selectedPartnerId.equals(m.getSenderId()) && currentId.equals(m.getReceiverId()));
     }
 
 //    private HBox buildMessageBubble(Message m, boolean fromMe) {
@@ -274,7 +396,8 @@ public class ChatController implements Initializable {
 
         if (m.getImageUrl() != null && !m.getImageUrl().isBlank()) {
             try {
-                ImageView imageView = new ImageView(new Image(m.getImageUrl(), true));
+                ImageView imageView = new ImageView();
+                ImageCache.getInstance().load(imageView, m.getImageUrl(), 280, 220);
                 imageView.setFitWidth(280);
                 imageView.setFitHeight(220);
                 imageView.setPreserveRatio(true);
@@ -371,7 +494,7 @@ public class ChatController implements Initializable {
 
     private void showEmptyConversationState() {
         if (messagesVBox == null) return;
-        messagesVBox.getChildren().clear();
+        resetConversation();
         updateComposerState(false);
 
         VBox hero = new VBox(12);
@@ -408,7 +531,7 @@ public class ChatController implements Initializable {
             if (updated.equals(message.getContent())) {
                 return; // No changes
             }
-            new Thread(() -> {
+            TaskScheduler.getInstance().submit(() -> {
                 try {
                     ApiService.getInstance().updateMessage(message.getId(), updated.trim());
                     Thread.sleep(500); // Wait for database to sync
@@ -425,7 +548,7 @@ public class ChatController implements Initializable {
                 } catch (ApiException e) {
                     Platform.runLater(() -> showChatError("Message update failed: " + (e.getMessage() != null ? e.getMessage() : "Check RLS policies")));
                 }
-            }).start();
+            });
         });
     }
 
@@ -437,7 +560,7 @@ public class ChatController implements Initializable {
         confirm.setContentText("This message will be permanently deleted.");
         confirm.showAndWait().ifPresent(response -> {
             if (response == javafx.scene.control.ButtonType.OK) {
-                new Thread(() -> {
+                TaskScheduler.getInstance().submit(() -> {
                     try {
                         ApiService.getInstance().deleteMessage(message.getId());
                         Thread.sleep(500); // Wait for database to sync
@@ -449,7 +572,7 @@ public class ChatController implements Initializable {
                     } catch (ApiException e) {
                         Platform.runLater(() -> showChatError("Delete failed: " + (e.getMessage() != null ? e.getMessage() : "Check RLS policies")));
                     }
-                }).start();
+                });
             }
         });
     }
@@ -526,30 +649,64 @@ public class ChatController implements Initializable {
         String text = messageField.getText();
         boolean hasText = text != null && !text.isBlank();
         boolean hasImage = pendingImageBytes != null && pendingImageBytes.length > 0;
-        if (!hasText && !hasImage) return;
-        try {
-            String imageUrl = null;
-            if (hasImage) {
-                try {
-                    String path = ImageSelectionSupport.buildStoragePath(ApiService.getInstance().getCurrentUserId(), pendingImageExtension);
-                    imageUrl = ApiService.getInstance().uploadToStorage("chat-images", path, pendingImageBytes, pendingImageContentType);
-                } catch (ApiException e) {
-                    showChatError("Image upload failed: " + (e.getMessage() != null ? e.getMessage() : "Storage error"));
-                    return;
-                }
-            }
+        if ((!hasText && !hasImage) || uploadingImage) return;
+        String partnerId = selectedPartnerId;
+        String content = hasText ? text.trim() : "";
+        if (!hasImage) {
             try {
-                ApiService.getInstance().sendMessage(selectedPartnerId, hasText ? text.trim() : "", imageUrl);
+                watchDelivery(ApiService.getInstance().sendMessage(partnerId, content, null));
+                messageField.clear();
             } catch (ApiException e) {
                 showChatError("Message send failed: " + (e.getMessage() != null ? e.getMessage() : "Network error"));
-                return;
             }
-            messageField.clear();
-            clearPendingImage();
-            loadMessages();
-        } catch (Exception e) {
-            showChatError("Unexpected error: " + (e.getMessage() != null ? e.getMessage() : "Unknown error"));
+            return;
         }
+        // Upload and queue off the FX thread (the upload outlives the view); the draft stays in the
+        // composer until the message is queued, and sending it again resumes an interrupted upload.
+        String folder = ApiService.getInstance().getCurrentUserId() + "/";
+        byte[] bytes = pendingImageBytes;
+        String extension = pendingImageExtension;
+        String contentType = pendingImageContentType;
+        String idleText = sendMessageBtn != null ? sendMessageBtn.getText() : null;
+        setUploadingImage(true);
+        TaskScheduler.getInstance().submit(() -> {
+            try {
+                String imageUrl = ImageSelectionSupport.uploadImage("chat-images", folder, bytes, extension, contentType,
+                    ImageSelectionSupport.progressOn(sendMessageBtn));
+                CompletableFuture<Void> delivery = ApiService.getInstance().sendMessage(partnerId, content, imageUrl);
+                Platform.runLater(tasks.guard(() -> {
+                    setUploadingImage(false);
+                    if (sendMessageBtn != null) sendMessageBtn.setText(idleText);
+                    watchDelivery(delivery);
+                    if (partnerId.equals(selectedPartnerId)) {
+                        messageField.clear();
+                        clearPendingImage();
+                    }
+                }));
+            } catch (ApiException e) {
+                Platform.runLater(tasks.guard(() -> {
+                    setUploadingImage(false);
+                    if (sendMessageBtn != null) sendMessageBtn.setText(idleText);
+                    showChatError("Image upload failed: " + (e.getMessage() != null ? e.getMessage() : "Storage error"));
+                }));
+            }
+        });
+    }
+
+    /**
+     * The message sits in the outbox; the conversation reloads once the server has stored it.
+     */
+    private void watchDelivery(CompletableFuture<Void> delivery) {
+        delivery.whenComplete((ignored, error) -> Platform.runLater(tasks.guard(() -> {
+            if (error != null) showChatError("Message was rejected by the server.");
+            else loadMessages();
+        })));
+    }
+
+    private void setUploadingImage(boolean uploading) {
+        uploadingImage = uploading;
+        if (sendMessageBtn != null) sendMessageBtn.setDisable(uploading || selectedPartnerId == null);
+        if (attachImageBtn != null) attachImageBtn.setDisable(uploading || selectedPartnerId == null);
     }
 
     @FXML
@@ -635,6 +792,10 @@ public class ChatController implements Initializable {
             String currentUserId = ApiService.getInstance().getCurrentUserId();
             if (currentUserId == null || currentUserId.isBlank()) return;
             if (!currentUserId.equals(call.getCallerId()) && !currentUserId.equals(call.getReceiverId())) return;
+            if (selectedPartnerId != null
+                && (selectedPartnerId.equals(call.getCallerId()) || selectedPartnerId.equals(call.getReceiverId()))) {
+                loadMessages(); // call history cards live in the conversation timeline
+            }
 
             if ("pending".equals(call.getStatus()) && currentUserId.equals(call.getReceiverId())) {
                 activeCall = call;
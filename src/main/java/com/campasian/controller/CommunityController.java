@@ -6,10 +6,16 @@ import com.campasian.model.UserProfile;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
 import com.campasian.service.AuthService;
+import com.campasian.service.CommunityMessageStore;
 import com.campasian.service.CommunityService;
+import com.campasian.service.ImageCache;
+import com.campasian.service.ModelAdapters;
+import com.campasian.service.SupabaseRealtimeService;
+import com.campasian.service.TaskScheduler;
+import com.campasian.util.DraftSupport;
 import com.campasian.util.ImageSelectionSupport;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -17,16 +23,18 @@ import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
@@ -36,20 +44,18 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import javafx.scene.layout.StackPane;
-import javafx.util.Duration;
 
 import java.net.URL;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 public class CommunityController implements Initializable {
 
-    private static final Duration REFRESH_INTERVAL = Duration.seconds(4);
-
     @FXML private BorderPane communityRoot;
     @FXML private SplitPane communitySplitPane;
     @FXML private Button createRoomButton;
@@ -64,20 +70,31 @@ public class CommunityController implements Initializable {
     @FXML private Button attachImageBtn;
     @FXML private Button sendButton;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+    private final SupabaseRealtimeService realtimeService = new SupabaseRealtimeService();
+
     private byte[] pendingImageBytes;
     private String pendingImageExtension = "png";
     private String pendingImageContentType = "image/png";
+    private boolean sending;
 
     private final CommunityService communityService = CommunityService.getInstance();
     private final ObservableList<CommunityRoom> availableRooms = FXCollections.observableArrayList();
     private final ObservableList<CommunityMessage> visibleMessages = FXCollections.observableArrayList();
+    private final CommunityMessageStore messageStore = new CommunityMessageStore();
+    /** Messages shown locally on send whose Realtime INSERT has not arrived yet. */
+    private final List<CommunityMessage> pendingSent = new ArrayList<>();
 
     private UserProfile currentUserProfile;
     private String currentUserId;
     private CommunityRoom selectedRoom;
     private boolean suppressSelectionHandler;
-    private volatile boolean refreshInFlight;
-    private Timeline refreshTimeline;
+    private boolean realtimePaused;
+    private String watchedRoomId;
+    private String watchedUniversityKey;
+    /** Room whose messages visibleMessages holds. */
+    private String shownRoomId;
+    private boolean olderInFlight;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -97,6 +114,7 @@ public class CommunityController implements Initializable {
             messageListView.setItems(visibleMessages);
             messageListView.setCellFactory(list -> new CommunityMessageCell());
             messageListView.setPlaceholder(new Label("No messages yet. Start the conversation."));
+            messageListView.skinProperty().addListener((obs, oldSkin, newSkin) -> watchScrollToTop());
         }
         if (messageField != null) {
             messageField.setOnAction(event -> onSendClick());
@@ -108,72 +126,117 @@ public class CommunityController implements Initializable {
         if (communityRoot != null) {
             communityRoot.sceneProperty().addListener((obs, oldScene, newScene) -> {
                 if (oldScene != null && newScene == null) {
-                    stopRealtimeRefresh();
+                    pauseRealtime();
                 } else if (newScene != null) {
-                    startRealtimeRefresh();
+                    resumeRealtime();
                 }
             });
         }
+        tasks.onCancel(realtimeService::unsubscribe);
+        realtimeService.setOnReconnect(() -> Platform.runLater(tasks.guard(() ->
+            reloadRooms(selectedRoom != null ? selectedRoom.getId() : null))));
         loadCommunityData();
     }
 
     private void loadCommunityData() {
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 currentUserId = ApiService.getInstance().getCurrentUserId();
                 currentUserProfile = AuthService.getInstance().getCurrentUserProfile();
-                List<UserProfile> allProfiles = currentUserProfile == null
-                    ? Collections.emptyList()
-                    : ApiService.getInstance().getAllProfiles();
-                List<CommunityRoom> rooms = communityService.buildCommunities(currentUserProfile, allProfiles);
-                Platform.runLater(() -> applyRooms(currentUserProfile, rooms, null));
+                List<CommunityRoom> rooms = communityService.buildCommunities(currentUserProfile);
+                Platform.runLater(tasks.guard(() -> applyRooms(currentUserProfile, rooms, null)));
             } catch (ApiException e) {
-                Platform.runLater(this::showLoadError);
+                Platform.runLater(tasks.guard(this::showLoadError));
             }
-        }, "community-load").start();
+        });
     }
 
     private void onRoomSelected(CommunityRoom room) {
         selectedRoom = room;
         renderRoomDetails(room, true);
-        loadMessagesAsync(room, false);
+        loadMessagesAsync(room);
         updateSendButtonState();
     }
 
     @FXML
     protected void onSendClick() {
         // ...existing send click logic...
-        if (selectedRoom == null || currentUserProfile == null || messageField == null) return;
+        if (sending || selectedRoom == null || currentUserProfile == null || messageField == null) return;
         String content = messageField.getText();
         boolean hasText = content != null && !content.isBlank();
         boolean hasImage = pendingImageBytes != null && pendingImageBytes.length > 0;
         if (!hasText && !hasImage) return;
 
-        try {
-            String imageUrl = null;
-            if (hasImage) {
-                try {
-                    String path = ImageSelectionSupport.buildStoragePath(currentUserId, pendingImageExtension);
-                    imageUrl = ApiService.getInstance().uploadToStorage("community-images", path, pendingImageBytes, pendingImageContentType);
-                } catch (ApiException e) {
-                    // ignore for now
-                    return;
-                }
+        // Upload and queue off the FX thread. The draft stays in the composer until the row is queued, and
+        // is put back (with the local copy removed) if the server later rejects it.
+        String roomId = selectedRoom.getId();
+        String senderId = currentUserId;
+        String senderName = currentUserProfile.getFullName() != null && !currentUserProfile.getFullName().isBlank()
+            ? currentUserProfile.getFullName() : "Student";
+        String text = hasText ? content.trim() : "";
+        byte[] imageBytes = hasImage ? pendingImageBytes : null;
+        String imageExtension = pendingImageExtension;
+        String imageContentType = pendingImageContentType;
+        String idleText = sendButton != null ? sendButton.getText() : null;
+        sending = true;
+        updateSendButtonState();
+        TaskScheduler.getInstance().submit(() -> {
+            try {
+                String imageUrl = imageBytes != null
+                    ? ImageSelectionSupport.uploadImage("community-images", senderId + "/", imageBytes, imageExtension,
+                        imageContentType, ImageSelectionSupport.progressOn(sendButton))
+                    : null;
+                CompletableFuture<Void> delivery = communityService.sendMessage(roomId, senderId, senderName, text, imageUrl);
+                CommunityMessage local = new CommunityMessage(roomId, senderId, senderName, text, imageUrl,
+                    OffsetDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+                Platform.runLater(tasks.guard(() -> {
+                    sending = false;
+                    if (sendButton != null) sendButton.setText(idleText);
+                    pendingSent.add(local);
+                    if (selectedRoom != null && roomId.equals(selectedRoom.getId())) {
+                        visibleMessages.add(local);
+                        messageField.clear();
+                        pendingImageBytes = null;
+                        scrollMessagesToBottom();
+                    }
+                    updateSendButtonState();
+                }));
+                delivery.whenComplete((ignored, error) -> {
+                    if (error == null) return;
+                    Platform.runLater(tasks.guard(() -> restoreRejected(local, imageBytes, imageExtension, imageContentType, error)));
+                });
+            } catch (ApiException e) {
+                Platform.runLater(tasks.guard(() -> {
+                    sending = false;
+                    if (sendButton != null) sendButton.setText(idleText);
+                    updateSendButtonState();
+                    DraftSupport.reportRejected("message", e, true);
+                }));
+            }
+        });
+    }
+
+    /**
+     * The server dropped a queued message: takes its local copy off screen and puts the text and image back
+     * in the composer, unless the user has moved to another room or started a new message since.
+     */
+    private void restoreRejected(CommunityMessage local, byte[] imageBytes, String imageExtension, String imageContentType,
+                                 Throwable error) {
+        pendingSent.remove(local);
+        visibleMessages.remove(local);
+        boolean composerFree = selectedRoom != null && local.getRoomId().equals(selectedRoom.getId())
+            && messageField != null && (messageField.getText() == null || messageField.getText().isBlank())
+            && pendingImageBytes == null;
+        if (composerFree) {
+            messageField.setText(local.getContent());
+            if (imageBytes != null) {
+                pendingImageBytes = imageBytes;
+                pendingImageExtension = imageExtension;
+                pendingImageContentType = imageContentType;
             }
-            CommunityMessage sent = communityService.sendMessage(
-                selectedRoom.getId(),
-                currentUserId,
-                currentUserProfile.getFullName(),
-                hasText ? content.trim() : "",
-                imageUrl
-            );
-            visibleMessages.add(sent);
-            messageField.clear();
-            pendingImageBytes = null;
             updateSendButtonState();
-            scrollMessagesToBottom();
-        } catch (ApiException ignored) {
         }
+        DraftSupport.reportRejected("message", error, composerFree);
     }
 
     @FXML
@@ -243,6 +306,9 @@ public class CommunityController implements Initializable {
             if (listChanged) {
                 availableRooms.setAll(rooms);
             }
+            if (!rooms.isEmpty()) {
+                watchRooms(rooms.get(0).getUniversityKey());
+            }
             
             if (!availableRooms.isEmpty()) {
                 // Find the room to display: prioritize selectedId, then current selectedRoom
@@ -307,7 +373,7 @@ public class CommunityController implements Initializable {
             }
             
             if (selectedRoom != null) {
-                loadMessagesAsync(selectedRoom, false);
+                loadMessagesAsync(selectedRoom);
             }
         } finally {
             suppressSelectionHandler = false;
@@ -329,39 +395,72 @@ public class CommunityController implements Initializable {
         if (sendButton != null) sendButton.setDisable(false);
     }
 
-    private void loadMessagesAsync(CommunityRoom room, boolean preserveScrollPosition) {
+    /**
+     * Shows the room's cached messages right away, then fetches only the rows newer than the last one seen.
+     */
+    private void loadMessagesAsync(CommunityRoom room) {
         if (room == null) return;
         String roomId = room.getId();
-        new Thread(() -> {
+        watchMessages(roomId);
+        if (!roomId.equals(shownRoomId)) {
+            shownRoomId = roomId;
+            List<CommunityMessage> shown = new ArrayList<>(messageStore.cached(roomId));
+            for (CommunityMessage local : pendingSent) {
+                if (roomId.equals(local.getRoomId())) shown.add(local);
+            }
+            visibleMessages.setAll(shown);
+            scrollMessagesToBottom();
+        }
+        tasks.submit(() -> {
             try {
-                List<CommunityMessage> messages = communityService.getMessages(roomId);
-                Platform.runLater(() -> {
-                    if (selectedRoom == null || !roomId.equals(selectedRoom.getId())) return;
-                    boolean changed = messagesChanged(messages);
-                    if (changed) {
-                        visibleMessages.setAll(messages);
-                        if (!preserveScrollPosition || roomId.equals(selectedRoom.getId())) {
-                            scrollMessagesToBottom();
-                        }
-                    }
-                });
+                List<CommunityMessage> newer = messageStore.fetchNewer(roomId);
+                Platform.runLater(tasks.guard(() -> {
+                    if (selectedRoom == null || !roomId.equals(selectedRoom.getId()) || newer.isEmpty()) return;
+                    newer.forEach(this::showMessage);
+                    scrollMessagesToBottom();
+                }));
             } catch (ApiException ignored) {
             }
-        }, "community-messages-" + roomId).start();
-    }
-
-    private boolean messagesChanged(List<CommunityMessage> messages) {
-        if (messages.size() != visibleMessages.size()) return true;
-        for (int i = 0; i < messages.size(); i++) {
-            CommunityMessage incoming = messages.get(i);
-            CommunityMessage current = visibleMessages.get(i);
-            if (!Objects.equals(incoming.getCreatedAt(), current.getCreatedAt())
-                || !Objects.equals(incoming.getSenderId(), current.getSenderId())
-                || !Objects.equals(incoming.getContent(), current.getContent())) {
-                return true;
+        });
+    }
+
+    /**
+     * Loads older history when the user scrolls the message list up to its top.
+     */
+    private void watchScrollToTop() {
+        for (Node node : messageListView.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() <= bar.getMin() && oldValue.doubleValue() > newValue.doubleValue()) {
+                        loadOlderMessages();
+                    }
+                });
             }
         }
-        return false;
+    }
+
+    /**
+     * Loads the page of history before the oldest shown message.
+     */
+    private void loadOlderMessages() {
+        if (olderInFlight || selectedRoom == null || !selectedRoom.getId().equals(shownRoomId)) return;
+        String roomId = selectedRoom.getId();
+        if (!messageStore.hasOlder(roomId)) return;
+        olderInFlight = true;
+        tasks.submit(() -> {
+            try {
+                List<CommunityMessage> older = messageStore.fetchOlder(roomId);
+                Platform.runLater(tasks.guard(() -> {
+                    olderInFlight = false;
+                    if (older.isEmpty() || !roomId.equals(shownRoomId)) return;
+                    visibleMessages.addAll(0, older);
+                    // Keep the message that was on top in place.
+                    if (messageListView != null) messageListView.scrollTo(older.size());
+                }));
+            } catch (ApiException e) {
+                Platform.runLater(tasks.guard(() -> olderInFlight = false));
+            }
+        });
     }
 
     private int approximateCommunitySize() {
@@ -370,59 +469,177 @@ public class CommunityController implements Initializable {
 
     private void reloadRooms(String roomIdToSelect) {
         if (currentUserProfile == null) return;
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
-                List<UserProfile> allProfiles = ApiService.getInstance().getAllProfiles();
-                List<CommunityRoom> rooms = communityService.buildCommunities(currentUserProfile, allProfiles);
-                Platform.runLater(() -> applyRooms(currentUserProfile, rooms, roomIdToSelect));
+                List<CommunityRoom> rooms = communityService.buildCommunities(currentUserProfile);
+                Platform.runLater(tasks.guard(() -> applyRooms(currentUserProfile, rooms, roomIdToSelect)));
             } catch (ApiException e) {
-                Platform.runLater(this::showLoadError);
+                Platform.runLater(tasks.guard(this::showLoadError));
             }
-        }, "community-refresh").start();
+        });
+    }
+
+    // ----- Realtime -----
+
+    /**
+     * Follows room changes for the university. Its key never changes for the signed-in user,
+     * so one subscription lasts for the life of the view.
+     */
+    private void watchRooms(String universityKey) {
+        if (realtimePaused || universityKey == null || universityKey.equals(watchedUniversityKey)) return;
+        watchedUniversityKey = universityKey;
+        realtimeService.subscribeToCommunityRooms(universityKey, ApiService.getInstance().getAccessToken(), this::handleRoomChange);
+    }
+
+    /**
+     * Moves the message subscription to the given room.
+     */
+    private void watchMessages(String roomId) {
+        if (realtimePaused || roomId == null || roomId.equals(watchedRoomId)) return;
+        realtimeService.unsubscribeFromCommunityRoom(watchedRoomId);
+        watchedRoomId = roomId;
+        realtimeService.subscribeToCommunityRoom(roomId, ApiService.getInstance().getAccessToken(), this::handleMessageChange);
     }
 
-    private void startRealtimeRefresh() {
-        if (refreshTimeline != null) return;
-        refreshTimeline = new Timeline(new KeyFrame(REFRESH_INTERVAL, event -> refreshCommunityState()));
-        refreshTimeline.setCycleCount(Timeline.INDEFINITE);
-        refreshTimeline.play();
+    private void pauseRealtime() {
+        realtimePaused = true;
+        realtimeService.unsubscribe();
+        watchedRoomId = null;
+        watchedUniversityKey = null;
     }
 
-    private void stopRealtimeRefresh() {
-        if (refreshTimeline != null) {
-            refreshTimeline.stop();
-            refreshTimeline = null;
+    /**
+     * Re-subscribes after the view was detached, reloading once to pick up what was missed meanwhile.
+     */
+    private void resumeRealtime() {
+        if (!realtimePaused) return;
+        realtimePaused = false;
+        reloadRooms(selectedRoom != null ? selectedRoom.getId() : null);
+    }
+
+    /**
+     * Appends a realtime INSERT on community_messages to the open room.
+     */
+    private void handleMessageChange(JsonObject payload) {
+        JsonObject data = object(payload, "data");
+        JsonObject record = data != null && "INSERT".equals(asString(data, "type")) ? object(data, "record") : null;
+        if (record == null) return;
+        CommunityMessage message = ModelAdapters.fromTree(record, CommunityMessage.class);
+        Platform.runLater(tasks.guard(() -> appendMessage(message)));
+    }
+
+    private void appendMessage(CommunityMessage message) {
+        if (selectedRoom == null || !Objects.equals(message.getRoomId(), selectedRoom.getId())) return;
+        if (!messageStore.add(message)) return; // already delivered by a fetch
+        showMessage(message);
+        scrollMessagesToBottom();
+    }
+
+    /**
+     * Puts a stored row on screen: replaces our own local copy if it is one, otherwise inserts it in
+     * (created_at, id) order unless it is already shown.
+     */
+    private void showMessage(CommunityMessage message) {
+        for (CommunityMessage local : pendingSent) {
+            if (sameMessage(local, message)) {
+                // Our own send coming back: swap the local copy for the stored row.
+                pendingSent.remove(local);
+                int index = visibleMessages.indexOf(local);
+                if (index >= 0) {
+                    visibleMessages.set(index, message);
+                    return;
+                }
+                break;
+            }
         }
+        for (CommunityMessage shown : visibleMessages) {
+            if (CommunityMessageStore.sameRow(shown, message)) return;
+        }
+        int index = visibleMessages.size();
+        while (index > 0 && CommunityMessageStore.ORDER.compare(visibleMessages.get(index - 1), message) > 0) index--;
+        visibleMessages.add(index, message);
+    }
+
+    /**
+     * Applies a realtime INSERT/UPDATE/DELETE on community_rooms to the room list, keeping its order and
+     * the current selection.
+     */
+    private void handleRoomChange(JsonObject payload) {
+        JsonObject data = object(payload, "data");
+        if (data == null) return;
+        String type = asString(data, "type");
+        JsonObject record = object(data, "record");
+        JsonObject oldRecord = object(data, "old_record");
+        CommunityRoom changed = record != null ? ModelAdapters.fromTree(record, CommunityRoom.class) : null;
+        String removedId = oldRecord != null ? asString(oldRecord, "id") : null;
+        ApiService.getInstance().invalidateCommunityRooms();
+        Platform.runLater(tasks.guard(() -> applyRoomChange(type, changed, removedId)));
     }
 
-    private void refreshCommunityState() {
-        if (refreshInFlight || currentUserProfile == null || selectedRoom == null) return;
-        refreshInFlight = true;
-        String selectedId = selectedRoom.getId();  // Capture selected room ID immediately
-        new Thread(() -> {
+    private void applyRoomChange(String type, CommunityRoom changed, String removedId) {
+        if (currentUserProfile == null) return;
+        boolean deleted = "DELETE".equals(type);
+        String id = deleted ? removedId : changed != null ? changed.getId() : null;
+        if (id == null) return;
+
+        List<CommunityRoom> rooms = new ArrayList<>(availableRooms);
+        boolean known = rooms.removeIf(room -> id.equals(room.getId()));
+        if (deleted && !known) return; // unfiltered DELETE for another university
+        if (!deleted) rooms.add(changed);
+        rooms.sort(communityService.roomOrder());
+
+        if (deleted && selectedRoom != null && id.equals(selectedRoom.getId())) {
+            if (rooms.isEmpty()) {
+                applyRooms(currentUserProfile, rooms, null);
+                return;
+            }
+            CommunityRoom next = rooms.get(0);
+            suppressSelectionHandler = true;
             try {
-                List<UserProfile> allProfiles = ApiService.getInstance().getAllProfiles();
-                List<CommunityRoom> rooms = communityService.buildCommunities(currentUserProfile, allProfiles);
-                List<CommunityMessage> latestMessages = selectedId != null
-                    ? communityService.getMessages(selectedId)
-                    : List.of();
-                Platform.runLater(() -> {
-                    applyRooms(currentUserProfile, rooms, selectedId);
-                    if (selectedRoom != null && selectedId.equals(selectedRoom.getId()) && messagesChanged(latestMessages)) {
-                        visibleMessages.setAll(latestMessages);
-                        scrollMessagesToBottom();
-                    }
-                    refreshInFlight = false;
-                });
-            } catch (ApiException e) {
-                Platform.runLater(() -> refreshInFlight = false);
+                availableRooms.setAll(rooms);
+                if (communityListView != null) communityListView.getSelectionModel().select(next);
+            } finally {
+                suppressSelectionHandler = false;
+            }
+            onRoomSelected(next);
+            return;
+        }
+
+        suppressSelectionHandler = true;
+        try {
+            availableRooms.setAll(rooms);
+            if (selectedRoom != null) {
+                String selectedId = selectedRoom.getId();
+                selectedRoom = rooms.stream().filter(room -> room.getId().equals(selectedId)).findFirst().orElse(selectedRoom);
+                if (communityListView != null) communityListView.getSelectionModel().select(selectedRoom);
+                if (id.equals(selectedId)) renderRoomDetails(selectedRoom, false);
             }
-        }, "community-live-refresh").start();
+        } finally {
+            suppressSelectionHandler = false;
+        }
+    }
+
+    private static boolean sameMessage(CommunityMessage a, CommunityMessage b) {
+        return Objects.equals(a.getRoomId(), b.getRoomId())
+            && Objects.equals(a.getSenderId(), b.getSenderId())
+            && Objects.equals(a.getContent(), b.getContent())
+            && Objects.equals(a.getImageUrl(), b.getImageUrl());
+    }
+
+    private static JsonObject object(JsonObject o, String key) {
+        JsonElement e = o != null ? o.get(key) : null;
+        return e != null && e.isJsonObject() ? e.getAsJsonObject() : null;
+    }
+
+    private static String asString(JsonObject o, String key) {
+        JsonElement e = o.get(key);
+        return e != null && !e.isJsonNull() ? e.getAsString() : null;
     }
 
     private void showLoadError() {
         availableRooms.clear();
         visibleMessages.clear();
+        shownRoomId = null;
         titleLabel.setText("Community");
         subtitleLabel.setText("Unable to load university communities right now.");
         verificationLabel.setText("Verification unavailable");
@@ -448,7 +665,7 @@ public class CommunityController implements Initializable {
     private void updateSendButtonState() {
         boolean hasText = messageField != null && messageField.getText() != null && !messageField.getText().isBlank();
         boolean hasImage = pendingImageBytes != null && pendingImageBytes.length > 0;
-        boolean canSend = selectedRoom != null && currentUserProfile != null && (hasText || hasImage);
+        boolean canSend = !sending && selectedRoom != null && currentUserProfile != null && (hasText || hasImage);
         if (sendButton != null) {
             sendButton.setDisable(!canSend);
         }
@@ -520,7 +737,8 @@ public class CommunityController implements Initializable {
 
             if (message.getImageUrl() != null && !message.getImageUrl().isBlank()) {
                 try {
-                    ImageView imageView = new ImageView(new Image(message.getImageUrl(), true));
+                    ImageView imageView = new ImageView();
+                    ImageCache.getInstance().load(imageView, message.getImageUrl(), 280, 220);
                     imageView.setFitWidth(280);
                     imageView.setFitHeight(220);
                     imageView.setPreserveRatio(true);
@@ -3,6 +3,7 @@ package com.campasian.controller;
 import com.campasian.model.Confession;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.SceneManager;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -26,6 +27,8 @@ public class ConfessionController implements Initializable {
     @FXML private Button postBtn;
     @FXML private VBox itemsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         loadConfessions();
@@ -53,10 +56,10 @@ public class ConfessionController implements Initializable {
     private void loadConfessions() {
         if (itemsVBox == null) return;
         itemsVBox.getChildren().clear();
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<Confession> list = ApiService.getInstance().getConfessions();
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox == null) return;
                     itemsVBox.getChildren().clear();
                     for (Confession confession : list) {
@@ -67,17 +70,17 @@ public class ConfessionController implements Initializable {
                         empty.getStyleClass().add("profile-label");
                         itemsVBox.getChildren().add(empty);
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox != null) {
                         Label err = new Label("Unable to load.");
                         err.getStyleClass().add("profile-label");
                         itemsVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildCard(Confession confession) {
@@ -2,6 +2,7 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.util.DraftSupport;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import javafx.stage.Stage;
@@ -20,9 +21,8 @@ public class ConfessionModalController {
         String content = contentField != null ? contentField.getText() : null;
         if (content == null || content.isBlank()) return;
         try {
-            ApiService.getInstance().createConfession(content.trim());
-            if (onSuccess != null) onSuccess.run();
-            if (stage != null) stage.close();
+            DraftSupport.closeUntilDelivered(stage,
+                ApiService.getInstance().createConfession(content.trim()), onSuccess, "confession");
         } catch (ApiException e) { /* ignore */ }
     }
 
@@ -2,6 +2,7 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.CommunityService;
+import com.campasian.service.TaskScheduler;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
@@ -48,7 +49,7 @@ public class CreateRoomModalController implements Initializable {
         }
 
         // Create the room asynchronously
-        new Thread(() -> {
+        TaskScheduler.getInstance().submit(() -> {
             try {
                 // Get current user ID and profile from AuthService
                 String currentUserId = com.campasian.service.ApiService.getInstance().getCurrentUserId();
@@ -80,7 +81,7 @@ public class CreateRoomModalController implements Initializable {
                     showAlert(Alert.AlertType.ERROR, "Error", "Failed to create room: " + e.getMessage())
                 );
             }
-        }, "create-room").start();
+        });
     }
 
     @FXML
@@ -2,6 +2,11 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.ImageCache;
+import com.campasian.service.TaskScheduler;
+import com.campasian.util.ImageCompressor;
+import com.campasian.util.ImageSelectionSupport;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -32,6 +37,8 @@ public class EditProfileModalController {
     private Runnable onSaved;
     private byte[] avatarBytes;
     private String avatarContentType = "image/png";
+    private String avatarExtension = "png";
+    private boolean saving;
 
     public void setStage(Stage stage) { this.stage = stage; }
     public void setOnSaved(Runnable r) { this.onSaved = r; }
@@ -48,7 +55,7 @@ public class EditProfileModalController {
     public void setInitialAvatarUrl(String avatarUrl) {
         if (avatarPreview != null && avatarUrl != null && !avatarUrl.isBlank()) {
             try {
-                avatarPreview.setImage(new Image(avatarUrl, true));
+                ImageCache.getInstance().loadFitted(avatarPreview, avatarUrl);
             } catch (Exception ignored) {}
         }
     }
@@ -61,10 +68,16 @@ public class EditProfileModalController {
         File f = chooser.showOpenDialog(stage);
         if (f != null) {
             try {
-                avatarBytes = Files.readAllBytes(f.toPath());
                 String name = f.getName().toLowerCase();
-                avatarContentType = name.endsWith(".jpg") || name.endsWith(".jpeg") ? "image/jpeg" :
+                String contentType = name.endsWith(".jpg") || name.endsWith(".jpeg") ? "image/jpeg" :
                     name.endsWith(".gif") ? "image/gif" : "image/png";
+                String extension = name.endsWith(".jpg") || name.endsWith(".jpeg") ? "jpg" :
+                    name.endsWith(".gif") ? "gif" : "png";
+                ImageCompressor.Result compressed = ImageCompressor.compress(
+                    Files.readAllBytes(f.toPath()), extension, contentType, ImageCompressor.AVATAR_DIMENSION);
+                avatarBytes = compressed.getBytes();
+                avatarContentType = compressed.getContentType();
+                avatarExtension = compressed.getExtension();
                 avatarPreview.setImage(new Image(new FileInputStream(f), 64, 64, true, true));
                 if (avatarLabel != null) avatarLabel.setText(f.getName());
             } catch (Exception ignored) {}
@@ -73,23 +86,42 @@ public class EditProfileModalController {
 
     @FXML
     protected void onSaveClick() {
-        try {
-            if (avatarBytes != null && avatarBytes.length > 0) {
-                String path = ApiService.getInstance().getCurrentUserId() + "/avatar.png";
-                String url = ApiService.getInstance().uploadToStorage("avatars", path, avatarBytes, avatarContentType);
-                ApiService.getInstance().updateProfileAvatar(url);
+        if (saving) return;
+        String fullName = fullNameField != null ? fullNameField.getText() : null;
+        String university = universityField != null ? universityField.getText() : null;
+        String bio = bioField != null ? bioField.getText() : null;
+        String bloodGroup = bloodGroupField != null && !bloodGroupField.getText().isBlank() ? bloodGroupField.getText().trim() : null;
+        String session = sessionField != null && !sessionField.getText().isBlank() ? sessionField.getText().trim() : null;
+        String batch = batchField != null && !batchField.getText().isBlank() ? batchField.getText().trim() : null;
+        byte[] avatar = avatarBytes;
+        String extension = avatarExtension;
+        String contentType = avatarContentType;
+        String avatarText = avatarLabel != null ? avatarLabel.getText() : null;
+        saving = true;
+        // Upload and save off the FX thread so the avatar upload can show progress; the modal stays open
+        // until both are done, and saving again after a failure resumes an interrupted upload.
+        TaskScheduler.getInstance().submit(() -> {
+            boolean saved = false;
+            try {
+                if (avatar != null && avatar.length > 0) {
+                    // Named by content, so cached copies of the previous avatar are never served for the new one.
+                    String url = ImageSelectionSupport.uploadImage("avatars", ApiService.getInstance().getCurrentUserId() + "/avatar-",
+                        avatar, extension, contentType, ImageSelectionSupport.progressOn(avatarLabel));
+                    ApiService.getInstance().updateProfileAvatar(url);
+                }
+                ApiService.getInstance().updateProfile(fullName, university, bio, bloodGroup, session, batch);
+                saved = true;
+            } catch (ApiException ignored) {
             }
-            ApiService.getInstance().updateProfile(
-                fullNameField != null ? fullNameField.getText() : null,
-                universityField != null ? universityField.getText() : null,
-                bioField != null ? bioField.getText() : null,
-                bloodGroupField != null && !bloodGroupField.getText().isBlank() ? bloodGroupField.getText().trim() : null,
-                sessionField != null && !sessionField.getText().isBlank() ? sessionField.getText().trim() : null,
-                batchField != null && !batchField.getText().isBlank() ? batchField.getText().trim() : null
-            );
-            if (onSaved != null) onSaved.run();
-            if (stage != null) stage.close();
-        } catch (ApiException e) { /* ignore */ }
+            boolean done = saved;
+            Platform.runLater(() -> {
+                saving = false;
+                if (avatarLabel != null) avatarLabel.setText(avatarText);
+                if (!done) return;
+                if (onSaved != null) onSaved.run();
+                if (stage != null) stage.close();
+            });
+        });
     }
 
     @FXML
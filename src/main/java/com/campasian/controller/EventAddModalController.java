@@ -2,6 +2,7 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.util.DraftSupport;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -28,9 +29,9 @@ public class EventAddModalController {
         if (date == null || date.isBlank()) return;
         if (venue == null || venue.isBlank()) return;
         try {
-            ApiService.getInstance().createCampusEvent(title, descField != null ? descField.getText() : null, date, venue);
-            if (onSuccess != null) onSuccess.run();
-            if (stage != null) stage.close();
+            DraftSupport.closeUntilDelivered(stage,
+                ApiService.getInstance().createCampusEvent(title, descField != null ? descField.getText() : null, date, venue),
+                onSuccess, "event");
         } catch (ApiException e) { /* ignore */ }
     }
 
@@ -3,6 +3,7 @@ package com.campasian.controller;
 import com.campasian.model.CampusEvent;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.SceneManager;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -38,6 +39,8 @@ public class EventsController implements Initializable {
     @FXML private Button clubsBtn;
     @FXML private VBox eventsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private final List<CampusEvent> allEvents = new ArrayList<>();
     private String currentFilter;
     private static final String FILTER_ACTIVE = "marketplace-filter-btn-active";
@@ -94,24 +97,24 @@ public class EventsController implements Initializable {
     private void loadEvents() {
         if (eventsVBox == null) return;
         eventsVBox.getChildren().clear();
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<CampusEvent> list = ApiService.getInstance().getCampusEvents();
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     allEvents.clear();
                     allEvents.addAll(list);
                     renderEvents();
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (eventsVBox != null) {
                         Label err = new Label("Unable to load events.");
                         err.getStyleClass().add("profile-label");
                         eventsVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private void renderEvents() {
@@ -174,17 +177,29 @@ public class EventsController implements Initializable {
         Button interestedBtn = new Button(event.isUserInterested() ? "Interested" : "Join Interest");
         interestedBtn.getStyleClass().add("btn-interested");
         if (event.isUserInterested()) interestedBtn.getStyleClass().add("btn-interested-active");
-        interestedBtn.setOnAction(e -> {
-            try {
-                ApiService.getInstance().toggleEventInterest(event.getId());
-                loadEvents();
-            } catch (ApiException ignored) {
-            }
-        });
-
         Label countLbl = new Label(event.getInterestedCount() + " interested");
         countLbl.getStyleClass().add("events-count");
 
+        interestedBtn.setOnAction(e -> {
+            interestedBtn.setDisable(true);
+            tasks.submit(() -> {
+                try {
+                    CampusEvent state = ApiService.getInstance().toggleEventInterest(event.getId());
+                    Platform.runLater(tasks.guard(() -> {
+                        event.setInterestedCount(state.getInterestedCount());
+                        event.setUserInterested(state.isUserInterested());
+                        countLbl.setText(state.getInterestedCount() + " interested");
+                        interestedBtn.setText(state.isUserInterested() ? "Interested" : "Join Interest");
+                        interestedBtn.getStyleClass().remove("btn-interested-active");
+                        if (state.isUserInterested()) interestedBtn.getStyleClass().add("btn-interested-active");
+                        interestedBtn.setDisable(false);
+                    }));
+                } catch (ApiException ex) {
+                    Platform.runLater(tasks.guard(() -> interestedBtn.setDisable(false)));
+                }
+            });
+        });
+
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
 
@@ -4,6 +4,7 @@ import com.campasian.model.Faculty;
 import com.campasian.model.FacultyFeedback;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -23,6 +24,8 @@ public class FacultyController implements Initializable {
     @FXML private TextField searchField;
     @FXML private VBox facultyVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private final PauseTransition debouncer = new PauseTransition(Duration.millis(300));
 
     @Override
@@ -49,10 +52,10 @@ public class FacultyController implements Initializable {
         facultyVBox.getChildren().clear();
         String query = searchField != null ? searchField.getText() : null;
         String q = query != null ? query.trim() : "";
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<Faculty> list = ApiService.getInstance().getFaculty(q.isEmpty() ? null : q);
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (facultyVBox == null) return;
                     facultyVBox.getChildren().clear();
                     for (Faculty faculty : list) {
@@ -64,17 +67,17 @@ public class FacultyController implements Initializable {
                         empty.setWrapText(true);
                         facultyVBox.getChildren().add(empty);
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (facultyVBox != null) {
                         Label err = new Label("Unable to load faculty.");
                         err.getStyleClass().add("profile-label");
                         facultyVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildCard(Faculty faculty) {
@@ -105,9 +108,9 @@ public class FacultyController implements Initializable {
             String text = feedbackInput.getText();
             if (text != null && !text.isBlank()) {
                 try {
-                    ApiService.getInstance().createFacultyFeedback(faculty.getId(), null, text.trim());
+                    ApiService.getInstance().createFacultyFeedback(faculty.getId(), null, text.trim())
+                        .thenRun(() -> Platform.runLater(tasks.guard(this::loadFaculty)));
                     feedbackInput.clear();
-                    loadFaculty();
                 } catch (ApiException ignored) {
                 }
             }
@@ -115,20 +118,20 @@ public class FacultyController implements Initializable {
 
         feedbackSection.getChildren().addAll(feedbackTitle, existingFeedbacks, feedbackInput, submitBtn);
         String facultyId = faculty.getId();
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<FacultyFeedback> feedbacks = ApiService.getInstance().getFacultyFeedback(facultyId);
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     for (FacultyFeedback feedback : feedbacks) {
                         Label feedbackLabel = new Label(feedback.getFeedback() != null ? feedback.getFeedback() : "");
                         feedbackLabel.getStyleClass().add("faculty-feedback-card");
                         feedbackLabel.setWrapText(true);
                         existingFeedbacks.getChildren().add(feedbackLabel);
                     }
-                });
+                }));
             } catch (ApiException ignored) {
             }
-        }).start();
+        });
 
         VBox card = new VBox(10);
         card.getStyleClass().add("faculty-card");
@@ -2,20 +2,28 @@ package com.campasian.controller;
 
 import com.campasian.model.Comment;
 import com.campasian.model.Post;
+import com.campasian.model.UserProfile;
 import com.campasian.view.AppRouter;
 import com.campasian.service.ApiService;
 import com.campasian.service.ApiException;
+import com.campasian.service.ImageCache;
+import com.campasian.service.LikeManager;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.SceneManager;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -39,19 +47,34 @@ import java.util.ResourceBundle;
  */
 public class FeedController implements Initializable {
 
-    @FXML private VBox feedVBox;
+    @FXML private ListView<FeedItem> feedListView;
     @FXML private Button feedGlobalBtn;
     @FXML private Button feedFollowingBtn;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private static final String FEED_FILTER_ACTIVE = "feed-filter-active";
     private boolean feedFollowingOnly = false;
 
     private static final int POSTS_PER_PAGE = 30;
-    private List<Post> cachedPosts = new ArrayList<>();
+    /** Start paging in the next batch once a cell this close to the end is shown. */
+    private static final int LOAD_MORE_THRESHOLD = 5;
+    private final ObservableList<FeedItem> feedItems = FXCollections.observableArrayList();
     private int postsLoaded = 0;
+    private String cursorCreatedAt;
+    private Long cursorId;
+    private boolean loadingPage;
+    private boolean reachedEnd;
+    private int feedGeneration;
+    private List<UserProfile> suggestedProfiles;
+    private boolean suggestionsRequested;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        if (feedListView != null) {
+            feedListView.setItems(feedItems);
+            feedListView.setCellFactory(list -> new PostCell());
+        }
         loadFeed();
     }
 
@@ -95,75 +118,70 @@ public class FeedController implements Initializable {
     }
 
     public void loadFeed() {
-        if (feedVBox == null) return;
-        feedVBox.getChildren().clear();
+        if (feedListView == null) return;
+        feedItems.clear();
+        feedListView.setPlaceholder(new Label("Loading feed..."));
+        feedGeneration++;
         postsLoaded = 0;
-        cachedPosts.clear();
-
-        new Thread(() -> {
-            try {
-                List<Post> posts = ApiService.getInstance().getFeed(feedFollowingOnly);
-                
-                // Sort by date (newest first)
-                posts.sort((p1, p2) -> {
-                    try {
-                        OffsetDateTime d1 = OffsetDateTime.parse(p1.getCreatedAt());
-                        OffsetDateTime d2 = OffsetDateTime.parse(p2.getCreatedAt());
-                        return d2.compareTo(d1);
-                    } catch (Exception e) {
-                        return 0;
-                    }
-                });
-                
-                // Shuffle with priority
-                cachedPosts = shufflePostsWithPriority(posts);
-                
-                // Show first page immediately
-                displayPostsPage(0, POSTS_PER_PAGE);
-                
-            } catch (ApiException e) {
-                Platform.runLater(() -> {
-                    if (feedVBox != null) {
-                        feedVBox.getChildren().clear();
+        cursorCreatedAt = null;
+        cursorId = null;
+        reachedEnd = false;
+        loadingPage = false;
+        loadMorePosts();
+    }
+
+    /**
+     * Fetches the page after the current cursor. Each page is ordered newest first by the server
+     * and shuffled locally, so older pages never mix ahead of newer ones.
+     */
+    public void loadMorePosts() {
+        if (loadingPage || reachedEnd) return;
+        loadingPage = true;
+        int generation = feedGeneration;
+
+        tasks.track(ApiService.getInstance().getFeedPageAsync(cursorCreatedAt, cursorId, POSTS_PER_PAGE, feedFollowingOnly))
+            .thenAccept(posts -> Platform.runLater(tasks.guard(() -> {
+                if (generation != feedGeneration) return; // filter switched while loading
+                loadingPage = false;
+                if (posts.size() < POSTS_PER_PAGE) reachedEnd = true;
+                if (!posts.isEmpty()) {
+                    Post last = posts.get(posts.size() - 1);
+                    cursorCreatedAt = last.getCreatedAt();
+                    cursorId = last.getId();
+                }
+                displayPostsPage(shufflePostsWithPriority(posts));
+            })))
+            .exceptionally(error -> {
+                Platform.runLater(tasks.guard(() -> {
+                    if (generation != feedGeneration) return;
+                    loadingPage = false;
+                    if (feedListView != null && feedItems.isEmpty()) {
                         Label placeholder = new Label("Unable to load feed.");
                         placeholder.getStyleClass().add("profile-label");
-                        feedVBox.getChildren().add(placeholder);
+                        feedListView.setPlaceholder(placeholder);
                     }
-                });
-            }
-        }).start();
+                }));
+                return null;
+            });
     }
-    
-    private void displayPostsPage(int startIdx, int pageSize) {
-        Platform.runLater(() -> {
-            if (feedVBox == null) return;
-            
-            int endIdx = Math.min(startIdx + pageSize, cachedPosts.size());
-            int postCount = startIdx;
-            
-            for (int i = startIdx; i < endIdx; i++) {
-                feedVBox.getChildren().add(buildPostCard(cachedPosts.get(i)));
-                postCount++;
-                
-                // Add suggestion every 25 posts
-                if (postCount % 25 == 0 && i < endIdx - 1) {
-                    VBox suggestionCard = buildUserSuggestionCard();
-                    if (suggestionCard != null) {
-                        feedVBox.getChildren().add(suggestionCard);
-                    }
-                }
+
+    private void displayPostsPage(List<Post> page) {
+        if (feedListView == null) return;
+        if (feedItems.isEmpty() && page.isEmpty()) feedListView.setPlaceholder(new Label("No posts yet."));
+
+        List<FeedItem> items = new ArrayList<>(page.size() + 1);
+        for (Post post : page) {
+            items.add(FeedItem.post(post));
+            postsLoaded++;
+
+            // Add suggestion every 25 posts
+            if (postsLoaded % 25 == 0) {
+                items.add(FeedItem.suggestions());
             }
-            
-            postsLoaded = endIdx;
-        });
-    }
-    
-    public void loadMorePosts() {
-        if (postsLoaded < cachedPosts.size()) {
-            displayPostsPage(postsLoaded, POSTS_PER_PAGE);
         }
+        feedItems.addAll(items);
     }
-    
+
     private List<Post> shufflePostsWithPriority(List<Post> posts) {
         if (posts.size() <= 1) return posts;
         
@@ -210,205 +228,45 @@ public class FeedController implements Initializable {
         return result;
     }
 
-    private VBox buildPostCard(Post post) {
-        String userName = post.getUserName() != null ? post.getUserName() : "Anonymous";
-        String university = post.getUniversity() != null && !post.getUniversity().isBlank()
-            ? post.getUniversity() : "";
-        String timeStr = formatTimeAgo(post.getCreatedAt());
+    private static VBox buildCommentCard(Comment c) {
+        String userName = c.getUserName() != null ? c.getUserName() : "Anonymous";
+        String content = c.getContent() != null ? c.getContent() : "";
+        String timeStr = formatCreatedAt(c.getCreatedAt());
 
-        // Facebook-style header with avatar and user info
-        HBox headerBox = new HBox(12);
-        headerBox.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
-        
-        // User avatar
-        Label avatarLabel = new Label(userName.substring(0, 1).toUpperCase());
-        avatarLabel.getStyleClass().add("post-avatar");
-        avatarLabel.setStyle("-fx-background-color: linear-gradient(135deg, #667eea 0%, #764ba2 100%); " +
-                             "-fx-text-fill: white; -fx-font-weight: bold; -fx-font-size: 14px; " +
-                             "-fx-alignment: center; -fx-padding: 8; -fx-background-radius: 100%;");
-        avatarLabel.setPrefWidth(40);
-        avatarLabel.setPrefHeight(40);
-        
-        // User info column
-        VBox userInfo = new VBox(2);
-        Label nameLabel = new Label(userName);
-        nameLabel.getStyleClass().add("post-author");
-        nameLabel.setCursor(javafx.scene.Cursor.HAND);
-        nameLabel.setOnMouseClicked(e -> AppRouter.navigateToProfile(post.getUserId()));
-        
-        Label metaLabel = new Label(university + (university.length() > 0 ? " · " : "") + timeStr);
-        metaLabel.getStyleClass().add("post-meta");
-        
-        userInfo.getChildren().addAll(nameLabel, metaLabel);
-        headerBox.getChildren().addAll(avatarLabel, userInfo);
-        
-        // Post content
-        Label content = new Label(post.getContent() != null ? post.getContent() : "");
-        content.getStyleClass().add("post-content");
-        content.setWrapText(true);
-        content.setStyle("-fx-padding: 8 0 0 0; -fx-font-size: 14px; -fx-line-spacing: 4;");
-
-        // Post image
-        StackPane postImageFrame = null;
-        if (post.getImageUrl() != null && !post.getImageUrl().isBlank()) {
-            try {
-                ImageView postImageView = new ImageView(new Image(post.getImageUrl(), true));
-                postImageView.setFitWidth(520);
-                postImageView.setFitHeight(340);
-                postImageView.setPreserveRatio(true);
-                postImageView.getStyleClass().add("post-image");
-                postImageFrame = new StackPane(postImageView);
-                postImageFrame.getStyleClass().add("post-image-frame");
-                postImageFrame.setStyle("-fx-padding: 12 0 0 0;");
-            } catch (Exception ignored) {}
-        }
+        String avatarText = userName.isBlank() ? "?" : userName.substring(0, 1).toUpperCase();
+        Label avatarLabel = new Label(avatarText);
+        avatarLabel.getStyleClass().add("comment-avatar");
+        avatarLabel.setMinSize(32, 32);
+        avatarLabel.setPrefSize(32, 32);
+        avatarLabel.setMaxSize(32, 32);
+        avatarLabel.setAlignment(javafx.geometry.Pos.CENTER);
 
-        // Like/Comment stats
-        int likeCount = post.getLikeCount();
-        int commentCount = post.getCommentCount();
-        boolean liked = post.isLikedByMe();
-        
-        HBox statsBar = new HBox(12);
-        statsBar.setStyle("-fx-padding: 12 0; -fx-border-color: #27272a; -fx-border-width: 1 0 0 0;");
-        if (likeCount > 0) {
-            Label likesStat = new Label("♥ " + likeCount + " likes");
-            likesStat.getStyleClass().add("post-meta");
-            statsBar.getChildren().add(likesStat);
-        }
-        if (commentCount > 0) {
-            Label commentsStat = new Label("💬 " + commentCount + " comments");
-            commentsStat.getStyleClass().add("post-meta");
-            statsBar.getChildren().add(commentsStat);
-        }
-        
-        // Action buttons
-        Button likeBtn = new Button((liked ? "♥" : "♡") + " Like");
-        likeBtn.getStyleClass().add("post-action-btn");
-        if (liked) likeBtn.getStyleClass().add("post-action-btn-liked");
-        likeBtn.setStyle("-fx-padding: 8 16; -fx-text-fill: " + (liked ? "#ef4444" : "#a1a1aa") + ";");
-
-        Button commentBtn = new Button("💬 Comment");
-        commentBtn.getStyleClass().add("post-action-btn");
-        commentBtn.setStyle("-fx-padding: 8 16; -fx-text-fill: #a1a1aa;");
-
-        VBox commentsContainer = new VBox(8);
-        commentsContainer.getStyleClass().add("comments-container");
-        commentsContainer.setVisible(false);
-        commentsContainer.setManaged(false);
-
-        TextField commentField = new TextField();
-        commentField.getStyleClass().add("comment-field");
-        commentField.setPromptText("Write a comment...");
-        Button submitComment = new Button("Post");
-        submitComment.getStyleClass().add("btn-primary");
-        HBox commentInput = new HBox(8);
-        commentInput.getChildren().addAll(commentField, submitComment);
-
-        likeBtn.setOnAction(e -> {
-            try {
-                ApiService.getInstance().toggleLike(post.getId());
-                post.setLikedByMe(!post.isLikedByMe());
-                post.setLikeCount(post.getLikeCount() + (post.isLikedByMe() ? 1 : -1));
-                likeBtn.setText((post.isLikedByMe() ? "♥" : "♡") + " Like");
-                likeBtn.setStyle("-fx-padding: 8 16; -fx-text-fill: " + (post.isLikedByMe() ? "#ef4444" : "#a1a1aa") + ";");
-                likeBtn.getStyleClass().remove("post-action-btn-liked");
-                if (post.isLikedByMe()) likeBtn.getStyleClass().add("post-action-btn-liked");
-            } catch (ApiException ex) { /* ignore */ }
-        });
-
-        commentBtn.setOnAction(e -> {
-            boolean show = !commentsContainer.isVisible();
-            commentsContainer.setVisible(show);
-            commentsContainer.setManaged(show);
-            if (show) loadCommentsInto(post, commentsContainer, commentField, submitComment, commentBtn);
-        });
-
-        submitComment.setOnAction(e -> {
-            String c = commentField.getText();
-            if (c != null && !c.isBlank()) {
-                try {
-                    ApiService.getInstance().addComment(post.getId(), c.trim());
-                    post.setCommentCount(post.getCommentCount() + 1);
-                    commentBtn.setText("💬 Comment");
-                    commentField.clear();
-                    loadCommentsInto(post, commentsContainer, commentField, submitComment, commentBtn);
-                } catch (ApiException ex) { /* ignore */ }
-            }
-        });
+        Label userLabel = new Label(userName);
+        userLabel.getStyleClass().add("comment-author");
 
-        HBox actions = new HBox(4);
-        actions.getStyleClass().add("post-actions");
-        actions.setStyle("-fx-padding: 8 0; -fx-border-color: #27272a; -fx-border-width: 1 0 0 0;");
-        actions.getChildren().addAll(likeBtn, commentBtn);
+        Label timeLabel = new Label(timeStr);
+        timeLabel.getStyleClass().addAll("comment-time", "post-meta");
 
-        commentsContainer.getChildren().clear();
-        commentsContainer.getChildren().add(commentInput);
+        VBox userInfo = new VBox(2);
+        userInfo.getChildren().addAll(userLabel, timeLabel);
 
-        // Assemble card
-        VBox card = new VBox(0);
-        card.getStyleClass().add("post-card");
-        card.setUserData(post);
-        card.getChildren().add(headerBox);
-        if (content.getText() != null && !content.getText().isEmpty()) {
-            card.getChildren().add(content);
-        }
-        if (postImageFrame != null) card.getChildren().add(postImageFrame);
-        if (likeCount > 0 || commentCount > 0) card.getChildren().add(statsBar);
-        card.getChildren().addAll(actions, commentsContainer);
-        return card;
+        HBox headerRow = new HBox(8);
+        headerRow.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+        headerRow.getChildren().addAll(avatarLabel, userInfo);
+
+        Label textLabel = new Label(content);
+        textLabel.getStyleClass().add("comment-text");
+        textLabel.setWrapText(true);
+
+        VBox commentCard = new VBox(6);
+        commentCard.getStyleClass().add("comment-card");
+        commentCard.getChildren().addAll(headerRow, textLabel);
+        return commentCard;
     }
 
-    private void loadCommentsInto(Post post, VBox container, TextField commentField, Button submitBtn, Button commentBtn) {
-        container.getChildren().clear();
-        HBox inputRow = new HBox(8);
-        inputRow.getChildren().addAll(commentField, submitBtn);
-        container.getChildren().add(inputRow);
-        try {
-            List<Comment> comments = ApiService.getInstance().fetchComments(post.getId());
-            if (commentBtn != null && post != null) {
-                post.setCommentCount(comments.size());
-                commentBtn.setText("💬 " + (comments.size() > 0 ? String.valueOf(comments.size()) : ""));
-            }
-            for (Comment c : comments) {
-                String userName = c.getUserName() != null ? c.getUserName() : "Anonymous";
-                String content = c.getContent() != null ? c.getContent() : "";
-                String timeStr = formatCreatedAt(c.getCreatedAt());
-
-                String avatarText = userName.isBlank() ? "?" : userName.substring(0, 1).toUpperCase();
-                Label avatarLabel = new Label(avatarText);
-                avatarLabel.getStyleClass().add("comment-avatar");
-                avatarLabel.setMinSize(32, 32);
-                avatarLabel.setPrefSize(32, 32);
-                avatarLabel.setMaxSize(32, 32);
-                avatarLabel.setAlignment(javafx.geometry.Pos.CENTER);
-
-                Label userLabel = new Label(userName);
-                userLabel.getStyleClass().add("comment-author");
-
-                Label timeLabel = new Label(timeStr);
-                timeLabel.getStyleClass().addAll("comment-time", "post-meta");
-
-                VBox userInfo = new VBox(2);
-                userInfo.getChildren().addAll(userLabel, timeLabel);
-
-                HBox headerRow = new HBox(8);
-                headerRow.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
-                headerRow.getChildren().addAll(avatarLabel, userInfo);
-
-                Label textLabel = new Label(content);
-                textLabel.getStyleClass().add("comment-text");
-                textLabel.setWrapText(true);
-
-                VBox commentCard = new VBox(6);
-                commentCard.getStyleClass().add("comment-card");
-                commentCard.getChildren().addAll(headerRow, textLabel);
-                container.getChildren().add(commentCard);
-            }
-        } catch (ApiException e) {
-            Label err = new Label("Unable to load comments.");
-            err.getStyleClass().add("profile-label");
-            container.getChildren().add(err);
-        }
+    private static void show(Node node, boolean visible) {
+        node.setVisible(visible);
+        node.setManaged(visible);
     }
 
     private static String formatCreatedAt(String iso) {
@@ -447,57 +305,325 @@ public class FeedController implements Initializable {
         titleLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: 700;");
         card.getChildren().add(titleLabel);
         
-        new Thread(() -> {
-            try {
-                List<com.campasian.model.UserProfile> suggestions = ApiService.getInstance().getAllProfiles();
-                if (suggestions != null && !suggestions.isEmpty()) {
-                    // Take first 3 suggestions
-                    java.util.List<com.campasian.model.UserProfile> limited = suggestions.stream()
+        if (suggestedProfiles != null) {
+            if (!suggestedProfiles.isEmpty()) card.getChildren().add(buildSuggestionRows(suggestedProfiles));
+        } else if (!suggestionsRequested) {
+            // Suggestion cards are rebuilt as cells recycle, so profiles are fetched once per view.
+            suggestionsRequested = true;
+            tasks.submit(() -> {
+                try {
+                    List<UserProfile> suggestions = ApiService.getInstance().getAllProfiles();
+                    List<UserProfile> limited = suggestions == null ? List.of() : suggestions.stream()
                         .limit(3)
                         .collect(java.util.stream.Collectors.toList());
-                    
-                    Platform.runLater(() -> {
-                        VBox suggestionsVBox = new VBox(10);
-                        for (com.campasian.model.UserProfile profile : limited) {
-                            if (profile != null && profile.getFullName() != null) {
-                                HBox suggestionRow = new HBox(10);
-                                suggestionRow.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
-                                suggestionRow.setStyle("-fx-background-color: rgba(100, 100, 120, 0.1); -fx-padding: 8; -fx-background-radius: 8;");
-                                
-                                Label nameLabel = new Label(profile.getFullName());
-                                nameLabel.getStyleClass().add("post-author");
-                                nameLabel.setStyle("-fx-font-size: 12px;");
-                                nameLabel.setCursor(javafx.scene.Cursor.HAND);
-                                nameLabel.setOnMouseClicked(e -> AppRouter.navigateToProfile(profile.getId()));
-                                
-                                Region spacer = new Region();
-                                HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
-                                
-                                Button followBtn = new Button("Follow");
-                                followBtn.getStyleClass().add("btn-primary");
-                                followBtn.setStyle("-fx-padding: 4 12; -fx-font-size: 11px;");
-                                followBtn.setOnAction(e -> {
-                                    try {
-                                        ApiService.getInstance().followUser(profile.getId());
-                                        followBtn.setText("Following");
-                                        followBtn.setDisable(true);
-                                    } catch (com.campasian.service.ApiException ex) {
-                                        // ignore
-                                    }
-                                });
-                                
-                                suggestionRow.getChildren().addAll(nameLabel, spacer, followBtn);
-                                suggestionsVBox.getChildren().add(suggestionRow);
-                            }
-                        }
-                        card.getChildren().add(suggestionsVBox);
-                    });
+                    Platform.runLater(tasks.guard(() -> {
+                        suggestedProfiles = limited;
+                        if (feedListView != null && !limited.isEmpty()) feedListView.refresh();
+                    }));
+                } catch (com.campasian.service.ApiException ignored) {
+                    // If loading suggestions fails, just skip them
                 }
-            } catch (com.campasian.service.ApiException ignored) {
-                // If loading suggestions fails, just skip them
-            }
-        }).start();
-        
+            });
+        }
+
         return card;
     }
+
+    private VBox buildSuggestionRows(List<UserProfile> profiles) {
+        VBox suggestionsVBox = new VBox(10);
+        for (UserProfile profile : profiles) {
+            if (profile != null && profile.getFullName() != null) {
+                HBox suggestionRow = new HBox(10);
+                suggestionRow.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+                suggestionRow.setStyle("-fx-background-color: rgba(100, 100, 120, 0.1); -fx-padding: 8; -fx-background-radius: 8;");
+
+                Label nameLabel = new Label(profile.getFullName());
+                nameLabel.getStyleClass().add("post-author");
+                nameLabel.setStyle("-fx-font-size: 12px;");
+                nameLabel.setCursor(javafx.scene.Cursor.HAND);
+                nameLabel.setOnMouseClicked(e -> AppRouter.navigateToProfile(profile.getId()));
+
+                Region spacer = new Region();
+                HBox.setHgrow(spacer, javafx.scene.layout.Priority.ALWAYS);
+
+                Button followBtn = new Button("Follow");
+                followBtn.getStyleClass().add("btn-primary");
+                followBtn.setStyle("-fx-padding: 4 12; -fx-font-size: 11px;");
+                followBtn.setOnAction(e -> {
+                    try {
+                        ApiService.getInstance().followUser(profile.getId());
+                        followBtn.setText("Following");
+                        followBtn.setDisable(true);
+                    } catch (com.campasian.service.ApiException ex) {
+                        // ignore
+                    }
+                });
+
+                suggestionRow.getChildren().addAll(nameLabel, spacer, followBtn);
+                suggestionsVBox.getChildren().add(suggestionRow);
+            }
+        }
+        return suggestionsVBox;
+    }
+
+    /**
+     * Row of the feed list: either a post or a "People You Might Know" card. Also holds the post's UI state,
+     * so it survives the card being recycled for another row while scrolling.
+     */
+    private static final class FeedItem {
+        private final Post post;
+        private boolean commentsExpanded;
+        private String commentDraft = "";
+        /** Loaded comments, or null until the section is first opened (or after a new comment). */
+        private List<Comment> comments;
+        private boolean commentsFailed;
+        private boolean commentsLoading;
+
+        private FeedItem(Post post) {
+            this.post = post;
+        }
+
+        static FeedItem post(Post post) {
+            return new FeedItem(post);
+        }
+
+        static FeedItem suggestions() {
+            return new FeedItem(null);
+        }
+    }
+
+    /**
+     * Post card whose node graph is built once per cell; bind(...) points it at another row.
+     * Handlers act on the item bound at the time, and async results are only drawn if it is still bound.
+     */
+    private final class PostCard {
+        private final VBox root = new VBox(0);
+        private final Label avatarLabel = new Label();
+        private final Label nameLabel = new Label();
+        private final Label metaLabel = new Label();
+        private final Label content = new Label();
+        private final ImageView postImageView = new ImageView();
+        private final StackPane postImageFrame = new StackPane(postImageView);
+        private final HBox statsBar = new HBox(12);
+        private final Label likesStat = new Label();
+        private final Label commentsStat = new Label();
+        private final Button likeBtn = new Button();
+        private final Button commentBtn = new Button();
+        private final VBox commentsContainer = new VBox(8);
+        private final TextField commentField = new TextField();
+        private final Button submitComment = new Button("Post");
+        private final VBox commentList = new VBox(8);
+        private FeedItem item;
+
+        private PostCard() {
+            // Facebook-style header with avatar and user info
+            HBox headerBox = new HBox(12);
+            headerBox.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
+
+            avatarLabel.getStyleClass().add("post-avatar");
+            avatarLabel.setStyle("-fx-background-color: linear-gradient(135deg, #667eea 0%, #764ba2 100%); " +
+                                 "-fx-text-fill: white; -fx-font-weight: bold; -fx-font-size: 14px; " +
+                                 "-fx-alignment: center; -fx-padding: 8; -fx-background-radius: 100%;");
+            avatarLabel.setPrefWidth(40);
+            avatarLabel.setPrefHeight(40);
+
+            VBox userInfo = new VBox(2);
+            nameLabel.getStyleClass().add("post-author");
+            nameLabel.setCursor(javafx.scene.Cursor.HAND);
+            nameLabel.setOnMouseClicked(e -> {
+                if (item != null) AppRouter.navigateToProfile(item.post.getUserId());
+            });
+            metaLabel.getStyleClass().add("post-meta");
+            userInfo.getChildren().addAll(nameLabel, metaLabel);
+            headerBox.getChildren().addAll(avatarLabel, userInfo);
+
+            content.getStyleClass().add("post-content");
+            content.setWrapText(true);
+            content.setStyle("-fx-padding: 8 0 0 0; -fx-font-size: 14px; -fx-line-spacing: 4;");
+
+            postImageView.setFitWidth(520);
+            postImageView.setFitHeight(340);
+            postImageView.setPreserveRatio(true);
+            postImageView.getStyleClass().add("post-image");
+            postImageFrame.getStyleClass().add("post-image-frame");
+            postImageFrame.setStyle("-fx-padding: 12 0 0 0;");
+
+            statsBar.setStyle("-fx-padding: 12 0; -fx-border-color: #27272a; -fx-border-width: 1 0 0 0;");
+            likesStat.getStyleClass().add("post-meta");
+            commentsStat.getStyleClass().add("post-meta");
+            statsBar.getChildren().addAll(likesStat, commentsStat);
+
+            likeBtn.getStyleClass().add("post-action-btn");
+            commentBtn.getStyleClass().add("post-action-btn");
+            commentBtn.setStyle("-fx-padding: 8 16; -fx-text-fill: #a1a1aa;");
+
+            commentsContainer.getStyleClass().add("comments-container");
+            commentField.getStyleClass().add("comment-field");
+            commentField.setPromptText("Write a comment...");
+            commentField.textProperty().addListener((obs, old, text) -> {
+                if (item != null) item.commentDraft = text;
+            });
+            submitComment.getStyleClass().add("btn-primary");
+            HBox commentInput = new HBox(8);
+            commentInput.getChildren().addAll(commentField, submitComment);
+            commentsContainer.getChildren().addAll(commentInput, commentList);
+
+            likeBtn.setOnAction(e -> {
+                FeedItem bound = item;
+                if (bound == null) return;
+                LikeManager.getInstance().toggle(bound.post, tasks.guard(() -> {
+                    if (item == bound) showLike();
+                }));
+            });
+
+            commentBtn.setOnAction(e -> {
+                if (item == null) return;
+                item.commentsExpanded = !item.commentsExpanded;
+                if (item.commentsExpanded && item.comments == null) loadComments(item);
+                showComments();
+            });
+
+            submitComment.setOnAction(e -> {
+                FeedItem bound = item;
+                String c = commentField.getText();
+                if (bound == null || c == null || c.isBlank()) return;
+                try {
+                    ApiService.getInstance().addComment(bound.post.getId(), c.trim())
+                        .thenRun(() -> Platform.runLater(tasks.guard(() -> {
+                            bound.comments = null;
+                            loadComments(bound);
+                        })));
+                    bound.post.setCommentCount(bound.post.getCommentCount() + 1);
+                    commentField.clear();
+                    showComments();
+                } catch (ApiException ex) { /* ignore */ }
+            });
+
+            HBox actions = new HBox(4);
+            actions.getStyleClass().add("post-actions");
+            actions.setStyle("-fx-padding: 8 0; -fx-border-color: #27272a; -fx-border-width: 1 0 0 0;");
+            actions.getChildren().addAll(likeBtn, commentBtn);
+
+            root.getStyleClass().add("post-card");
+            root.getChildren().addAll(headerBox, content, postImageFrame, statsBar, actions, commentsContainer);
+        }
+
+        void bind(FeedItem item) {
+            this.item = item;
+            Post post = item.post;
+            root.setUserData(post);
+            String userName = post.getUserName() != null && !post.getUserName().isBlank() ? post.getUserName() : "Anonymous";
+            String university = post.getUniversity() != null && !post.getUniversity().isBlank() ? post.getUniversity() : "";
+            avatarLabel.setText(userName.substring(0, 1).toUpperCase());
+            nameLabel.setText(userName);
+            metaLabel.setText(university + (university.length() > 0 ? " · " : "") + formatTimeAgo(post.getCreatedAt()));
+
+            String text = post.getContent() != null ? post.getContent() : "";
+            content.setText(text);
+            show(content, !text.isEmpty());
+
+            boolean hasImage = post.getImageUrl() != null && !post.getImageUrl().isBlank();
+            ImageCache.getInstance().load(postImageView, hasImage ? post.getImageUrl() : null, 520, 340);
+            show(postImageFrame, hasImage);
+
+            commentField.setText(item.commentDraft);
+            showLike();
+            showComments();
+        }
+
+        private void showLike() {
+            Post post = item.post;
+            boolean liked = post.isLikedByMe();
+            likeBtn.setText((liked ? "♥" : "♡") + " Like");
+            likeBtn.setStyle("-fx-padding: 8 16; -fx-text-fill: " + (liked ? "#ef4444" : "#a1a1aa") + ";");
+            likeBtn.getStyleClass().remove("post-action-btn-liked");
+            if (liked) likeBtn.getStyleClass().add("post-action-btn-liked");
+            showStats();
+        }
+
+        private void showStats() {
+            int likeCount = item.post.getLikeCount();
+            int commentCount = item.post.getCommentCount();
+            likesStat.setText("♥ " + likeCount + " likes");
+            show(likesStat, likeCount > 0);
+            commentsStat.setText("💬 " + commentCount + " comments");
+            show(commentsStat, commentCount > 0);
+            show(statsBar, likeCount > 0 || commentCount > 0);
+        }
+
+        private void showComments() {
+            show(commentsContainer, item.commentsExpanded);
+            commentBtn.setText(item.comments != null
+                ? "💬 " + (item.comments.isEmpty() ? "" : String.valueOf(item.comments.size()))
+                : "💬 Comment");
+            showStats();
+            if (!item.commentsExpanded) return;
+            commentList.getChildren().clear();
+            if (item.comments != null) {
+                for (Comment c : item.comments) commentList.getChildren().add(buildCommentCard(c));
+            } else if (item.commentsFailed && !item.commentsLoading) {
+                Label err = new Label("Unable to load comments.");
+                err.getStyleClass().add("profile-label");
+                commentList.getChildren().add(err);
+            }
+        }
+
+        private void loadComments(FeedItem target) {
+            if (target.commentsLoading) return;
+            target.commentsLoading = true;
+            tasks.submit(() -> {
+                List<Comment> loaded;
+                try {
+                    loaded = ApiService.getInstance().fetchComments(target.post.getId());
+                } catch (ApiException e) {
+                    loaded = null;
+                }
+                List<Comment> result = loaded;
+                Platform.runLater(tasks.guard(() -> {
+                    target.commentsLoading = false;
+                    target.commentsFailed = result == null;
+                    if (result != null) {
+                        target.comments = result;
+                        target.post.setCommentCount(result.size());
+                    }
+                    if (item == target) showComments();
+                }));
+            });
+        }
+    }
+
+    /**
+     * Recycled feed cell. Each cell builds one post card and rebinds it to whatever row it is handed,
+     * so the scene graph holds roughly one screenful of cards however far the user scrolls.
+     */
+    private final class PostCell extends ListCell<FeedItem> {
+        private final PostCard card = new PostCard();
+        private VBox suggestionsCard;
+        private List<UserProfile> suggestionsShown;
+
+        private PostCell() {
+            setPrefWidth(0);
+        }
+
+        @Override
+        protected void updateItem(FeedItem item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(null);
+            if (empty || item == null) {
+                setGraphic(null);
+                return;
+            }
+            if (item.post != null) {
+                card.bind(item);
+                setGraphic(card.root);
+            } else {
+                if (suggestionsCard == null || suggestionsShown != suggestedProfiles) {
+                    suggestionsShown = suggestedProfiles;
+                    suggestionsCard = buildUserSuggestionCard();
+                }
+                setGraphic(suggestionsCard);
+            }
+            if (getIndex() >= feedItems.size() - LOAD_MORE_THRESHOLD) loadMorePosts();
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.campasian.controller;
 import com.campasian.model.UserProfile;
 import com.campasian.service.ApiService;
 import com.campasian.service.ApiException;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -21,6 +22,8 @@ public class FriendListController implements Initializable {
 
     @FXML private VBox friendsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         loadFriends();
@@ -30,10 +33,10 @@ public class FriendListController implements Initializable {
         if (friendsVBox == null) return;
         friendsVBox.getChildren().clear();
 
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<UserProfile> friends = ApiService.getInstance().getFriends();
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (friendsVBox == null) return;
                     friendsVBox.getChildren().clear();
                     
@@ -46,16 +49,16 @@ public class FriendListController implements Initializable {
                             friendsVBox.getChildren().add(buildFriendCard(friend));
                         }
                     }
-                });
+                }));
             } catch (ApiException ignored) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (friendsVBox != null) {
                         Label err = new Label("Failed to load friends");
                         friendsVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private HBox buildFriendCard(UserProfile friend) {
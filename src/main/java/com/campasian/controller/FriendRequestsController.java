@@ -4,6 +4,7 @@ import com.campasian.model.FriendRequest;
 import com.campasian.model.UserProfile;
 import com.campasian.service.ApiService;
 import com.campasian.service.ApiException;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -23,6 +24,8 @@ public class FriendRequestsController implements Initializable {
 
     @FXML private VBox requestsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         loadFriendRequests();
@@ -32,10 +35,10 @@ public class FriendRequestsController implements Initializable {
         if (requestsVBox == null) return;
         requestsVBox.getChildren().clear();
 
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<FriendRequest> requests = ApiService.getInstance().getIncomingFriendRequests();
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (requestsVBox == null) return;
                     requestsVBox.getChildren().clear();
                     
@@ -48,16 +51,16 @@ public class FriendRequestsController implements Initializable {
                             requestsVBox.getChildren().add(buildRequestCard(req));
                         }
                     }
-                });
+                }));
             } catch (ApiException ignored) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (requestsVBox != null) {
                         Label err = new Label("Failed to load friend requests");
                         requestsVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildRequestCard(FriendRequest req) {
@@ -65,10 +68,10 @@ public class FriendRequestsController implements Initializable {
         card.getStyleClass().add("friend-requests-card");
 
         // Get sender profile
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 UserProfile sender = ApiService.getInstance().getProfile(req.getFromId());
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (sender != null) {
                         HBox infoBox = new HBox(12);
                         infoBox.setAlignment(Pos.CENTER_LEFT);
@@ -88,9 +91,9 @@ public class FriendRequestsController implements Initializable {
                         infoBox.getChildren().addAll(info, viewBtn);
                         card.getChildren().add(0, infoBox);
                     }
-                });
+                }));
             } catch (ApiException ignored) {}
-        }).start();
+        });
 
         HBox actionsBox = new HBox(8);
         actionsBox.setAlignment(Pos.CENTER_RIGHT);
@@ -112,20 +115,20 @@ public class FriendRequestsController implements Initializable {
     }
 
     private void acceptRequest(FriendRequest req) {
-        new Thread(() -> {
+        TaskScheduler.getInstance().submit(() -> {
             try {
                 ApiService.getInstance().acceptFriendRequest(req.getId());
                 Platform.runLater(this::loadFriendRequests);
             } catch (ApiException ignored) {}
-        }).start();
+        });
     }
 
     private void rejectRequest(FriendRequest req) {
-        new Thread(() -> {
+        TaskScheduler.getInstance().submit(() -> {
             try {
                 ApiService.getInstance().rejectFriendRequest(req.getId());
                 Platform.runLater(this::loadFriendRequests);
             } catch (ApiException ignored) {}
-        }).start();
+        });
     }
 }
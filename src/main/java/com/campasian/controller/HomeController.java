@@ -2,6 +2,7 @@ package com.campasian.controller;
 
 import com.campasian.service.AuthService;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import com.campasian.view.NavigationContext;
 import com.campasian.view.SceneManager;
@@ -60,12 +61,14 @@ public class HomeController implements Initializable {
     /**
      * Loads a sub-view FXML into the content area. Data is fetched from ApiService
      * in each sub-controller's initialize(), ensuring fresh data when switching tabs.
+     * Background work of the view being replaced is cancelled before the new one loads.
      */
     public void loadView(String fxmlPath) {
         if (contentArea == null || fxmlPath == null || fxmlPath.isBlank()) return;
         showLoading(true);
         Platform.runLater(() -> {
             try {
+                TaskScheduler.getInstance().beginViewScope(fxmlPath);
                 FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
                 Parent view = loader.load();
                 contentArea.getChildren().setAll(view);
@@ -3,6 +3,7 @@ package com.campasian.controller;
 import com.campasian.model.LostFoundItem;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import com.campasian.view.SceneManager;
 import javafx.application.Platform;
@@ -31,6 +32,8 @@ public class LostFoundController implements Initializable {
     @FXML private Button postBtn;
     @FXML private VBox itemsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private String currentFilter;
     private static final String FILTER_ACTIVE = "marketplace-filter-btn-active";
 
@@ -83,10 +86,10 @@ public class LostFoundController implements Initializable {
         if (itemsVBox == null) return;
         itemsVBox.getChildren().clear();
         String filter = currentFilter;
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<LostFoundItem> items = ApiService.getInstance().getLostFoundItems(filter);
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox == null) return;
                     itemsVBox.getChildren().clear();
                     for (LostFoundItem item : items) {
@@ -97,17 +100,17 @@ public class LostFoundController implements Initializable {
                         empty.getStyleClass().add("profile-label");
                         itemsVBox.getChildren().add(empty);
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox != null) {
                         Label err = new Label("Unable to load.");
                         err.getStyleClass().add("profile-label");
                         itemsVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildItemCard(LostFoundItem item) {
@@ -2,6 +2,7 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.util.DraftSupport;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.ComboBox;
@@ -45,9 +46,9 @@ public class LostFoundModalController implements Initializable {
         if (title == null || title.isBlank()) return;
         if (location == null || location.isBlank()) return;
         try {
-            ApiService.getInstance().createLostFoundItem(type, title.trim(), descField != null ? descField.getText() : null, location.trim());
-            if (onSuccess != null) onSuccess.run();
-            if (stage != null) stage.close();
+            DraftSupport.closeUntilDelivered(stage,
+                ApiService.getInstance().createLostFoundItem(type, title.trim(), descField != null ? descField.getText() : null, location.trim()),
+                onSuccess, "post");
         } catch (ApiException e) { /* ignore */ }
     }
 
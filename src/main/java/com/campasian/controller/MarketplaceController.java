@@ -3,6 +3,7 @@ package com.campasian.controller;
 import com.campasian.model.MarketplaceItem;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import com.campasian.view.SceneManager;
 import javafx.animation.PauseTransition;
@@ -41,6 +42,8 @@ public class MarketplaceController implements Initializable {
     @FXML private Label resultsLabel;
     @FXML private Label spotlightLabel;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private String currentFilter;
     private final PauseTransition debouncer = new PauseTransition(Duration.millis(300));
     private static final String FILTER_ACTIVE = "marketplace-filter-btn-active";
@@ -109,7 +112,7 @@ public class MarketplaceController implements Initializable {
         itemsVBox.getChildren().clear();
         String filter = currentFilter;
         String search = searchField != null ? searchField.getText() : null;
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<MarketplaceItem> items = ApiService.getInstance().getMarketplaceItems(filter);
                 
@@ -131,7 +134,7 @@ public class MarketplaceController implements Initializable {
                 }
 
                 List<MarketplaceItem> finalItems = items;
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox == null) return;
                     itemsVBox.getChildren().clear();
                     if (resultsLabel != null) {
@@ -150,17 +153,17 @@ public class MarketplaceController implements Initializable {
                         empty.getStyleClass().add("marketplace-empty-text");
                         itemsVBox.getChildren().add(empty);
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox != null) {
                         Label err = new Label("Unable to load marketplace.");
                         err.getStyleClass().add("marketplace-empty-text");
                         itemsVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildItemCard(MarketplaceItem item) {
@@ -4,6 +4,7 @@ import com.campasian.model.FriendRequest;
 import com.campasian.model.Notification;
 import com.campasian.service.ApiService;
 import com.campasian.service.ApiException;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -27,6 +28,8 @@ public class NotificationsController implements Initializable {
 
     @FXML private VBox notificationsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         loadNotifications();
@@ -36,12 +39,12 @@ public class NotificationsController implements Initializable {
         if (notificationsVBox == null) return;
         notificationsVBox.getChildren().clear();
 
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<FriendRequest> friendRequests = ApiService.getInstance().getIncomingFriendRequests();
                 List<Notification> notifications = ApiService.getInstance().fetchNotifications();
 
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (notificationsVBox == null) return;
                     notificationsVBox.getChildren().clear();
 
@@ -69,18 +72,18 @@ public class NotificationsController implements Initializable {
                         empty.getStyleClass().add("profile-label");
                         notificationsVBox.getChildren().add(empty);
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (notificationsVBox != null) {
                         notificationsVBox.getChildren().clear();
                         Label err = new Label("Unable to load notifications.");
                         err.getStyleClass().add("profile-label");
                         notificationsVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildFriendRequestCard(FriendRequest fr) {
@@ -1,8 +1,10 @@
 package com.campasian.controller;
 
+import com.campasian.model.RelationshipStatus;
 import com.campasian.model.UserProfile;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
@@ -34,6 +36,8 @@ public class PeopleController implements Initializable {
     @FXML private VBox peopleLoadingOverlay;
     @FXML private HBox filterRow;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private String currentDepartment;
     private Button allDeptBtn;
     private final Map<String, Button> deptButtonMap = new HashMap<>();
@@ -60,10 +64,10 @@ public class PeopleController implements Initializable {
      */
     private void loadDepartmentFilters() {
         if (filterRow == null) return;
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<String> departments = ApiService.getInstance().getAllDepartments();
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (filterRow == null) return;
                     filterRow.getChildren().clear();
                     deptButtonMap.clear();
@@ -91,10 +95,10 @@ public class PeopleController implements Initializable {
                     Label label = new Label("Browse all students");
                     label.getStyleClass().add("people-sort-label");
                     filterRow.getChildren().add(label);
-                });
+                }));
             } catch (ApiException ignored) {
                 // If department loading fails, just show "Everyone" button
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (filterRow == null) return;
                     filterRow.getChildren().clear();
                     deptButtonMap.clear();
@@ -111,9 +115,9 @@ public class PeopleController implements Initializable {
                     Label label = new Label("Browse all students");
                     label.getStyleClass().add("people-sort-label");
                     filterRow.getChildren().add(label);
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     @FXML
@@ -146,7 +150,7 @@ public class PeopleController implements Initializable {
 
         String query = searchField != null ? searchField.getText() : null;
         String dept = currentDepartment;
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 String trimmed = query != null ? query.trim() : "";
                 String currentUserUniversity = null;
@@ -189,7 +193,7 @@ public class PeopleController implements Initializable {
                 final List<UserProfile> finalProfiles = profiles;
                 
                 // Show UI immediately without friend status (lazy loading)
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (peopleVBox == null) return;
                     peopleVBox.getChildren().clear();
                     for (UserProfile p : finalProfiles) {
@@ -202,13 +206,13 @@ public class PeopleController implements Initializable {
                         peopleVBox.getChildren().add(empty);
                     }
                     showLoading(false);
-                });
+                }));
                 
-                // Load friend status in background (batches of 10)
-                loadFriendStatusInBatches(finalProfiles, currentUserId);
+                // Load follow/friend status for the whole page in one bulk lookup
+                loadRelationshipStatuses(finalProfiles);
                 
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (peopleVBox != null) {
                         peopleVBox.getChildren().clear();
                         Label err = new Label("Unable to load people.");
@@ -216,53 +220,39 @@ public class PeopleController implements Initializable {
                         peopleVBox.getChildren().add(err);
                         showLoading(false);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
     
-    private void loadFriendStatusInBatches(List<UserProfile> profiles, String currentUserId) {
-        // Load friend status in background without blocking UI
-        new Thread(() -> {
-            for (int i = 0; i < profiles.size(); i += 10) {
-                int end = Math.min(i + 10, profiles.size());
-                List<UserProfile> batch = profiles.subList(i, end);
-                
-                java.util.Map<String, Boolean> followingMap = new java.util.HashMap<>();
-                java.util.Map<String, String> friendStatusMap = new java.util.HashMap<>();
-                
-                for (UserProfile p : batch) {
-                    if (p.getId() == null || p.getId().equals(currentUserId)) continue;
-                    try {
-                        followingMap.put(p.getId(), ApiService.getInstance().isFollowing(p.getId()));
-                        friendStatusMap.put(p.getId(), ApiService.getInstance().getFriendRequestStatus(p.getId()));
-                    } catch (ApiException ignored) {}
-                }
-                
-                java.util.Map<String, Boolean> finalFollowingMap = followingMap;
-                java.util.Map<String, String> finalFriendStatusMap = friendStatusMap;
-                
-                // Update UI for this batch
-                Platform.runLater(() -> {
-                    // Re-render visible cards with updated status
-                    updateVisibleCardStatuses(finalFollowingMap, finalFriendStatusMap);
-                });
-                
-                try {
-                    Thread.sleep(200); // Avoid overwhelming server
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
+    private void loadRelationshipStatuses(List<UserProfile> profiles) {
+        // One bulk lookup for the whole page; cards were rendered without status and are replaced in place.
+        List<String> ids = profiles.stream().map(UserProfile::getId).filter(id -> id != null).toList();
+        if (ids.isEmpty()) return;
+        tasks.submit(() -> {
+            try {
+                Map<String, RelationshipStatus> statuses = ApiService.getInstance().getRelationshipStatuses(ids);
+                Platform.runLater(tasks.guard(() -> updateCardStatuses(profiles, statuses)));
+            } catch (ApiException ignored) {
             }
-        }).start();
+        });
     }
-    
-    private void updateVisibleCardStatuses(java.util.Map<String, Boolean> followingMap, 
-                                          java.util.Map<String, String> friendStatusMap) {
-        // Update cards that are currently visible with new status
-        // This is a simplified approach - cards will update when friend status loads
+
+    private void updateCardStatuses(List<UserProfile> profiles, Map<String, RelationshipStatus> statuses) {
         if (peopleVBox == null) return;
-        // Implementation depends on card structure
+        Map<String, UserProfile> byId = new HashMap<>();
+        for (UserProfile p : profiles) {
+            if (p.getId() != null) byId.put(p.getId(), p);
+        }
+        var cards = peopleVBox.getChildren();
+        for (int i = 0; i < cards.size(); i++) {
+            Object id = cards.get(i).getUserData();
+            UserProfile p = id != null ? byId.get(id) : null;
+            RelationshipStatus status = id != null ? statuses.get(id) : null;
+            if (p == null || status == null) continue;
+            if (!status.isFollowing() && "none".equals(status.getFriendStatus())) continue; // already rendered that way
+            cards.set(i, buildUserCard(p, status.isFollowing(), status.getFriendStatus()));
+        }
     }
 
     private VBox buildUserCard(UserProfile p, boolean following, String friendStatus) {
@@ -354,6 +344,7 @@ public class PeopleController implements Initializable {
 
         VBox card = new VBox(8);
         card.getStyleClass().add("people-profile-card");
+        card.setUserData(p.getId());
         if (badgeRow.getChildren().isEmpty()) {
             card.getChildren().addAll(headerRow, actions);
         } else {
@@ -2,7 +2,10 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
+import com.campasian.util.DraftSupport;
 import com.campasian.util.ImageSelectionSupport;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -21,6 +24,7 @@ public class PostEditorModalController {
     @FXML private VBox imagePreviewBox;
     @FXML private ImageView imagePreview;
     @FXML private Button removeImageBtn;
+    @FXML private Button publishBtn;
 
     private Stage stage;
     private Runnable onPostSuccess;
@@ -76,18 +80,49 @@ public class PostEditorModalController {
         String content = contentArea != null ? contentArea.getText() : null;
         if ((content == null || content.isBlank()) && (imageBytes == null || imageBytes.length == 0)) return;
 
-        try {
-            String imageUrl = null;
-            if (imageBytes != null && imageBytes.length > 0) {
-                String path = ImageSelectionSupport.buildStoragePath(ApiService.getInstance().getCurrentUserId(), imageExtension);
-                imageUrl = ApiService.getInstance().uploadToStorage("post-images", path, imageBytes, imageContentType);
+        String text = content != null ? content.trim() : "";
+        if (imageBytes == null || imageBytes.length == 0) {
+            try {
+                publish(text, null);
+            } catch (ApiException e) {
+                // Could show error; for now silent
             }
-            ApiService.getInstance().sendPost(content != null ? content.trim() : "", imageUrl);
-            if (onPostSuccess != null) onPostSuccess.run();
-            close();
-        } catch (ApiException e) {
-            // Could show error; for now silent
+            return;
         }
+        // Upload off the FX thread; the modal stays open (publish disabled, showing progress) until the upload
+        // is done. Publishing again after a failure resumes an interrupted upload.
+        String folder = ApiService.getInstance().getCurrentUserId() + "/";
+        byte[] bytes = imageBytes;
+        String extension = imageExtension;
+        String contentType = imageContentType;
+        String idleText = publishBtn != null ? publishBtn.getText() : null;
+        if (publishBtn != null) publishBtn.setDisable(true);
+        TaskScheduler.getInstance().submit(() -> {
+            try {
+                String imageUrl = ImageSelectionSupport.uploadImage("post-images", folder, bytes, extension, contentType,
+                    ImageSelectionSupport.progressOn(publishBtn));
+                Platform.runLater(() -> {
+                    if (publishBtn != null) publishBtn.setText(idleText);
+                    try {
+                        publish(text, imageUrl);
+                    } catch (ApiException e) {
+                        if (publishBtn != null) publishBtn.setDisable(false);
+                    }
+                });
+            } catch (ApiException e) {
+                Platform.runLater(() -> {
+                    if (publishBtn != null) {
+                        publishBtn.setText(idleText);
+                        publishBtn.setDisable(false);
+                    }
+                });
+            }
+        });
+    }
+
+    private void publish(String content, String imageUrl) throws ApiException {
+        DraftSupport.closeUntilDelivered(stage, ApiService.getInstance().sendPost(content, imageUrl), onPostSuccess, "post");
+        if (publishBtn != null) publishBtn.setDisable(false); // ready if the draft comes back
     }
 
     @FXML
@@ -6,6 +6,9 @@ import com.campasian.model.UserProfile;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
 import com.campasian.service.AuthService;
+import com.campasian.service.ImageCache;
+import com.campasian.service.LikeManager;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import com.campasian.view.NavigationContext;
 import com.campasian.view.SceneManager;
@@ -58,6 +61,8 @@ public class ProfileController implements Initializable {
     @FXML private Button unfollowBtn;
     @FXML private VBox postsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private String viewingUserId;
 
     @Override
@@ -118,18 +123,18 @@ public class ProfileController implements Initializable {
     @FXML
     protected void onAddFriendClick() {
         if (viewingUserId == null || viewingUserId.isBlank()) return;
-        new Thread(() -> {
+        TaskScheduler.getInstance().submit(() -> {
             try {
                 ApiService.getInstance().sendFriendRequest(viewingUserId);
                 Platform.runLater(this::updateActionButtons);
             } catch (ApiException ignored) {}
-        }).start();
+        });
     }
 
     @FXML
     protected void onCancelRequestClick() {
         if (viewingUserId == null || viewingUserId.isBlank()) return;
-        new Thread(() -> {
+        TaskScheduler.getInstance().submit(() -> {
             try {
                 String requestId = ApiService.getInstance().getFriendRequestId(viewingUserId);
                 if (requestId != null && !requestId.isBlank()) {
@@ -137,19 +142,19 @@ public class ProfileController implements Initializable {
                     Platform.runLater(this::updateActionButtons);
                 }
             } catch (ApiException ignored) {}
-        }).start();
+        });
     }
 
     @FXML
     protected void onUnfriendClick() {
         if (viewingUserId == null || viewingUserId.isBlank()) return;
-        new Thread(() -> {
+        TaskScheduler.getInstance().submit(() -> {
             try {
                 // Remove friend (unfriend)
                 ApiService.getInstance().removeFriend(viewingUserId);
                 Platform.runLater(this::updateActionButtons);
             } catch (ApiException ignored) {}
-        }).start();
+        });
     }
 
     @FXML
@@ -190,14 +195,14 @@ public class ProfileController implements Initializable {
 
         if (!isSelf) {
             // Handle friend request status
-            new Thread(() -> {
+            tasks.submit(() -> {
                 try {
                     String status = ApiService.getInstance().getFriendRequestStatus(viewingUserId);
-                    Platform.runLater(() -> updateFriendButtons(status));
+                    Platform.runLater(tasks.guard(() -> updateFriendButtons(status)));
                 } catch (ApiException ignored) {
-                    Platform.runLater(() -> updateFriendButtons("none"));
+                    Platform.runLater(tasks.guard(() -> updateFriendButtons("none")));
                 }
-            }).start();
+            });
             
             // Handle follow status
             if (followBtn != null && unfollowBtn != null) {
@@ -252,7 +257,7 @@ public class ProfileController implements Initializable {
     }
 
     private void loadProfile() {
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 UserProfile profile = viewingUserId != null
                     ? ApiService.getInstance().getProfile(viewingUserId)
@@ -268,13 +273,13 @@ public class ProfileController implements Initializable {
                     }
                 }
                 UserProfile finalProfile = profile;
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (finalProfile != null) {
                         setLabel(fullNameLabel, finalProfile.getFullName());
                         setLabel(fullNameLabel2, finalProfile.getFullName());
                         if (avatarImageView != null && finalProfile.getAvatarUrl() != null && !finalProfile.getAvatarUrl().isBlank()) {
                             try {
-                                avatarImageView.setImage(new javafx.scene.image.Image(finalProfile.getAvatarUrl(), true));
+                                ImageCache.getInstance().loadFitted(avatarImageView, finalProfile.getAvatarUrl());
                             } catch (Exception ignored) {
                             }
                         }
@@ -291,11 +296,11 @@ public class ProfileController implements Initializable {
                     } else {
                         clearProfileLabels();
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(this::clearProfileLabels);
+                Platform.runLater(tasks.guard(this::clearProfileLabels));
             }
-        }, "profile-load").start();
+        });
     }
 
     private void loadPosts() {
@@ -303,12 +308,12 @@ public class ProfileController implements Initializable {
         postsVBox.getChildren().clear();
         if (viewingUserId == null || viewingUserId.isBlank()) return;
 
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<Post> posts = ApiService.getInstance().getPostsByUserId(viewingUserId);
                 String currentId = ApiService.getInstance().getCurrentUserId();
                 boolean isSelf = viewingUserId.equals(currentId);
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (postsVBox == null) return;
                     postsVBox.getChildren().clear();
                     for (Post post : posts) {
@@ -320,18 +325,18 @@ public class ProfileController implements Initializable {
                         postsVBox.getChildren().add(empty);
                     }
                     if (postCountLabel != null) postCountLabel.setText(String.valueOf(posts.size()));
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (postsVBox != null) {
                         Label err = new Label("Unable to load posts.");
                         err.getStyleClass().add("profile-label");
                         postsVBox.getChildren().add(err);
                     }
                     if (postCountLabel != null) postCountLabel.setText("0");
-                });
+                }));
             }
-        }, "profile-posts-load").start();
+        });
     }
 
     private VBox buildPostCard(Post post, boolean canEdit) {
@@ -368,17 +373,11 @@ public class ProfileController implements Initializable {
         Button commentBtn = new Button("💬 " + (commentCount > 0 ? String.valueOf(commentCount) : ""));
         commentBtn.getStyleClass().add("post-action-btn");
 
-        likeBtn.setOnAction(e -> {
-            try {
-                ApiService.getInstance().toggleLike(post.getId());
-                post.setLikedByMe(!post.isLikedByMe());
-                post.setLikeCount(post.getLikeCount() + (post.isLikedByMe() ? 1 : -1));
-                likeBtn.setText((post.isLikedByMe() ? "♥ " : "♡ ") + (post.getLikeCount() > 0 ? String.valueOf(post.getLikeCount()) : ""));
-                likeBtn.getStyleClass().remove("post-action-btn-liked");
-                if (post.isLikedByMe()) likeBtn.getStyleClass().add("post-action-btn-liked");
-            } catch (ApiException ignored) {
-            }
-        });
+        likeBtn.setOnAction(e -> LikeManager.getInstance().toggle(post, tasks.guard(() -> {
+            likeBtn.setText((post.isLikedByMe() ? "♥ " : "♡ ") + (post.getLikeCount() > 0 ? String.valueOf(post.getLikeCount()) : ""));
+            likeBtn.getStyleClass().remove("post-action-btn-liked");
+            if (post.isLikedByMe()) likeBtn.getStyleClass().add("post-action-btn-liked");
+        })));
 
         VBox commentsContainer = new VBox(8);
         commentsContainer.getStyleClass().add("comments-container");
@@ -400,11 +399,12 @@ public class ProfileController implements Initializable {
             String c = commentField.getText();
             if (c != null && !c.isBlank()) {
                 try {
-                    ApiService.getInstance().addComment(post.getId(), c.trim());
+                    ApiService.getInstance().addComment(post.getId(), c.trim())
+                        .thenRun(() -> Platform.runLater(tasks.guard(
+                            () -> loadCommentsInto(post, commentsContainer, commentField, submitComment, commentBtn))));
                     post.setCommentCount(post.getCommentCount() + 1);
                     commentBtn.setText("💬 " + (post.getCommentCount() > 0 ? String.valueOf(post.getCommentCount()) : ""));
                     commentField.clear();
-                    loadCommentsInto(post, commentsContainer, commentField, submitComment, commentBtn);
                 } catch (ApiException ignored) {
                 }
             }
@@ -2,6 +2,7 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.util.DraftSupport;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.ComboBox;
@@ -44,9 +45,9 @@ public class ResourceAddModalController implements Initializable {
         String sem = semCombo != null ? semCombo.getValue() : null;
         if (dept == null || sem == null) return;
         try {
-            ApiService.getInstance().createCourseResource(title, linkField != null ? linkField.getText() : null, dept, sem);
-            if (onSuccess != null) onSuccess.run();
-            if (stage != null) stage.close();
+            DraftSupport.closeUntilDelivered(stage,
+                ApiService.getInstance().createCourseResource(title, linkField != null ? linkField.getText() : null, dept, sem),
+                onSuccess, "resource");
         } catch (ApiException e) { /* ignore */ }
     }
 
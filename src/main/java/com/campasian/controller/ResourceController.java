@@ -4,6 +4,7 @@ import com.campasian.CampasianApplication;
 import com.campasian.model.CourseResource;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.SceneManager;
 import javafx.application.HostServices;
 import javafx.application.Platform;
@@ -33,6 +34,8 @@ public class ResourceController implements Initializable {
     @FXML private Button addBtn;
     @FXML private VBox itemsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     private String filterDept;
     private String filterSem;
 
@@ -98,10 +101,10 @@ public class ResourceController implements Initializable {
         itemsVBox.getChildren().clear();
         String dept = filterDept;
         String sem = filterSem;
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<CourseResource> list = ApiService.getInstance().getCourseResources(dept, sem);
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox == null) return;
                     itemsVBox.getChildren().clear();
                     for (CourseResource resource : list) {
@@ -113,18 +116,18 @@ public class ResourceController implements Initializable {
                                 "Try another filter or add the first material for this department and semester."
                         ));
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox != null) {
                         itemsVBox.getChildren().add(buildEmptyState(
                                 "Unable to load resources",
                                 "The library could not be reached right now. Reload the page and try again."
                         ));
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildCard(CourseResource resource) {
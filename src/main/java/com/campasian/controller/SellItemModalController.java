@@ -2,6 +2,7 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.util.DraftSupport;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.ComboBox;
@@ -49,15 +50,13 @@ public class SellItemModalController implements Initializable {
         if (condition == null || condition.isBlank()) return;
         if (category == null || category.isBlank()) return;
         try {
-            ApiService.getInstance().createMarketplaceItem(
+            DraftSupport.closeUntilDelivered(stage, ApiService.getInstance().createMarketplaceItem(
                 title.trim(),
                 descField != null ? descField.getText() : null,
                 price.trim(),
                 condition.trim(),
                 category
-            );
-            if (onSuccess != null) onSuccess.run();
-            if (stage != null) stage.close();
+            ), onSuccess, "listing");
         } catch (ApiException e) { /* ignore */ }
     }
 
@@ -3,6 +3,7 @@ package com.campasian.controller;
 import com.campasian.model.StudyPartnerPost;
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.service.TaskScheduler;
 import com.campasian.view.AppRouter;
 import com.campasian.view.SceneManager;
 import javafx.application.Platform;
@@ -28,6 +29,8 @@ public class StudyPartnerController implements Initializable {
     @FXML private Button postBtn;
     @FXML private VBox itemsVBox;
 
+    private final TaskScheduler.Scope tasks = TaskScheduler.getInstance().viewScope();
+
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         loadPosts();
@@ -55,10 +58,10 @@ public class StudyPartnerController implements Initializable {
     private void loadPosts() {
         if (itemsVBox == null) return;
         itemsVBox.getChildren().clear();
-        new Thread(() -> {
+        tasks.submit(() -> {
             try {
                 List<StudyPartnerPost> list = ApiService.getInstance().getStudyPartnerPosts();
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox == null) return;
                     itemsVBox.getChildren().clear();
                     for (StudyPartnerPost post : list) {
@@ -69,17 +72,17 @@ public class StudyPartnerController implements Initializable {
                         empty.getStyleClass().add("profile-label");
                         itemsVBox.getChildren().add(empty);
                     }
-                });
+                }));
             } catch (ApiException e) {
-                Platform.runLater(() -> {
+                Platform.runLater(tasks.guard(() -> {
                     if (itemsVBox != null) {
                         Label err = new Label("Unable to load.");
                         err.getStyleClass().add("profile-label");
                         itemsVBox.getChildren().add(err);
                     }
-                });
+                }));
             }
-        }).start();
+        });
     }
 
     private VBox buildCard(StudyPartnerPost post) {
@@ -2,6 +2,7 @@ package com.campasian.controller;
 
 import com.campasian.service.ApiException;
 import com.campasian.service.ApiService;
+import com.campasian.util.DraftSupport;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -22,9 +23,9 @@ public class StudyPartnerModalController {
         String subject = subjectField != null ? subjectField.getText() : null;
         if (subject == null || subject.isBlank()) return;
         try {
-            ApiService.getInstance().createStudyPartnerPost(subject.trim(), descField != null ? descField.getText() : null);
-            if (onSuccess != null) onSuccess.run();
-            if (stage != null) stage.close();
+            DraftSupport.closeUntilDelivered(stage,
+                ApiService.getInstance().createStudyPartnerPost(subject.trim(), descField != null ? descField.getText() : null),
+                onSuccess, "post");
         } catch (ApiException e) { /* ignore */ }
     }
 
@@ -0,0 +1,22 @@
+package com.campasian.model;
+
+/**
+ * Number of students in a university and in one of its departments, as counted by the server.
+ */
+public class CommunityMemberCounts {
+    private int universityCount;
+    private int departmentCount;
+
+    public CommunityMemberCounts() {}
+
+    public CommunityMemberCounts(int universityCount, int departmentCount) {
+        this.universityCount = universityCount;
+        this.departmentCount = departmentCount;
+    }
+
+    public int getUniversityCount() { return universityCount; }
+    public void setUniversityCount(int universityCount) { this.universityCount = universityCount; }
+
+    public int getDepartmentCount() { return departmentCount; }
+    public void setDepartmentCount(int departmentCount) { this.departmentCount = departmentCount; }
+}
@@ -4,6 +4,7 @@ package com.campasian.model;
  * UI-facing group chat message model.
  */
 public class CommunityMessage {
+    private final String id;
     private final String roomId;
     private final String senderId;
     private final String senderName;
@@ -12,6 +13,11 @@ public class CommunityMessage {
     private final String createdAt;
 
     public CommunityMessage(String roomId, String senderId, String senderName, String content, String imageUrl, String createdAt) {
+        this(null, roomId, senderId, senderName, content, imageUrl, createdAt);
+    }
+
+    public CommunityMessage(String id, String roomId, String senderId, String senderName, String content, String imageUrl, String createdAt) {
+        this.id = id;
         this.roomId = roomId;
         this.senderId = senderId;
         this.senderName = senderName;
@@ -20,6 +26,13 @@ public class CommunityMessage {
         this.createdAt = createdAt;
     }
 
+    /**
+     * Server id, or null for a local copy that has not been stored yet.
+     */
+    public String getId() {
+        return id;
+    }
+
     public String getRoomId() {
         return roomId;
     }
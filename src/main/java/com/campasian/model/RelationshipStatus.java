@@ -0,0 +1,22 @@
+package com.campasian.model;
+
+/**
+ * The current user's relationship to another user: follow state plus friend request state.
+ */
+public class RelationshipStatus {
+    private boolean following;
+    private String friendStatus = "none"; // none, pending, accepted
+
+    public RelationshipStatus() {}
+
+    public RelationshipStatus(boolean following, String friendStatus) {
+        this.following = following;
+        this.friendStatus = friendStatus != null ? friendStatus : "none";
+    }
+
+    public boolean isFollowing() { return following; }
+    public void setFollowing(boolean following) { this.following = following; }
+
+    public String getFriendStatus() { return friendStatus; }
+    public void setFriendStatus(String friendStatus) { this.friendStatus = friendStatus != null ? friendStatus : "none"; }
+}
@@ -1,10 +1,12 @@
 package com.campasian.service;
 
+import com.campasian.config.AppPaths;
 import com.campasian.config.SupabaseConfig;
 import com.campasian.model.CampusEvent;
 import com.campasian.model.Comment;
 import com.campasian.model.Confession;
 import com.campasian.model.CourseResource;
+import com.campasian.model.CommunityMemberCounts;
 import com.campasian.model.CommunityMessage;
 import com.campasian.model.CommunityRoom;
 import com.campasian.model.Faculty;
@@ -15,6 +17,7 @@ import com.campasian.model.MarketplaceItem;
 import com.campasian.model.Message;
 import com.campasian.model.Notification;
 import com.campasian.model.Post;
+import com.campasian.model.RelationshipStatus;
 import com.campasian.model.StudyPartnerPost;
 import com.campasian.model.CallRecord;
 import com.campasian.model.User;
@@ -23,23 +26,37 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Minimal Supabase REST client for authentication.
@@ -48,19 +65,51 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class ApiService {
 
     private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(20);
+    // Extra time a coalesced caller waits past REQUEST_TIMEOUT for the shared exchange to finish.
+    private static final long FLIGHT_WAIT_MARGIN_MILLIS = 5_000;
+
+    // Shared pool for HttpClient async completions; a request in flight holds no thread.
+    private static final AtomicInteger HTTP_THREAD_COUNTER = new AtomicInteger(1);
+    private static final ExecutorService HTTP_EXECUTOR = Executors.newFixedThreadPool(4, r -> {
+        Thread thread = new Thread(r, "campasian-http-" + HTTP_THREAD_COUNTER.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Streamed bodies are read with blocking InputStream calls, which must stay off HTTP_EXECUTOR.
+    private static final ExecutorService PARSE_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
 
     private final HttpClient client = HttpClient.newBuilder()
         .connectTimeout(Duration.ofSeconds(10))
+        .executor(HTTP_EXECUTOR)
         .build();
 
     private static final ApiService INSTANCE = new ApiService();
 
     // Caching for better performance
-    private final Map<String, UserProfile> profileCache = new ConcurrentHashMap<>();
-    private final Map<String, Boolean> followingCache = new ConcurrentHashMap<>();
-    private final Map<String, String> friendStatusCache = new ConcurrentHashMap<>();
     private static final long CACHE_DURATION = 5 * 60 * 1000; // 5 minutes
-    private final Map<String, Long> cacheTimestamp = new ConcurrentHashMap<>();
+    private static final long PROFILE_STALE_WINDOW = 30 * 60 * 1000; // serve stale up to 30 more minutes while refreshing
+    private static final int PROFILE_CACHE_SIZE = 2000;
+    private static final int PROFILE_ID_CHUNK = 100; // ~3.7 KB of UUIDs per in.(...) filter
+    private final LruCache<String, UserProfile> profileCache = new LruCache<>(PROFILE_CACHE_SIZE, CACHE_DURATION, PROFILE_STALE_WINDOW);
+    private final Set<String> profileRefreshes = ConcurrentHashMap.newKeySet();
+    /** Single-flight table for GETs, keyed by token + URL (+ extra headers). */
+    private final Map<String, CompletableFuture<String>> inFlightGets = new ConcurrentHashMap<>();
+    /** Same for streamed profile lists, which are coalesced after parsing. */
+    private final Map<String, CompletableFuture<List<UserProfile>>> inFlightProfileLists = new ConcurrentHashMap<>();
+    /** Post columns plus like/comment totals counted by PostgREST, so no like or comment rows are transferred. */
+    private static final String POST_SELECT = "select=*,likes(count),comments(count)";
+    /** Reference data (departments, faculty, resources, events, rooms) persisted across view opens and restarts. */
+    private static final long REFERENCE_FRESH_WINDOW = 60 * 1000; // served from disk without a request
+    private final ResponseCache responseCache = new ResponseCache(AppPaths.getCacheDir("http"));
+    /** Inserts are journaled and flushed in the background; see Outbox. */
+    private final Outbox outbox = new Outbox(AppPaths.getDataDir().resolve("outbox").resolve("journal.log"),
+        this::postFromOutbox, () -> this.currentUserId);
+    private final StorageUploader storageUploader = new StorageUploader(client, AppPaths.getDataDir().resolve("uploads"));
+    /** Follows and friend requests of the signed-in user; see SocialGraph. */
+    private final SocialGraph socialGraph = new SocialGraph();
+    private final Object socialGraphLock = new Object();
+    private SupabaseRealtimeService socialRealtime;
 
     private ApiService() {}
     private final Gson gson = new Gson();
@@ -93,6 +142,7 @@ public final class ApiService {
         refreshToken = null;
         currentUserId = null;
         TokenManager.clearTokens();
+        resetSocialGraph();
     }
 
     /**
@@ -106,6 +156,7 @@ public final class ApiService {
         accessToken = at;
         refreshToken = rt != null && !rt.isBlank() ? rt : null;
         currentUserId = uid;
+        outbox.wake();
         return true;
     }
 
@@ -131,6 +182,8 @@ public final class ApiService {
         if (at != null && !at.isBlank()) {
             accessToken = at;
             persistSession();
+            outbox.wake();
+            SupabaseRealtimeService.accessTokenChanged(at);
             return true;
         }
         return false;
@@ -138,15 +191,17 @@ public final class ApiService {
 
     /**
      * Fetches profile from /rest/v1/profiles?id=eq.{userId}.
-     * Returns null if not found or error. Uses caching for performance.
+     * Returns null if not found or error. A stale cached profile is returned immediately
+     * and refreshed in the background (stale-while-revalidate).
      */
     public UserProfile getProfile(String userId) throws ApiException {
         if (userId == null || userId.isBlank()) return null;
 
         // Check cache first
-        if (isCacheValid(userId)) {
-            UserProfile cached = profileCache.get(userId);
-            if (cached != null) return cached;
+        UserProfile cached = profileCache.getAllowStale(userId);
+        if (cached != null) {
+            if (!profileCache.isFresh(userId)) revalidateProfile(userId);
+            return cached;
         }
 
         String url = restUrl("/profiles?id=eq." + userId);
@@ -154,60 +209,66 @@ public final class ApiService {
         UserProfile profile = getJsonWithAuth(url, token);
         if (profile != null) {
             profileCache.put(userId, profile);
-            cacheTimestamp.put(userId, System.currentTimeMillis());
         }
         return profile;
     }
 
-    private UserProfile getJsonWithAuth(String url, String bearerToken) throws ApiException {
-        try {
-            String anonKey = SupabaseConfig.getAnonKey();
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(REQUEST_TIMEOUT)
-                .header("apikey", anonKey)
-                .header("Authorization", "Bearer " + bearerToken)
-                .header("Accept", "application/json")
-                .GET()
-                .build();
+    /**
+     * Fetches several profiles at once with id=in.(...), chunked to keep URLs short.
+     * Fresh cache hits are not re-fetched. The result follows the order of ids; unknown ids are skipped.
+     */
+    public List<UserProfile> getProfiles(Collection<String> ids) throws ApiException {
+        if (ids == null || ids.isEmpty()) return Collections.emptyList();
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) ordered.add(id);
+        }
+        Map<String, UserProfile> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : ordered) {
+            UserProfile cached = profileCache.get(id);
+            if (cached != null) found.put(id, cached);
+            else missing.add(id);
+        }
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        for (int i = 0; i < missing.size(); i += PROFILE_ID_CHUNK) {
+            List<String> chunk = missing.subList(i, Math.min(i + PROFILE_ID_CHUNK, missing.size()));
+            String url = restUrl("/profiles?id=in.(" + String.join(",", chunk) + ")");
+            for (UserProfile p : getProfilesList(url, token)) {
+                if (p.getId() == null) continue;
+                profileCache.put(p.getId(), p);
+                found.put(p.getId(), p);
+            }
+        }
+        List<UserProfile> result = new ArrayList<>(found.size());
+        for (String id : ordered) {
+            UserProfile p = found.get(id);
+            if (p != null) result.add(p);
+        }
+        return result;
+    }
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-            int status = response.statusCode();
-            String body = response.body();
+    private void revalidateProfile(String userId) {
+        if (!profileRefreshes.add(userId)) return; // refresh already in flight
+        fetchProfileAsync(userId).whenComplete((profile, error) -> profileRefreshes.remove(userId));
+    }
 
-            if (status >= 200 && status < 300 && body != null && !body.isBlank()) {
-                var parsed = JsonParser.parseString(body);
-                if (parsed != null && parsed.isJsonArray()) {
-                    var arr = parsed.getAsJsonArray();
-                    if (arr.size() > 0) {
-                        JsonObject obj = arr.get(0).getAsJsonObject();
-                        UserProfile p = new UserProfile();
-                        p.setId(asString(obj.get("id")));
-                        p.setFullName(asString(obj.get("full_name")));
-                        p.setUniversityName(asString(obj.get("university_name")));
-                        p.setEinNumber(asString(obj.get("ein_number")));
-                        p.setBio(asString(obj.get("bio")));
-                        p.setAvatarUrl(asString(obj.get("avatar_url")));
-                        p.setBloodGroup(asString(obj.get("blood_group")));
-                        p.setSession(asString(obj.get("session")));
-                        p.setBatch(asString(obj.get("batch")));
-                        p.setDepartment(asString(obj.get("department")));
-                        
-                        // Cache the profile
-                        if (p.getId() != null) {
-                            profileCache.put(p.getId(), p);
-                            cacheTimestamp.put(p.getId(), System.currentTimeMillis());
-                        }
-                        
-                        return p;
-                    }
-                }
-            }
-            return null;
-        } catch (Exception e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+    private UserProfile getJsonWithAuth(String url, String bearerToken) throws ApiException {
+        String body;
+        try {
+            body = getRawWithAuth(url, bearerToken);
+        } catch (ApiException e) {
+            if (e.getStatusCode() > 0) return null; // HTTP error: treat as not found
             throw new ApiException(-1, "Profile fetch failed: " + e.getMessage(), null, null, null);
         }
+        List<UserProfile> rows = parseList(body, UserProfile.class);
+        if (rows.isEmpty()) return null;
+        UserProfile p = rows.get(0);
+        // Cache the profile
+        if (p.getId() != null) {
+            profileCache.put(p.getId(), p);
+        }
+        return p;
     }
 
     /**
@@ -254,7 +315,7 @@ public final class ApiService {
      * Creates a new post. Uses current user's id, name, and university from profile.
      * @param imageUrl optional public URL from Supabase Storage (post-images bucket)
      */
-    public void sendPost(String content, String imageUrl) throws ApiException {
+    public CompletableFuture<Void> sendPost(String content, String imageUrl) throws ApiException {
         String userId = currentUserId;
         if (userId == null || userId.isBlank()) {
             throw new ApiException(-1, "Not logged in", null, null, null);
@@ -275,16 +336,14 @@ public final class ApiService {
         body.addProperty("university", university);
         if (imageUrl != null && !imageUrl.isBlank()) body.addProperty("image_url", imageUrl);
 
-        String url = restUrl("/posts");
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        postJsonWithAuth(url, body, token);
+        return enqueueInsert("/posts", body);
     }
 
     /**
      * Creates a new post without image. Convenience for sendPost(content, null).
      */
-    public void sendPost(String content) throws ApiException {
-        sendPost(content, null);
+    public CompletableFuture<Void> sendPost(String content) throws ApiException {
+        return sendPost(content, null);
     }
 
     /**
@@ -298,13 +357,13 @@ public final class ApiService {
         if (followingOnly) {
             List<String> followingIds = getFollowingIds();
             if (followingIds.isEmpty()) return Collections.emptyList();
-            url = restUrl("/posts?user_id=in.(" + String.join(",", followingIds) + ")&order=created_at.desc");
+            url = restUrl("/posts?" + POST_SELECT + "&user_id=in.(" + String.join(",", followingIds) + ")&order=created_at.desc");
         } else {
-            url = restUrl("/posts?order=created_at.desc");
+            url = restUrl("/posts?" + POST_SELECT + "&order=created_at.desc");
         }
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         List<Post> posts = getPostsWithAuth(url, token);
-        enrichPostsWithLikes(posts);
+        applyLikedByMe(posts, fetchLikedIds(posts, token));
         return posts;
     }
 
@@ -317,157 +376,366 @@ public final class ApiService {
 
     private List<String> getFollowingIds() throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) return Collections.emptyList();
-        String url = restUrl("/follows?follower_id=eq." + currentUserId + "&select=following_id");
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        try {
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return Collections.emptyList();
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            var arr = parsed.getAsJsonArray();
-            List<String> ids = new ArrayList<>();
-            for (JsonElement el : arr) {
-                if (el != null && el.isJsonObject()) {
-                    String id = asString(el.getAsJsonObject().get("following_id"));
-                    if (id != null && !id.isBlank()) ids.add(id);
-                }
+        return socialGraph().followingIds();
+    }
+
+    private static List<String> parseFollowingIds(String body) {
+        if (body == null || body.isBlank()) return Collections.emptyList();
+        var parsed = JsonParser.parseString(body);
+        if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
+        List<String> ids = new ArrayList<>();
+        for (JsonElement el : parsed.getAsJsonArray()) {
+            if (el != null && el.isJsonObject()) {
+                String id = asString(el.getAsJsonObject().get("following_id"));
+                if (id != null && !id.isBlank()) ids.add(id);
             }
-            return ids;
-        } catch (Exception e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
-            throw new ApiException(-1, "Follows fetch failed: " + e.getMessage(), null, null, null);
         }
+        return ids;
     }
 
-    private void enrichPostsWithLikes(List<Post> posts) {
-        if (posts == null || posts.isEmpty()) return;
+    /**
+     * URL listing which of these posts the current user liked (post_id only), or null if there is nothing to ask.
+     */
+    private String likedIdsUrlFor(List<Post> posts) throws ApiException {
+        if (posts == null || posts.isEmpty() || currentUserId == null || currentUserId.isBlank()) return null;
         List<String> postIds = new ArrayList<>();
         for (Post p : posts) {
             if (p.getId() != null) postIds.add(String.valueOf(p.getId()));
         }
-        if (postIds.isEmpty()) return;
-        Map<Long, Integer> countByPost = new HashMap<>();
-        Map<Long, Boolean> likedByPost = new HashMap<>();
+        if (postIds.isEmpty()) return null;
+        return restUrl("/likes?user_id=eq." + currentUserId + "&post_id=in.(" + String.join(",", postIds) + ")&select=post_id");
+    }
+
+    private String fetchLikedIds(List<Post> posts, String bearerToken) {
         try {
-            String idsParam = String.join(",", postIds);
-            String url = restUrl("/likes?post_id=in.(" + idsParam + ")&select=post_id,user_id");
-            String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-            String body = getRawWithAuth(url, token);
-            if (body != null && !body.isBlank()) {
-                var parsed = JsonParser.parseString(body);
-                if (parsed != null && parsed.isJsonArray()) {
-                    for (JsonElement el : parsed.getAsJsonArray()) {
-                        if (el != null && el.isJsonObject()) {
-                            JsonObject o = el.getAsJsonObject();
-                            Long pid = asLong(o.get("post_id"));
-                            String uid = asString(o.get("user_id"));
-                            if (pid != null) {
-                                countByPost.merge(pid, 1, Integer::sum);
-                                if (currentUserId != null && currentUserId.equals(uid)) {
-                                    likedByPost.put(pid, true);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        } catch (Exception ignored) {}
-        for (Post p : posts) {
-            Long pid = p.getId();
-            p.setLikeCount(countByPost.getOrDefault(pid, 0));
-            p.setLikedByMe(Boolean.TRUE.equals(likedByPost.get(pid)));
+            String url = likedIdsUrlFor(posts);
+            return url != null ? getRawWithAuth(url, bearerToken) : null;
+        } catch (Exception e) {
+            return null;
         }
     }
 
-    private void enrichPostsWithCommentCount(List<Post> posts) throws ApiException {
+    /**
+     * Sets likedByMe from a likes?select=post_id body. Like and comment counts come embedded in the posts query.
+     */
+    private static void applyLikedByMe(List<Post> posts, String body) {
         if (posts == null || posts.isEmpty()) return;
-        List<Long> postIds = new ArrayList<>();
-        for (Post p : posts) {
-            if (p.getId() != null) postIds.add(p.getId());
-        }
-        if (postIds.isEmpty()) return;
-        Map<Long, Integer> countByPost = new HashMap<>();
+        Set<Long> liked = new HashSet<>();
         try {
-            String idsParam = postIds.stream().map(String::valueOf).reduce((a, b) -> a + "," + b).orElse("");
-            String url = restUrl("/comments?post_id=in.(" + idsParam + ")&select=post_id");
-            String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-            String body = getRawWithAuth(url, token);
             if (body != null && !body.isBlank()) {
                 var parsed = JsonParser.parseString(body);
                 if (parsed != null && parsed.isJsonArray()) {
                     for (JsonElement el : parsed.getAsJsonArray()) {
                         if (el != null && el.isJsonObject()) {
                             Long pid = asLong(el.getAsJsonObject().get("post_id"));
-                            if (pid != null) countByPost.merge(pid, 1, Integer::sum);
+                            if (pid != null) liked.add(pid);
                         }
                     }
                 }
             }
         } catch (Exception ignored) {}
         for (Post p : posts) {
-            p.setCommentCount(countByPost.getOrDefault(p.getId(), 0));
+            p.setLikedByMe(liked.contains(p.getId()));
         }
     }
 
+    /**
+     * GET returning the raw body. Concurrent identical requests (same URL and token) share one
+     * HTTP exchange. The exchange runs on the HttpClient, not on the caller's thread, so a caller that is
+     * interrupted (its view was closed) gives up waiting without failing the request for the others.
+     */
     private String getRawWithAuth(String url, String bearerToken) throws ApiException {
+        return awaitFlight(getRawWithAuthAsync(url, bearerToken));
+    }
+
+    private static String flightKey(String url, String bearerToken, String... extraHeaders) {
+        String key = bearerToken + "\n" + url;
+        return extraHeaders.length == 0 ? key : key + "\n" + String.join("\n", extraHeaders);
+    }
+
+    /**
+     * Waits for this caller's copy of a shared exchange, at most a little longer than the request timeout.
+     */
+    private static <T> T awaitFlight(CompletableFuture<T> flight) throws ApiException {
         try {
-            String anonKey = SupabaseConfig.getAnonKey();
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(REQUEST_TIMEOUT)
-                .header("apikey", anonKey)
-                .header("Authorization", "Bearer " + bearerToken)
-                .header("Accept", "application/json")
-                .GET()
-                .build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            return flight.get(REQUEST_TIMEOUT.toMillis() + FLIGHT_WAIT_MARGIN_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException(-1, "Request failed: interrupted", null, null, null);
+        } catch (TimeoutException e) {
+            throw new ApiException(-1, "Request failed: timed out", null, null, null);
+        } catch (java.util.concurrent.ExecutionException | java.util.concurrent.CancellationException e) {
+            throw unwrap(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private static ApiException httpError(String url, int status, String body) {
+        if ("true".equalsIgnoreCase(System.getProperty("campasian.log.api"))) {
+            System.err.println("[Campasian API Error] GET " + url + " -> " + status + " " + (body != null ? body : ""));
+        }
+        return new ApiException(status, "HTTP " + status, null, null, body);
+    }
+
+    /**
+     * GET for slow-changing reference data, backed by the on-disk response cache.
+     * A cached body younger than REFERENCE_FRESH_WINDOW is returned without a request; older ones are
+     * revalidated with If-None-Match / If-Modified-Since and a 304 is served from disk. If the network
+     * is unreachable, the last cached body is returned instead of failing.
+     */
+    private String getCachedWithAuth(String url, String bearerToken) throws ApiException {
+        String user = currentUserId != null && !currentUserId.isBlank() ? currentUserId : "anon";
+        ResponseCache.Entry cached = responseCache.get(user, url);
+        if (cached != null && cached.ageMillis() < REFERENCE_FRESH_WINDOW) return cached.body;
+        String key = flightKey(url, bearerToken, "cache");
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlightGets.putIfAbsent(key, flight);
+        if (existing != null) return awaitFlight(existing.copy());
+        revalidateAsync(url, bearerToken, user, cached).whenComplete((body, error) -> {
+            inFlightGets.remove(key, flight);
+            if (error != null) flight.completeExceptionally(error);
+            else flight.complete(body);
+        });
+        return awaitFlight(flight.copy());
+    }
+
+    private CompletableFuture<String> revalidateAsync(String url, String bearerToken, String user, ResponseCache.Entry cached) {
+        List<String> conditional = new ArrayList<>();
+        if (cached != null && cached.etag != null && !cached.etag.isBlank()) {
+            conditional.add("If-None-Match");
+            conditional.add(cached.etag);
+        }
+        if (cached != null && cached.lastModified != null && !cached.lastModified.isBlank()) {
+            conditional.add("If-Modified-Since");
+            conditional.add(cached.lastModified);
+        }
+        return sendGetAsync(url, bearerToken, conditional.toArray(new String[0])).handle((response, error) -> {
+            if (error != null) {
+                if (cached != null) return cached.body;
+                throw new CompletionException(unwrap(error));
+            }
             int status = response.statusCode();
+            if (status == 304 && cached != null) {
+                responseCache.touch(user, url);
+                return cached.body;
+            }
             String body = response.body();
             if (status >= 200 && status < 300) {
+                responseCache.put(user, url, body,
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
                 return body;
             }
-            if ("true".equalsIgnoreCase(System.getProperty("campasian.log.api"))) {
-                System.err.println("[Campasian API Error] GET " + url + " -> " + status + " " + (body != null ? body : ""));
+            throw new CompletionException(httpError(url, status, body));
+        });
+    }
+
+    // ----- Async API -----
+    // Non-blocking counterparts built on HttpClient.sendAsync. Futures complete exceptionally
+    // with a CompletionException wrapping ApiException; use unwrap(...) to recover it.
+
+    /**
+     * Fetches one page of the feed, newest first, using a (created_at, id) keyset cursor.
+     * Pass null cursor values for the first page; for the next page pass the last post's created_at and id.
+     * Only the requested page and its likes are transferred.
+     */
+    public CompletableFuture<List<Post>> getFeedPageAsync(String cursorCreatedAt, Long cursorId, int limit, boolean followingOnly) {
+        if (followingOnly && (currentUserId == null || currentUserId.isBlank())) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        if (limit <= 0) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        StringBuilder query = new StringBuilder("/posts?" + POST_SELECT + "&order=created_at.desc,id.desc");
+        if (cursorCreatedAt != null && !cursorCreatedAt.isBlank()) {
+            String ts = encodeQueryValue("\"" + cursorCreatedAt + "\"");
+            query.append("&or=(created_at.lt.").append(ts);
+            if (cursorId != null) {
+                query.append(",and(created_at.eq.").append(ts).append(",id.lt.").append(cursorId).append(")");
+            }
+            query.append(")");
+        }
+        // PostgREST Range is inclusive: rows 0..limit-1 of the keyset-filtered result.
+        String[] range = { "Range-Unit", "items", "Range", "0-" + (limit - 1) };
+        CompletableFuture<List<Post>> postsFuture;
+        try {
+            if (followingOnly) {
+                String postsBase = restUrl(query.toString());
+                postsFuture = followingIdsAsync(token)
+                    .thenCompose(ids -> ids.isEmpty()
+                        ? CompletableFuture.completedFuture(new ArrayList<>())
+                        : getListWithAuthAsync(postsBase + "&user_id=in.(" + String.join(",", ids) + ")", token, Post.class, range));
+            } else {
+                postsFuture = getListWithAuthAsync(restUrl(query.toString()), token, Post.class, range);
             }
-            throw new ApiException(status, "HTTP " + status, null, null, body);
         } catch (ApiException e) {
-            throw e;
+            return CompletableFuture.failedFuture(e);
+        }
+        return postsFuture.thenCompose(posts -> enrichPostsWithLikedAsync(posts, token));
+    }
+
+    /**
+     * Async variant of getMessages.
+     */
+    public CompletableFuture<List<Message>> getMessagesAsync(String partnerId) {
+        if (currentUserId == null || currentUserId.isBlank() || partnerId == null || partnerId.isBlank()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        try {
+            String url = restUrl("/messages?or=(and(sender_id.eq." + currentUserId + ",receiver_id.eq." + partnerId + "),and(sender_id.eq." + partnerId + ",receiver_id.eq." + currentUserId + "))&order=created_at.asc");
+            return getListWithAuthAsync(url, token, Message.class);
+        } catch (ApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Async variant of getCallsBetweenUsers. Like the blocking version, failures yield an empty list.
+     */
+    public CompletableFuture<List<CallRecord>> getCallsBetweenUsersAsync(String userId1, String userId2) {
+        if (userId1 == null || userId1.isBlank() || userId2 == null || userId2.isBlank()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        try {
+            String url = restUrl("/calls?or=(and(caller_id.eq." + userId1 + ",receiver_id.eq." + userId2 + "),and(caller_id.eq." + userId2 + ",receiver_id.eq." + userId1 + "))&order=created_at.desc");
+            return getRawWithAuthAsync(url, token)
+                .thenApply(body -> parseList(body, CallRecord.class))
+                .exceptionally(e -> Collections.emptyList());
+        } catch (ApiException e) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+    }
+
+    private CompletableFuture<UserProfile> fetchProfileAsync(String userId) {
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        try {
+            return getRawWithAuthAsync(restUrl("/profiles?id=eq." + userId), token).thenApply(body -> {
+                List<UserProfile> rows = parseList(body, UserProfile.class);
+                if (rows.isEmpty()) return null;
+                UserProfile p = rows.get(0);
+                if (p.getId() != null) {
+                    profileCache.put(p.getId(), p);
+                }
+                return p;
+            });
+        } catch (ApiException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Returns the ApiException carried by a failed future, or wraps any other failure in one.
+     */
+    public static ApiException unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof ApiException apiException) return apiException;
+        return new ApiException(-1, "Request failed: " + (cause != null ? cause.getMessage() : "unknown"), null, null, null);
+    }
+
+    private CompletableFuture<List<Post>> enrichPostsWithLikedAsync(List<Post> posts, String bearerToken) {
+        String url;
+        try {
+            url = likedIdsUrlFor(posts);
+        } catch (ApiException e) {
+            url = null;
+        }
+        if (url == null) {
+            applyLikedByMe(posts, null);
+            return CompletableFuture.completedFuture(posts);
+        }
+        return getRawWithAuthAsync(url, bearerToken)
+            .exceptionally(e -> null)
+            .thenApply(body -> {
+                applyLikedByMe(posts, body);
+                return posts;
+            });
+    }
+
+    private CompletableFuture<String> getRawWithAuthAsync(String url, String bearerToken, String... extraHeaders) {
+        // Shares the in-flight table with getRawWithAuth; callers get a copy so cancelling one
+        // caller's future never cancels the shared exchange.
+        String key = flightKey(url, bearerToken, extraHeaders);
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlightGets.putIfAbsent(key, flight);
+        if (existing != null) return existing.copy();
+        sendRawWithAuthAsync(url, bearerToken, extraHeaders).whenComplete((body, error) -> {
+            inFlightGets.remove(key, flight);
+            if (error != null) flight.completeExceptionally(error);
+            else flight.complete(body);
+        });
+        return flight.copy();
+    }
+
+    private CompletableFuture<String> sendRawWithAuthAsync(String url, String bearerToken, String... extraHeaders) {
+        return sendGetAsync(url, bearerToken, extraHeaders)
+            .handle((response, error) -> {
+                if (error != null) {
+                    throw new CompletionException(unwrap(error));
+                }
+                int status = response.statusCode();
+                String body = response.body();
+                if (status >= 200 && status < 300) {
+                    return body;
+                }
+                logApiError("GET", url, null, status, body);
+                throw new CompletionException(new ApiException(status, "HTTP " + status, null, null, body));
+            });
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendGetAsync(String url, String bearerToken, String... extraHeaders) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("apikey", SupabaseConfig.getAnonKey())
+                .header("Authorization", "Bearer " + bearerToken)
+                .header("Accept", "application/json")
+                .GET();
+            if (extraHeaders.length > 0) builder.headers(extraHeaders);
+            request = builder.build();
         } catch (Exception e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
-            throw new ApiException(-1, "Request failed: " + e.getMessage(), null, null, null);
+            return CompletableFuture.failedFuture(new ApiException(-1, "Request failed: " + e.getMessage(), null, null, null));
         }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
     }
 
     /**
-     * Toggles like on a post. If already liked, unlikes; otherwise likes.
+     * Sets the current user's like on a post with one idempotent request: an insert that ignores an existing
+     * (post_id, user_id) row, or a delete. Repeating either call leaves the same state. See {@link LikeManager}.
      */
-    public void toggleLike(Long postId) throws ApiException {
+    public void setLiked(Long postId, boolean liked) throws ApiException {
         if (postId == null || currentUserId == null || currentUserId.isBlank()) {
             throw new ApiException(-1, "Invalid request", null, null, null);
         }
-        String pid = String.valueOf(postId);
-        String checkUrl = restUrl("/likes?post_id=eq." + pid + "&user_id=eq." + currentUserId);
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        String body = getRawWithAuth(checkUrl, token);
-        boolean alreadyLiked = false;
-        if (body != null && !body.isBlank()) {
-            try {
-                var parsed = JsonParser.parseString(body);
-                if (parsed != null && parsed.isJsonArray() && parsed.getAsJsonArray().size() > 0) {
-                    alreadyLiked = true;
-                }
-            } catch (Exception ignored) {}
-        }
-        if (alreadyLiked) {
-            deleteWithAuth(restUrl("/likes?post_id=eq." + pid + "&user_id=eq." + currentUserId), token);
-        } else {
+        if (liked) {
             JsonObject payload = new JsonObject();
             payload.addProperty("post_id", postId);
             payload.addProperty("user_id", currentUserId);
-            postJsonWithAuth(restUrl("/likes"), payload, token);
+            upsertJsonWithAuth(restUrl("/likes?on_conflict=post_id,user_id"), payload, token, "ignore-duplicates");
+        } else {
+            deleteWithAuth(restUrl("/likes?post_id=eq." + postId + "&user_id=eq." + currentUserId), token);
         }
     }
 
+    /**
+     * Reads a post's like count and whether the current user likes it, into a detached Post carrying only those fields.
+     */
+    public Post fetchLikeState(Long postId) throws ApiException {
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        List<Post> posts = getListWithAuth(restUrl("/posts?id=eq." + postId + "&select=id,likes(count)"), token, Post.class);
+        if (posts.isEmpty()) throw new ApiException(404, "Post not found", null, null, null);
+        String url = likedIdsUrlFor(posts);
+        applyLikedByMe(posts, url != null ? getRawWithAuth(url, token) : null);
+        return posts.get(0);
+    }
+
     private void deleteWithAuth(String url, String bearerToken) throws ApiException {
         try {
             String anonKey = SupabaseConfig.getAnonKey();
@@ -493,7 +761,7 @@ public final class ApiService {
     /**
      * Adds a comment on a post.
      */
-    public void addComment(Long postId, String text) throws ApiException {
+    public CompletableFuture<Void> addComment(Long postId, String text) throws ApiException {
         if (postId == null || currentUserId == null || currentUserId.isBlank()) {
             throw new ApiException(-1, "Invalid request", null, null, null);
         }
@@ -504,8 +772,7 @@ public final class ApiService {
         payload.addProperty("user_id", currentUserId);
         payload.addProperty("user_name", userName);
         payload.addProperty("content", text != null ? text.trim() : "");
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        postJsonWithAuth(restUrl("/comments"), payload, token);
+        return enqueueInsert("/comments", payload);
     }
 
     /**
@@ -516,25 +783,7 @@ public final class ApiService {
         String url = restUrl("/comments?post_id=eq." + postId + "&order=created_at.asc");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return Collections.emptyList();
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<Comment> comments = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    Comment c = new Comment();
-                    c.setId(asLong(o.get("id")));
-                    c.setPostId(asLong(o.get("post_id")));
-                    c.setUserId(asString(o.get("user_id")));
-                    c.setUserName(asString(o.get("user_name")));
-                    c.setContent(asString(o.get("content")));
-                    c.setCreatedAt(asString(o.get("created_at")));
-                    comments.add(c);
-                }
-            }
-            return comments;
+            return ModelAdapters.readList(getRawWithAuth(url, token), Comment.class);
         } catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
             throw new ApiException(-1, "Comments fetch failed: " + e.getMessage(), null, null, null);
@@ -554,6 +803,7 @@ public final class ApiService {
         payload.addProperty("following_id", targetId);
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         postJsonWithAuth(restUrl("/follows"), payload, token);
+        socialGraph.followed(targetId);
     }
 
     /**
@@ -566,6 +816,7 @@ public final class ApiService {
         String url = restUrl("/follows?follower_id=eq." + currentUserId + "&following_id=eq." + targetUserId);
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         deleteWithAuth(url, token);
+        socialGraph.unfollowed(targetUserId);
     }
 
     /**
@@ -573,6 +824,7 @@ public final class ApiService {
      */
     public int getFollowerCount(String userId) throws ApiException {
         if (userId == null || userId.isBlank()) return 0;
+        if (userId.equals(currentUserId)) return socialGraph().followerCount();
         return getCountFromTable("follows", "following_id", userId);
     }
 
@@ -581,6 +833,7 @@ public final class ApiService {
      */
     public int getFollowingCount(String userId) throws ApiException {
         if (userId == null || userId.isBlank()) return 0;
+        if (userId.equals(currentUserId)) return socialGraph().followingCount();
         return getCountFromTable("follows", "follower_id", userId);
     }
 
@@ -616,14 +869,7 @@ public final class ApiService {
      */
     public boolean isFollowing(String targetUserId) throws ApiException {
         if (targetUserId == null || targetUserId.isBlank() || currentUserId == null || currentUserId.isBlank()) return false;
-        String url = restUrl("/follows?follower_id=eq." + currentUserId + "&following_id=eq." + targetUserId);
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        String body = getRawWithAuth(url, token);
-        if (body == null || body.isBlank()) return false;
-        try {
-            var parsed = JsonParser.parseString(body);
-            return parsed != null && parsed.isJsonArray() && parsed.getAsJsonArray().size() > 0;
-        } catch (Exception e) { return false; }
+        return socialGraph().isFollowing(targetUserId);
     }
 
     /**
@@ -634,27 +880,7 @@ public final class ApiService {
         String url = restUrl("/notifications?user_id=eq." + currentUserId + "&order=created_at.desc&select=id,user_id,type,actor_id,actor_name,post_id,created_at,read_at");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return Collections.emptyList();
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<Notification> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    Notification n = new Notification();
-                    n.setId(asString(o.get("id")));
-                    n.setUserId(asString(o.get("user_id")));
-                    n.setType(asString(o.get("type")));
-                    n.setActorId(asString(o.get("actor_id")));
-                    n.setActorName(asString(o.get("actor_name")));
-                    n.setPostId(asLong(o.get("post_id")));
-                    n.setCreatedAt(asString(o.get("created_at")));
-                    n.setReadAt(asString(o.get("read_at")));
-                    list.add(n);
-                }
-            }
-            return list;
+            return ModelAdapters.readList(getRawWithAuth(url, token), Notification.class);
         } catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
             throw new ApiException(-1, "Notifications fetch failed: " + e.getMessage(), null, null, null);
@@ -692,34 +918,29 @@ public final class ApiService {
         return s.replace(" ", "%20").replace("&", "%26");
     }
 
+    /**
+     * Streams a profiles array. Concurrent identical requests share one exchange and one parsed list;
+     * each caller gets its own list copy. As with getRawWithAuth, the exchange does not run on the
+     * caller's thread, so one interrupted caller cannot fail the others.
+     */
     private List<UserProfile> getProfilesList(String url, String bearerToken) throws ApiException {
+        String key = flightKey(url, bearerToken);
+        CompletableFuture<List<UserProfile>> flight = new CompletableFuture<>();
+        CompletableFuture<List<UserProfile>> existing = inFlightProfileLists.putIfAbsent(key, flight);
+        if (existing != null) {
+            flight = existing;
+        } else {
+            CompletableFuture<List<UserProfile>> leader = flight;
+            getListWithAuthAsync(url, bearerToken, UserProfile.class).whenComplete((list, error) -> {
+                inFlightProfileLists.remove(key, leader);
+                if (error != null) leader.completeExceptionally(error);
+                else leader.complete(list);
+            });
+        }
         try {
-            String body = getRawWithAuth(url, bearerToken);
-            if (body == null || body.isBlank()) return Collections.emptyList();
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<UserProfile> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    UserProfile p = new UserProfile();
-                    p.setId(asString(o.get("id")));
-                    p.setFullName(asString(o.get("full_name")));
-                    p.setUniversityName(asString(o.get("university_name")));
-                    p.setEinNumber(asString(o.get("ein_number")));
-                    p.setBio(asString(o.get("bio")));
-                    p.setAvatarUrl(asString(o.get("avatar_url")));
-                    p.setBloodGroup(asString(o.get("blood_group")));
-                    p.setSession(asString(o.get("session")));
-                    p.setBatch(asString(o.get("batch")));
-                    p.setDepartment(asString(o.get("department")));
-                    list.add(p);
-                }
-            }
-            return list;
-        } catch (Exception e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
-            throw new ApiException(-1, "Profiles fetch failed: " + e.getMessage(), null, null, null);
+            return new ArrayList<>(awaitFlight(flight.copy()));
+        } catch (ApiException e) {
+            throw new ApiException(e.getStatusCode(), "Profiles fetch failed: " + e.getMessage(), null, null, e.getResponseBody());
         }
     }
 
@@ -754,7 +975,7 @@ public final class ApiService {
     public List<String> getAllDepartments() throws ApiException {
         String url = restUrl("/profiles?select=department&department=not.is.null&order=department");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        String body = getRawWithAuth(url, token);
+        String body = getCachedWithAuth(url, token);
         java.util.Set<String> uniqueDepts = new java.util.LinkedHashSet<>();
         try {
             JsonParser parser = new JsonParser();
@@ -801,37 +1022,18 @@ public final class ApiService {
     }
 
     /**
-     * Uploads bytes to Supabase Storage and returns the public URL.
-     * Bucket and path are required (e.g. avatars, avatars/userId/avatar.png).
+     * Streams a file to Supabase Storage and returns the public URL. Memory use is constant in the file size.
+     * Files over 1 MB are sent as resumable chunks; calling again with the same file and path after a failure
+     * resumes where the server left off. Progress (may be null) is reported from HTTP threads.
      */
-    public String uploadToStorage(String bucket, String path, byte[] data, String contentType) throws ApiException {
-        if (bucket == null || path == null || data == null) {
+    public String uploadFileToStorage(String bucket, String path, Path file, String contentType,
+                                      UploadProgressListener progress) throws ApiException {
+        if (bucket == null || path == null || file == null) {
             throw new ApiException(-1, "Invalid storage params", null, null, null);
         }
-        String base = SupabaseConfig.getSupabaseUrl();
-        String storageUrl = base + "/storage/v1/object/" + bucket + "/" + path.replace(" ", "%20");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        String anonKey = SupabaseConfig.getAnonKey();
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(storageUrl))
-                .timeout(REQUEST_TIMEOUT)
-                .header("apikey", anonKey)
-                .header("Authorization", "Bearer " + token)
-                .header("Content-Type", contentType != null ? contentType : "image/png")
-                .header("x-upsert", "true")
-                .POST(HttpRequest.BodyPublishers.ofByteArray(data))
-                .build();
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-            if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                return base + "/storage/v1/object/public/" + bucket + "/" + path;
-            }
-            throw new ApiException(response.statusCode(), "Upload failed", null, null, response.body());
-        } catch (ApiException e) { throw e; }
-        catch (Exception e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
-            throw new ApiException(-1, "Upload failed: " + e.getMessage(), null, null, null);
-        }
+        storageUploader.upload(bucket, path, file, contentType, token, progress);
+        return SupabaseConfig.getSupabaseUrl() + "/storage/v1/object/public/" + bucket + "/" + path;
     }
 
     /**
@@ -864,59 +1066,111 @@ public final class ApiService {
             payload.addProperty("owner_user_id", room.getOwnerUserId());
         }
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        upsertJsonWithAuth(restUrl("/community_rooms"), payload, token);
+        upsertJsonWithAuth(restUrl("/community_rooms"), payload, token, "merge-duplicates");
+        invalidateCommunityRooms();
     }
 
     public List<CommunityRoom> getCommunityRooms(String universityKey) throws ApiException {
         if (universityKey == null || universityKey.isBlank()) return Collections.emptyList();
         String url = restUrl("/community_rooms?university_key=eq." + encodeQueryValue(universityKey) + "&order=created_at.asc");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        return parseCommunityRooms(getRawWithAuth(url, token));
+        return parseList(getCachedWithAuth(url, token), CommunityRoom.class);
+    }
+
+    /**
+     * Server-side student counts for a university and department (community_member_counts RPC).
+     */
+    public CommunityMemberCounts getCommunityMemberCounts(String universityName, String einNumber, String department) throws ApiException {
+        JsonObject args = new JsonObject();
+        args.addProperty("p_university_name", universityName);
+        args.addProperty("p_ein_number", einNumber);
+        args.addProperty("p_department", department);
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        JsonElement result = rpcWithAuth("community_member_counts", args, token);
+        JsonObject obj = result != null && result.isJsonObject() ? result.getAsJsonObject() : new JsonObject();
+        Long university = asLong(obj.get("university_count"));
+        Long dept = asLong(obj.get("department_count"));
+        return new CommunityMemberCounts(
+            university != null ? Math.max(university.intValue(), 1) : 1,
+            dept != null ? Math.max(dept.intValue(), 1) : 1
+        );
+    }
+
+    /**
+     * Drops cached room lists, e.g. when Realtime reports a room change made by someone else.
+     */
+    public void invalidateCommunityRooms() {
+        invalidateCached("/community_rooms");
     }
 
     public CommunityRoom getCommunityRoom(String roomId) throws ApiException {
         if (roomId == null || roomId.isBlank()) return null;
         String url = restUrl("/community_rooms?id=eq." + encodeQueryValue(roomId));
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        List<CommunityRoom> rooms = parseCommunityRooms(getRawWithAuth(url, token));
+        List<CommunityRoom> rooms = parseList(getRawWithAuth(url, token), CommunityRoom.class);
         return rooms.isEmpty() ? null : rooms.get(0);
     }
 
-    public List<CommunityMessage> getCommunityMessages(String roomId) throws ApiException {
+    /**
+     * Messages of a room after the (createdAfter, afterId) cursor, oldest first.
+     */
+    public List<CommunityMessage> getCommunityMessagesAfter(String roomId, String createdAfter, String afterId) throws ApiException {
         if (roomId == null || roomId.isBlank()) return Collections.emptyList();
-        String url = restUrl("/community_messages?room_id=eq." + encodeQueryValue(roomId) + "&order=created_at.asc");
+        String url = restUrl("/community_messages?room_id=eq." + encodeQueryValue(roomId)
+            + communityKeyset("gt", createdAfter, afterId) + "&order=created_at.asc,id.asc");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        return parseCommunityMessages(getRawWithAuth(url, token));
+        return parseList(getRawWithAuth(url, token), CommunityMessage.class);
     }
 
-    public CommunityMessage sendCommunityMessage(String roomId, String senderId, String senderName, String content, String imageUrl) throws ApiException {
-        if (roomId == null || roomId.isBlank() || content == null || content.isBlank()) {
-            throw new ApiException(-1, "Invalid community message", null, null, null);
-        }
-        JsonObject payload = new JsonObject();
-        payload.addProperty("room_id", roomId);
-        payload.addProperty("sender_id", senderId != null ? senderId : currentUserId);
-        payload.addProperty("sender_name", senderName != null && !senderName.isBlank() ? senderName : "Student");
+    /**
+     * Up to limit messages of a room before the (createdBefore, beforeId) cursor (null: the latest ones), oldest first.
+     */
+    public List<CommunityMessage> getCommunityMessagesBefore(String roomId, String createdBefore, String beforeId, int limit) throws ApiException {
+        if (roomId == null || roomId.isBlank()) return Collections.emptyList();
+        String url = restUrl("/community_messages?room_id=eq." + encodeQueryValue(roomId)
+            + (createdBefore != null ? communityKeyset("lt", createdBefore, beforeId) : "")
+            + "&order=created_at.desc,id.desc&limit=" + limit);
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        List<CommunityMessage> page = new ArrayList<>(parseList(getRawWithAuth(url, token), CommunityMessage.class));
+        Collections.reverse(page);
+        return page;
+    }
+
+    /**
+     * (created_at, id) keyset filter in direction op ("gt" or "lt"), as in getFeedPageAsync, so rows that
+     * share a created_at are neither skipped nor repeated. Without an id the bound is inclusive (gte/lte)
+     * and the caller drops the rows it already has.
+     */
+    private static String communityKeyset(String op, String createdAt, String id) {
+        if (id == null || id.isBlank()) return "&created_at=" + op + "e." + encodeQueryValue(createdAt);
+        String ts = encodeQueryValue("\"" + createdAt + "\"");
+        return "&or=(created_at." + op + "." + ts + ",and(created_at.eq." + ts + ",id." + op + "." + encodeQueryValue(id) + "))";
+    }
+
+    /**
+     * Queues a community message. The returned future completes once the server has stored the row, or
+     * exceptionally if it rejects it for good.
+     */
+    public CompletableFuture<Void> sendCommunityMessage(String roomId, String senderId, String senderName, String content, String imageUrl) throws ApiException {
+        if (roomId == null || roomId.isBlank() || content == null || content.isBlank()) {
+            throw new ApiException(-1, "Invalid community message", null, null, null);
+        }
+        JsonObject payload = new JsonObject();
+        payload.addProperty("room_id", roomId);
+        payload.addProperty("sender_id", senderId != null ? senderId : currentUserId);
+        payload.addProperty("sender_name", senderName != null && !senderName.isBlank() ? senderName : "Student");
         payload.addProperty("content", content.trim());
         if (imageUrl != null && !imageUrl.isBlank()) {
             payload.addProperty("image_url", imageUrl);
         }
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        postJsonWithAuth(restUrl("/community_messages"), payload, token);
-        return new CommunityMessage(
-            roomId,
-            senderId != null ? senderId : currentUserId,
-            senderName != null && !senderName.isBlank() ? senderName : "Student",
-            content.trim(),
-            imageUrl,
-            java.time.OffsetDateTime.now().format(java.time.format.DateTimeFormatter.ISO_OFFSET_DATE_TIME)
-        );
+        return enqueueInsert("/community_messages", payload);
     }
 
     public void deleteCommunityRoom(String roomId) throws ApiException {
         if (roomId == null || roomId.isBlank()) return;
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         deleteWithAuth(restUrl("/community_rooms?id=eq." + encodeQueryValue(roomId)), token);
+        invalidateCached("/community_rooms");
     }
 
     /**
@@ -932,6 +1186,7 @@ public final class ApiService {
         payload.addProperty("to_id", targetId);
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         postJsonWithAuth(restUrl("/friend_requests"), payload, token);
+        socialGraph.requestSent(targetId);
     }
 
     /**
@@ -939,11 +1194,10 @@ public final class ApiService {
      */
     public List<Post> getPostsByUserId(String userId) throws ApiException {
         if (userId == null || userId.isBlank()) return Collections.emptyList();
-        String url = restUrl("/posts?user_id=eq." + userId + "&order=created_at.desc");
+        String url = restUrl("/posts?" + POST_SELECT + "&user_id=eq." + userId + "&order=created_at.desc");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         List<Post> posts = getPostsWithAuth(url, token);
-        enrichPostsWithLikes(posts);
-        enrichPostsWithCommentCount(posts);
+        applyLikedByMe(posts, fetchLikedIds(posts, token));
         return posts;
     }
 
@@ -952,26 +1206,23 @@ public final class ApiService {
      */
     public String getFriendRequestStatus(String targetId) throws ApiException {
         if (targetId == null || targetId.isBlank() || currentUserId == null || currentUserId.isBlank()) return "none";
-        String url = restUrl("/friend_requests?or=(and(from_id.eq." + currentUserId + ",to_id.eq." + targetId + "),and(from_id.eq." + targetId + ",to_id.eq." + currentUserId + "))&select=from_id,status");
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        try {
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return "none";
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return "none";
-            var arr = parsed.getAsJsonArray();
-            if (arr.isEmpty()) return "none";
-            for (JsonElement el : arr) {
-                if (el != null && el.isJsonObject()) {
-                    String status = asString(el.getAsJsonObject().get("status"));
-                    if ("accepted".equalsIgnoreCase(status)) return "accepted";
-                    if ("pending".equalsIgnoreCase(status)) return "pending";
-                }
-            }
-            return "none";
-        } catch (ApiException e) {
-            return "none";
+        return socialGraph().friendStatus(targetId);
+    }
+
+    /**
+     * Follow and friend request state for many users at once, answered from the social graph (which is
+     * loaded with one follows and one friend_requests query on first use). Every requested id gets an entry.
+     */
+    public Map<String, RelationshipStatus> getRelationshipStatuses(Collection<String> targetIds) throws ApiException {
+        Map<String, RelationshipStatus> result = new HashMap<>();
+        if (targetIds == null || targetIds.isEmpty()) return result;
+        SocialGraph graph = currentUserId != null && !currentUserId.isBlank() ? socialGraph() : null;
+        for (String id : targetIds) {
+            if (id == null || id.isBlank()) continue;
+            boolean other = graph != null && !id.equals(currentUserId);
+            result.put(id, other ? new RelationshipStatus(graph.isFollowing(id), graph.friendStatus(id)) : new RelationshipStatus());
         }
+        return result;
     }
 
     /**
@@ -979,6 +1230,11 @@ public final class ApiService {
      */
     public String getFriendRequestId(String targetId) throws ApiException {
         if (targetId == null || targetId.isBlank() || currentUserId == null || currentUserId.isBlank()) return null;
+        SocialGraph graph = socialGraph();
+        if ("none".equals(graph.friendStatus(targetId))) return null;
+        String known = graph.requestId(targetId);
+        if (known != null) return known;
+        // Sent from this client and not yet echoed by Realtime: look it up.
         String url = restUrl("/friend_requests?or=(and(from_id.eq." + currentUserId + ",to_id.eq." + targetId + "),and(from_id.eq." + targetId + ",to_id.eq." + currentUserId + "))&select=id,status");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
@@ -1004,24 +1260,10 @@ public final class ApiService {
         String url = restUrl("/friend_requests?to_id=eq." + currentUserId + "&status=eq.pending&order=created_at.desc&select=id,from_id,to_id,status,created_at");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return Collections.emptyList();
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<FriendRequest> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    FriendRequest fr = new FriendRequest();
-                    fr.setId(asString(o.get("id")));
-                    fr.setFromId(asString(o.get("from_id")));
-                    fr.setToId(asString(o.get("to_id")));
-                    fr.setStatus(asString(o.get("status")));
-                    fr.setCreatedAt(asString(o.get("created_at")));
-                    UserProfile p = getProfile(fr.getFromId());
-                    fr.setFromName(p != null && p.getFullName() != null ? p.getFullName() : "Someone");
-                    list.add(fr);
-                }
+            List<FriendRequest> list = ModelAdapters.readList(getRawWithAuth(url, token), FriendRequest.class);
+            for (FriendRequest fr : list) {
+                UserProfile p = getProfile(fr.getFromId());
+                fr.setFromName(p != null && p.getFullName() != null ? p.getFullName() : "Someone");
             }
             return list;
         } catch (ApiException e) {
@@ -1044,6 +1286,7 @@ public final class ApiService {
         String url = restUrl("/friend_requests?id=eq." + requestId + "&to_id=eq." + currentUserId);
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         patchJsonWithAuth(url, payload, token);
+        socialGraph.requestAccepted(requestId);
     }
 
     /**
@@ -1051,34 +1294,7 @@ public final class ApiService {
      */
     public List<UserProfile> getFriends() throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) return Collections.emptyList();
-        String url = restUrl("/friend_requests?or=(from_id.eq." + currentUserId + ",to_id.eq." + currentUserId + ")&status=eq.accepted&select=from_id,to_id");
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        try {
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return Collections.emptyList();
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<String> friendIds = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    String from = asString(o.get("from_id"));
-                    String to = asString(o.get("to_id"));
-                    String other = from != null && from.equals(currentUserId) ? to : from;
-                    if (other != null && !other.isBlank() && !friendIds.contains(other)) friendIds.add(other);
-                }
-            }
-            List<UserProfile> friends = new ArrayList<>();
-            for (String fid : friendIds) {
-                UserProfile p = getProfile(fid);
-                if (p != null) friends.add(p);
-            }
-            return friends;
-        } catch (ApiException e) { throw e; }
-        catch (Exception e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
-            return Collections.emptyList();
-        }
+        return getProfiles(socialGraph().friendIds());
     }
 
     /**
@@ -1090,25 +1306,9 @@ public final class ApiService {
         }
         String url = restUrl("/friend_requests?or=(and(from_id.eq." + currentUserId + ",to_id.eq." + friendId + ",status.eq.accepted),and(from_id.eq." + friendId + ",to_id.eq." + currentUserId + ",status.eq.accepted))");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        try {
-            // First, get the friend request record ID
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return;
-            var parsed = JsonParser.parseString(body);
-            if (parsed != null && parsed.isJsonArray()) {
-                var arr = parsed.getAsJsonArray();
-                if (arr.size() > 0) {
-                    String requestId = arr.get(0).getAsJsonObject().get("id").getAsString();
-                    // Delete the friend request
-                    String deleteUrl = restUrl("/friend_requests?id=eq." + requestId);
-                    deleteWithAuth(deleteUrl, token);
-                }
-            }
-        } catch (ApiException e) { throw e; }
-        catch (Exception e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
-            throw new ApiException(-1, "Remove friend failed: " + e.getMessage(), null, null, null);
-        }
+        // The accepted request is matched by the filter itself, so no lookup of its id is needed.
+        deleteWithAuth(url, token);
+        socialGraph.friendRemoved(friendId);
     }
 
     /**
@@ -1119,25 +1319,7 @@ public final class ApiService {
         String url = restUrl("/messages?or=(and(sender_id.eq." + currentUserId + ",receiver_id.eq." + partnerId + "),and(sender_id.eq." + partnerId + ",receiver_id.eq." + currentUserId + "))&order=created_at.asc");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return Collections.emptyList();
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<Message> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    Message m = new Message();
-                    m.setId(asString(o.get("id")));
-                    m.setSenderId(asString(o.get("sender_id")));
-                    m.setReceiverId(asString(o.get("receiver_id")));
-                    m.setContent(asString(o.get("content")));
-                    m.setImageUrl(asString(o.get("image_url")));
-                    m.setCreatedAt(asString(o.get("created_at")));
-                    list.add(m);
-                }
-            }
-            return list;
+            return getListWithAuth(url, token, Message.class);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1148,7 +1330,7 @@ public final class ApiService {
     /**
      * Sends a message to another user.
      */
-    public void sendMessage(String receiverId, String content, String imageUrl) throws ApiException {
+    public CompletableFuture<Void> sendMessage(String receiverId, String content, String imageUrl) throws ApiException {
         if (receiverId == null || receiverId.isBlank() || currentUserId == null || currentUserId.isBlank()) {
             throw new ApiException(-1, "Invalid request", null, null, null);
         }
@@ -1162,8 +1344,7 @@ public final class ApiService {
         payload.addProperty("receiver_id", receiverId);
         payload.addProperty("content", content != null ? content : "");
         if (hasImage) payload.addProperty("image_url", imageUrl);
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        postJsonWithAuth(restUrl("/messages"), payload, token);
+        return enqueueInsert("/messages", payload);
     }
 
     public void sendMessage(String receiverId, String content) throws ApiException {
@@ -1214,7 +1395,8 @@ public final class ApiService {
         if (callId == null || callId.isBlank()) return null;
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         String body = getRawWithAuth(restUrl("/calls?id=eq." + encodeQueryValue(callId)), token);
-        return parseSingleCall(body);
+        List<CallRecord> rows = parseList(body, CallRecord.class);
+        return rows.isEmpty() ? null : rows.get(0);
     }
 
     /**
@@ -1227,25 +1409,7 @@ public final class ApiService {
         try {
             String url = restUrl("/calls?or=(and(caller_id.eq." + userId1 + ",receiver_id.eq." + userId2 + "),and(caller_id.eq." + userId2 + ",receiver_id.eq." + userId1 + "))&order=created_at.desc");
             String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-            String body = getRawWithAuth(url, token);
-            if (body == null || body.isBlank()) return Collections.emptyList();
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<CallRecord> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    CallRecord call = new CallRecord();
-                    call.setId(asString(o.get("id")));
-                    call.setCallerId(asString(o.get("caller_id")));
-                    call.setReceiverId(asString(o.get("receiver_id")));
-                    call.setStatus(asString(o.get("status")));
-                    call.setChannelName(asString(o.get("channel_name")));
-                    call.setCreatedAt(asString(o.get("created_at")));
-                    list.add(call);
-                }
-            }
-            return list;
+            return parseList(getRawWithAuth(url, token), CallRecord.class);
         } catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
             return Collections.emptyList();
@@ -1278,7 +1442,7 @@ public final class ApiService {
             if (body == null || body.isBlank()) return Collections.emptyList();
             var parsed = JsonParser.parseString(body);
             if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            Set<String> partnerIds = new HashSet<>();
+            Set<String> partnerIds = new LinkedHashSet<>();
             for (JsonElement el : parsed.getAsJsonArray()) {
                 if (el != null && el.isJsonObject()) {
                     JsonObject o = el.getAsJsonObject();
@@ -1288,12 +1452,7 @@ public final class ApiService {
                     if (receiver != null && !receiver.equals(currentUserId)) partnerIds.add(receiver);
                 }
             }
-            List<UserProfile> partners = new ArrayList<>();
-            for (String pid : partnerIds) {
-                UserProfile p = getProfile(pid);
-                if (p != null) partners.add(p);
-            }
-            return partners;
+            return getProfiles(partnerIds);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1320,6 +1479,7 @@ public final class ApiService {
         String url = restUrl("/friend_requests?id=eq." + requestId + "&to_id=eq." + currentUserId);
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         deleteWithAuth(url, token);
+        socialGraph.requestRemoved(requestId);
     }
 
     /**
@@ -1334,7 +1494,7 @@ public final class ApiService {
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
             String body = getRawWithAuth(restUrl(url.toString()), token);
-            return parseMarketplaceItems(body);
+            return parseList(body, MarketplaceItem.class);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1342,7 +1502,7 @@ public final class ApiService {
         }
     }
 
-    public void createMarketplaceItem(String title, String description, String price, String condition, String category) throws ApiException {
+    public CompletableFuture<Void> createMarketplaceItem(String title, String description, String price, String condition, String category) throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) throw new ApiException(-1, "Not logged in", null, null, null);
         UserProfile p = getProfile(currentUserId);
         String userName = p != null && p.getFullName() != null ? p.getFullName() : "Anonymous";
@@ -1354,33 +1514,7 @@ public final class ApiService {
         payload.addProperty("price", price != null ? price : "");
         payload.addProperty("condition", condition != null ? condition : "");
         payload.addProperty("category", category != null ? category : "");
-        postJsonWithAuth(restUrl("/marketplace_items"), payload, accessToken != null ? accessToken : SupabaseConfig.getAnonKey());
-    }
-
-    private List<MarketplaceItem> parseMarketplaceItems(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<MarketplaceItem> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    MarketplaceItem m = new MarketplaceItem();
-                    m.setId(asString(o.get("id")));
-                    m.setUserId(asString(o.get("user_id")));
-                    m.setUserName(asString(o.get("user_name")));
-                    m.setTitle(asString(o.get("title")));
-                    m.setDescription(asString(o.get("description")));
-                    m.setPrice(asString(o.get("price")));
-                    m.setCondition(asString(o.get("condition")));
-                    m.setCategory(asString(o.get("category")));
-                    m.setCreatedAt(asString(o.get("created_at")));
-                    list.add(m);
-                }
-            }
-            return list;
-        } catch (Exception e) { return Collections.emptyList(); }
+        return enqueueInsert("/marketplace_items", payload);
     }
 
     /**
@@ -1392,7 +1526,7 @@ public final class ApiService {
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
             String body = getRawWithAuth(restUrl(url.toString()), token);
-            return parseLostFoundItems(body);
+            return parseList(body, LostFoundItem.class);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1400,7 +1534,7 @@ public final class ApiService {
         }
     }
 
-    public void createLostFoundItem(String type, String title, String description, String location) throws ApiException {
+    public CompletableFuture<Void> createLostFoundItem(String type, String title, String description, String location) throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) throw new ApiException(-1, "Not logged in", null, null, null);
         UserProfile p = getProfile(currentUserId);
         String userName = p != null && p.getFullName() != null ? p.getFullName() : "Anonymous";
@@ -1411,32 +1545,7 @@ public final class ApiService {
         payload.addProperty("title", title != null ? title : "");
         payload.addProperty("description", description != null ? description : "");
         payload.addProperty("location", location != null ? location : "");
-        postJsonWithAuth(restUrl("/lost_found"), payload, accessToken != null ? accessToken : SupabaseConfig.getAnonKey());
-    }
-
-    private List<LostFoundItem> parseLostFoundItems(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<LostFoundItem> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    LostFoundItem l = new LostFoundItem();
-                    l.setId(asString(o.get("id")));
-                    l.setUserId(asString(o.get("user_id")));
-                    l.setUserName(asString(o.get("user_name")));
-                    l.setType(asString(o.get("type")));
-                    l.setTitle(asString(o.get("title")));
-                    l.setDescription(asString(o.get("description")));
-                    l.setLocation(asString(o.get("location")));
-                    l.setCreatedAt(asString(o.get("created_at")));
-                    list.add(l);
-                }
-            }
-            return list;
-        } catch (Exception e) { return Collections.emptyList(); }
+        return enqueueInsert("/lost_found", payload);
     }
 
     // ----- Course Resources -----
@@ -1446,8 +1555,8 @@ public final class ApiService {
         if (semester != null && !semester.isBlank()) url.append("&semester=ilike.*").append(encode(semester)).append("*");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
-            String body = getRawWithAuth(restUrl(url.toString()), token);
-            return parseCourseResources(body);
+            String body = getCachedWithAuth(restUrl(url.toString()), token);
+            return parseList(body, CourseResource.class);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1455,7 +1564,7 @@ public final class ApiService {
         }
     }
 
-    public void createCourseResource(String title, String driveLink, String department, String semester) throws ApiException {
+    public CompletableFuture<Void> createCourseResource(String title, String driveLink, String department, String semester) throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) throw new ApiException(-1, "Not logged in", null, null, null);
         UserProfile p = getProfile(currentUserId);
         String userName = p != null && p.getFullName() != null ? p.getFullName() : "Anonymous";
@@ -1466,32 +1575,8 @@ public final class ApiService {
         payload.addProperty("drive_link", driveLink != null ? driveLink : "");
         payload.addProperty("department", department != null ? department : "");
         payload.addProperty("semester", semester != null ? semester : "");
-        postJsonWithAuth(restUrl("/course_resources"), payload, accessToken != null ? accessToken : SupabaseConfig.getAnonKey());
-    }
-
-    private List<CourseResource> parseCourseResources(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<CourseResource> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    CourseResource r = new CourseResource();
-                    r.setId(asString(o.get("id")));
-                    r.setUserId(asString(o.get("user_id")));
-                    r.setUserName(asString(o.get("user_name")));
-                    r.setTitle(asString(o.get("title")));
-                    r.setDriveLink(asString(o.get("drive_link")));
-                    r.setDepartment(asString(o.get("department")));
-                    r.setSemester(asString(o.get("semester")));
-                    r.setCreatedAt(asString(o.get("created_at")));
-                    list.add(r);
-                }
-            }
-            return list;
-        } catch (Exception e) { return Collections.emptyList(); }
+        return enqueueInsert("/course_resources", payload)
+            .thenRun(() -> invalidateCached("/course_resources"));
     }
 
     // ----- Confessions -----
@@ -1500,7 +1585,7 @@ public final class ApiService {
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
             String body = getRawWithAuth(url, token);
-            return parseConfessions(body);
+            return parseList(body, Confession.class);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1508,32 +1593,12 @@ public final class ApiService {
         }
     }
 
-    public void createConfession(String content) throws ApiException {
+    public CompletableFuture<Void> createConfession(String content) throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) throw new ApiException(-1, "Not logged in", null, null, null);
         JsonObject payload = new JsonObject();
         payload.addProperty("user_id", currentUserId);
         payload.addProperty("content", content != null ? content : "");
-        postJsonWithAuth(restUrl("/confessions"), payload, accessToken != null ? accessToken : SupabaseConfig.getAnonKey());
-    }
-
-    private List<Confession> parseConfessions(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<Confession> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    Confession c = new Confession();
-                    c.setId(asString(o.get("id")));
-                    c.setContent(asString(o.get("content")));
-                    c.setCreatedAt(asString(o.get("created_at")));
-                    list.add(c);
-                }
-            }
-            return list;
-        } catch (Exception e) { return Collections.emptyList(); }
+        return enqueueInsert("/confessions", payload);
     }
 
     // ----- Campus Events -----
@@ -1541,8 +1606,8 @@ public final class ApiService {
         String url = restUrl("/campus_events?order=event_date.asc");
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
-            String body = getRawWithAuth(url, token);
-            List<CampusEvent> events = parseCampusEvents(body);
+            String body = getCachedWithAuth(url, token);
+            List<CampusEvent> events = parseList(body, CampusEvent.class);
             if (currentUserId != null && !currentUserId.isBlank() && !events.isEmpty()) {
                 List<String> eventIds = new ArrayList<>();
                 for (CampusEvent e : events) eventIds.add(e.getId());
@@ -1571,7 +1636,7 @@ public final class ApiService {
         }
     }
 
-    public void createCampusEvent(String title, String description, String eventDate, String venue) throws ApiException {
+    public CompletableFuture<Void> createCampusEvent(String title, String description, String eventDate, String venue) throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) throw new ApiException(-1, "Not logged in", null, null, null);
         JsonObject payload = new JsonObject();
         payload.addProperty("user_id", currentUserId);
@@ -1579,77 +1644,31 @@ public final class ApiService {
         payload.addProperty("description", description != null ? description : "");
         payload.addProperty("event_date", eventDate != null ? eventDate : "");
         payload.addProperty("venue", venue != null ? venue : "");
-        postJsonWithAuth(restUrl("/campus_events"), payload, accessToken != null ? accessToken : SupabaseConfig.getAnonKey());
+        return enqueueInsert("/campus_events", payload)
+            .thenRun(() -> invalidateCached("/campus_events"));
     }
 
-    public void toggleEventInterest(String eventId) throws ApiException {
-        if (currentUserId == null || currentUserId.isBlank() || eventId == null || eventId.isBlank()) return;
-        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
-        String checkUrl = restUrl("/event_interests?event_id=eq." + eventId + "&user_id=eq." + currentUserId);
-        String body = getRawWithAuth(checkUrl, token);
-        boolean exists = body != null && !body.isBlank();
-        try {
-            var parsed = body != null ? JsonParser.parseString(body) : null;
-            exists = parsed != null && parsed.isJsonArray() && parsed.getAsJsonArray().size() > 0;
-        } catch (Exception ignored) {}
-        if (exists) {
-            deleteWithAuth(restUrl("/event_interests?event_id=eq." + eventId + "&user_id=eq." + currentUserId), token);
-            String eventsUrl = restUrl("/campus_events?id=eq." + eventId);
-            JsonObject dec = new JsonObject();
-            dec.addProperty("interested_count", -1);
-            try {
-                String evBody = getRawWithAuth(eventsUrl + "&select=interested_count", token);
-                if (evBody != null && !evBody.isBlank()) {
-                    var arr = JsonParser.parseString(evBody).getAsJsonArray();
-                    if (arr.size() > 0) {
-                        int cur = arr.get(0).getAsJsonObject().get("interested_count").getAsInt();
-                        dec.addProperty("interested_count", Math.max(0, cur - 1));
-                    }
-                }
-            } catch (Exception ignored) {}
-            patchJsonWithAuth(eventsUrl, dec, token);
-        } else {
-            JsonObject payload = new JsonObject();
-            payload.addProperty("event_id", eventId);
-            payload.addProperty("user_id", currentUserId);
-            postJsonWithAuth(restUrl("/event_interests"), payload, token);
-            String eventsUrl = restUrl("/campus_events?id=eq." + eventId);
-            String evBody = getRawWithAuth(eventsUrl + "&select=interested_count", token);
-            int cur = 0;
-            try {
-                if (evBody != null && !evBody.isBlank()) {
-                    var arr = JsonParser.parseString(evBody).getAsJsonArray();
-                    if (arr.size() > 0) cur = arr.get(0).getAsJsonObject().get("interested_count").getAsInt();
-                }
-            } catch (Exception ignored) {}
-            JsonObject inc = new JsonObject();
-            inc.addProperty("interested_count", cur + 1);
-            patchJsonWithAuth(eventsUrl, inc, token);
+    /**
+     * Toggles the current user's interest in an event with one call to the toggle_event_interest RPC
+     * (db/event_interest_rpc.sql), which updates the interest row and the counter atomically.
+     * Returns a detached CampusEvent carrying only the id, new interestedCount and userInterested.
+     */
+    public CampusEvent toggleEventInterest(String eventId) throws ApiException {
+        if (currentUserId == null || currentUserId.isBlank() || eventId == null || eventId.isBlank()) {
+            throw new ApiException(-1, "Invalid request", null, null, null);
         }
-    }
-
-    private List<CampusEvent> parseCampusEvents(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<CampusEvent> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    CampusEvent e = new CampusEvent();
-                    e.setId(asString(o.get("id")));
-                    e.setTitle(asString(o.get("title")));
-                    e.setDescription(asString(o.get("description")));
-                    e.setEventDate(asString(o.get("event_date")));
-                    e.setVenue(asString(o.get("venue")));
-                    e.setInterestedCount(o.has("interested_count") && !o.get("interested_count").isJsonNull() ? o.get("interested_count").getAsInt() : 0);
-                    e.setCreatedAt(asString(o.get("created_at")));
-                    list.add(e);
-                }
-            }
-            return list;
-        } catch (Exception e) { return Collections.emptyList(); }
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        JsonObject args = new JsonObject();
+        args.addProperty("p_event_id", eventId);
+        JsonElement result = rpcWithAuth("toggle_event_interest", args, token);
+        JsonObject obj = result != null && result.isJsonObject() ? result.getAsJsonObject() : new JsonObject();
+        CampusEvent state = new CampusEvent();
+        state.setId(eventId);
+        Long count = asLong(obj.get("interested_count"));
+        state.setInterestedCount(count != null ? count.intValue() : 0);
+        state.setUserInterested("true".equals(asString(obj.get("interested"))));
+        invalidateCached("/campus_events");
+        return state;
     }
 
     // ----- Study Partner -----
@@ -1658,7 +1677,7 @@ public final class ApiService {
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
             String body = getRawWithAuth(url, token);
-            return parseStudyPartnerPosts(body);
+            return parseList(body, StudyPartnerPost.class);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1666,7 +1685,7 @@ public final class ApiService {
         }
     }
 
-    public void createStudyPartnerPost(String subject, String description) throws ApiException {
+    public CompletableFuture<Void> createStudyPartnerPost(String subject, String description) throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) throw new ApiException(-1, "Not logged in", null, null, null);
         UserProfile p = getProfile(currentUserId);
         String userName = p != null && p.getFullName() != null ? p.getFullName() : "Anonymous";
@@ -1675,30 +1694,7 @@ public final class ApiService {
         payload.addProperty("user_name", userName);
         payload.addProperty("subject", subject != null ? subject : "");
         payload.addProperty("description", description != null ? description : "");
-        postJsonWithAuth(restUrl("/study_partner_posts"), payload, accessToken != null ? accessToken : SupabaseConfig.getAnonKey());
-    }
-
-    private List<StudyPartnerPost> parseStudyPartnerPosts(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<StudyPartnerPost> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    StudyPartnerPost s = new StudyPartnerPost();
-                    s.setId(asString(o.get("id")));
-                    s.setUserId(asString(o.get("user_id")));
-                    s.setUserName(asString(o.get("user_name")));
-                    s.setSubject(asString(o.get("subject")));
-                    s.setDescription(asString(o.get("description")));
-                    s.setCreatedAt(asString(o.get("created_at")));
-                    list.add(s);
-                }
-            }
-            return list;
-        } catch (Exception e) { return Collections.emptyList(); }
+        return enqueueInsert("/study_partner_posts", payload);
     }
 
     // ----- Faculty -----
@@ -1710,8 +1706,8 @@ public final class ApiService {
         }
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
-            String body = getRawWithAuth(restUrl(url.toString()), token);
-            return parseFaculty(body);
+            String body = getCachedWithAuth(restUrl(url.toString()), token);
+            return parseList(body, Faculty.class);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1725,7 +1721,7 @@ public final class ApiService {
         String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
         try {
             String body = getRawWithAuth(url, token);
-            return parseFacultyFeedback(body);
+            return parseList(body, FacultyFeedback.class);
         } catch (ApiException e) { throw e; }
         catch (Exception e) {
             if (e instanceof InterruptedException) Thread.currentThread().interrupt();
@@ -1733,58 +1729,14 @@ public final class ApiService {
         }
     }
 
-    public void createFacultyFeedback(String facultyId, Integer rating, String feedback) throws ApiException {
+    public CompletableFuture<Void> createFacultyFeedback(String facultyId, Integer rating, String feedback) throws ApiException {
         if (currentUserId == null || currentUserId.isBlank()) throw new ApiException(-1, "Not logged in", null, null, null);
         JsonObject payload = new JsonObject();
         payload.addProperty("faculty_id", facultyId);
         payload.addProperty("user_id", currentUserId);
         if (rating != null) payload.addProperty("rating", rating);
         payload.addProperty("feedback", feedback != null ? feedback : "");
-        postJsonWithAuth(restUrl("/faculty_feedback"), payload, accessToken != null ? accessToken : SupabaseConfig.getAnonKey());
-    }
-
-    private List<Faculty> parseFaculty(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<Faculty> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    Faculty f = new Faculty();
-                    f.setId(asString(o.get("id")));
-                    f.setName(asString(o.get("name")));
-                    f.setDepartment(asString(o.get("department")));
-                    f.setEmail(asString(o.get("email")));
-                    list.add(f);
-                }
-            }
-            return list;
-        } catch (Exception e) { return Collections.emptyList(); }
-    }
-
-    private List<FacultyFeedback> parseFacultyFeedback(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<FacultyFeedback> list = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    FacultyFeedback f = new FacultyFeedback();
-                    f.setId(asString(o.get("id")));
-                    f.setFacultyId(asString(o.get("faculty_id")));
-                    f.setUserId(asString(o.get("user_id")));
-                    f.setRating(o.has("rating") && !o.get("rating").isJsonNull() ? o.get("rating").getAsInt() : null);
-                    f.setFeedback(asString(o.get("feedback")));
-                    f.setCreatedAt(asString(o.get("created_at")));
-                    list.add(f);
-                }
-            }
-            return list;
-        } catch (Exception e) { return Collections.emptyList(); }
+        return enqueueInsert("/faculty_feedback", payload);
     }
 
     /**
@@ -1840,7 +1792,36 @@ public final class ApiService {
         }
     }
 
-    private void upsertJsonWithAuth(String url, JsonObject payload, String bearerToken) throws ApiException {
+    /**
+     * Calls a Postgres function through /rest/v1/rpc and returns its parsed JSON result (null if empty).
+     */
+    private JsonElement rpcWithAuth(String function, JsonObject args, String bearerToken) throws ApiException {
+        String url = restUrl("/rpc/" + function);
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("apikey", SupabaseConfig.getAnonKey())
+                .header("Authorization", "Bearer " + bearerToken)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(args), StandardCharsets.UTF_8))
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new ApiException(response.statusCode(), "RPC failed", null, null, response.body());
+            }
+            String body = response.body();
+            return body != null && !body.isBlank() ? JsonParser.parseString(body) : null;
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new ApiException(-1, "RPC failed: " + e.getMessage(), null, null, null);
+        }
+    }
+
+    private void upsertJsonWithAuth(String url, JsonObject payload, String bearerToken, String resolution) throws ApiException {
         try {
             String anonKey = SupabaseConfig.getAnonKey();
             String body = gson.toJson(payload);
@@ -1851,7 +1832,7 @@ public final class ApiService {
                 .header("Authorization", "Bearer " + bearerToken)
                 .header("Content-Type", "application/json")
                 .header("Accept", "application/json")
-                .header("Prefer", "resolution=merge-duplicates,return=minimal")
+                .header("Prefer", "resolution=" + resolution + ",return=minimal")
                 .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
                 .build();
             HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
@@ -1894,46 +1875,83 @@ public final class ApiService {
 
     private List<Post> getPostsWithAuth(String url, String bearerToken) throws ApiException {
         try {
-            String anonKey = SupabaseConfig.getAnonKey();
-            HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(REQUEST_TIMEOUT)
-                .header("apikey", anonKey)
-                .header("Authorization", "Bearer " + bearerToken)
-                .header("Accept", "application/json")
-                .GET()
-                .build();
+            return getListWithAuth(url, bearerToken, Post.class);
+        } catch (ApiException e) {
+            if (e.getStatusCode() > 0) return new ArrayList<>();
+            throw new ApiException(-1, "Posts fetch failed: " + e.getMessage(), null, null, null);
+        }
+    }
 
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-            int status = response.statusCode();
-            String body = response.body();
+    /**
+     * GET that maps a JSON array straight from the response stream into model objects.
+     */
+    private <T> List<T> getListWithAuth(String url, String bearerToken, Class<T> type) throws ApiException {
+        try {
+            HttpResponse<InputStream> response = client.send(listRequest(url, bearerToken), HttpResponse.BodyHandlers.ofInputStream());
+            return readListResponse(url, response, type);
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new ApiException(-1, "Request failed: " + e.getMessage(), null, null, null);
+        }
+    }
 
-            if (status >= 200 && status < 300 && body != null && !body.isBlank()) {
-                var parsed = JsonParser.parseString(body);
-                if (parsed != null && parsed.isJsonArray()) {
-                    var arr = parsed.getAsJsonArray();
-                    List<Post> posts = new ArrayList<>();
-                    for (JsonElement el : arr) {
-                        if (el != null && el.isJsonObject()) {
-                            JsonObject obj = el.getAsJsonObject();
-                            Post p = new Post();
-                            p.setId(asLong(obj.get("id")));
-                            p.setUserId(asString(obj.get("user_id")));
-                            p.setUserName(asString(obj.get("user_name")));
-                            p.setContent(asString(obj.get("content")));
-                            p.setUniversity(asString(obj.get("university")));
-                            p.setCreatedAt(asString(obj.get("created_at")));
-                            p.setImageUrl(asString(obj.get("image_url")));
-                            posts.add(p);
-                        }
-                    }
-                    return posts;
+    private <T> CompletableFuture<List<T>> getListWithAuthAsync(String url, String bearerToken, Class<T> type, String... extraHeaders) {
+        HttpRequest request;
+        try {
+            request = listRequest(url, bearerToken, extraHeaders);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new ApiException(-1, "Request failed: " + e.getMessage(), null, null, null));
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+            .handleAsync((response, error) -> {
+                if (error != null) {
+                    throw new CompletionException(unwrap(error));
+                }
+                try {
+                    return readListResponse(url, response, type);
+                } catch (ApiException e) {
+                    throw new CompletionException(e);
+                } catch (Exception e) {
+                    throw new CompletionException(new ApiException(-1, "Request failed: " + e.getMessage(), null, null, null));
                 }
+            }, PARSE_EXECUTOR);
+    }
+
+    private static HttpRequest listRequest(String url, String bearerToken, String... extraHeaders) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .timeout(REQUEST_TIMEOUT)
+            .header("apikey", SupabaseConfig.getAnonKey())
+            .header("Authorization", "Bearer " + bearerToken)
+            .header("Accept", "application/json")
+            .GET();
+        if (extraHeaders.length > 0) builder.headers(extraHeaders);
+        return builder.build();
+    }
+
+    private static <T> List<T> readListResponse(String url, HttpResponse<InputStream> response, Class<T> type)
+            throws ApiException, IOException {
+        int status = response.statusCode();
+        try (InputStream in = response.body()) {
+            if (status < 200 || status >= 300) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                logApiError("GET", url, null, status, body);
+                throw new ApiException(status, "HTTP " + status, null, null, body);
             }
-            return Collections.emptyList();
+            return ModelAdapters.readList(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)), type);
+        }
+    }
+
+    /**
+     * Maps a buffered JSON array body through the model adapters; malformed bodies yield an empty list.
+     */
+    private static <T> List<T> parseList(String body, Class<T> type) {
+        try {
+            return ModelAdapters.readList(body, type);
         } catch (Exception e) {
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
-            throw new ApiException(-1, "Posts fetch failed: " + e.getMessage(), null, null, null);
+            return new ArrayList<>();
         }
     }
 
@@ -1947,7 +1965,103 @@ public final class ApiService {
         return base + "/rest/v1" + (path.startsWith("/") ? path : "/" + path);
     }
 
-    private void postJsonWithAuth(String url, JsonObject payload, String bearerToken) throws ApiException {
+    // ----- Social graph -----
+
+    /**
+     * Returns the signed-in user's social graph, loading it first if needed: the following ids and
+     * friend_requests rows are fetched concurrently, plus one follower count. The first load also
+     * subscribes to Realtime so the graph stays current.
+     */
+    private SocialGraph socialGraph() throws ApiException {
+        String user = currentUserId;
+        if (user == null || user.isBlank() || socialGraph.isLoadedFor(user)) return socialGraph;
+        synchronized (socialGraphLock) {
+            if (socialGraph.isLoadedFor(user)) return socialGraph;
+            String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+            CompletableFuture<String> follows = getRawWithAuthAsync(
+                restUrl("/follows?follower_id=eq." + user + "&select=following_id"), token);
+            CompletableFuture<String> requests = getRawWithAuthAsync(
+                restUrl("/friend_requests?or=(from_id.eq." + user + ",to_id.eq." + user + ")&status=in.(pending,accepted)"
+                    + "&select=id,from_id,to_id,status"), token);
+            int followers = getCountFromTable("follows", "following_id", user);
+            try {
+                List<String> following = parseFollowingIds(follows.join());
+                String body = requests.join();
+                JsonElement parsed = body != null && !body.isBlank() ? JsonParser.parseString(body) : null;
+                Iterable<JsonElement> rows = parsed != null && parsed.isJsonArray() ? parsed.getAsJsonArray() : List.of();
+                socialGraph.load(user, following, followers, rows);
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+            if (socialRealtime == null) {
+                socialRealtime = new SupabaseRealtimeService();
+                socialRealtime.setOnReconnect(socialGraph::expire);
+                socialRealtime.subscribeToRelationships(user, token, socialGraph::apply);
+            }
+            return socialGraph;
+        }
+    }
+
+    /**
+     * Following ids for the async feed: from the graph when loaded, otherwise one follows query.
+     */
+    private CompletableFuture<List<String>> followingIdsAsync(String bearerToken) throws ApiException {
+        if (socialGraph.isLoadedFor(currentUserId)) return CompletableFuture.completedFuture(socialGraph.followingIds());
+        String followsUrl = restUrl("/follows?follower_id=eq." + currentUserId + "&select=following_id");
+        return getRawWithAuthAsync(followsUrl, bearerToken).thenApply(ApiService::parseFollowingIds);
+    }
+
+    private void resetSocialGraph() {
+        synchronized (socialGraphLock) {
+            socialGraph.clear();
+            if (socialRealtime != null) {
+                socialRealtime.unsubscribe();
+                socialRealtime = null;
+            }
+        }
+    }
+
+    // ----- Outbox -----
+
+    /**
+     * Queues an insert for the signed-in user. Never blocks on the network; the future completes once the
+     * row is stored, or exceptionally if the server rejects it permanently.
+     */
+    private CompletableFuture<Void> enqueueInsert(String path, JsonObject row) throws ApiException {
+        if (currentUserId == null || currentUserId.isBlank()) {
+            throw new ApiException(-1, "Not logged in", null, null, null);
+        }
+        return outbox.enqueueInsert(currentUserId, path, row);
+    }
+
+    /**
+     * Outbox sender: POSTs with the current token, refreshing it once on 401.
+     */
+    private void postFromOutbox(String path, JsonElement body) throws ApiException {
+        String token = accessToken != null && !accessToken.isBlank() ? accessToken : SupabaseConfig.getAnonKey();
+        try {
+            postJsonWithAuth(restUrl(path), body, token);
+        } catch (ApiException e) {
+            if (e.getStatusCode() != 401) throw e;
+            boolean refreshed;
+            try {
+                refreshed = refreshAccessToken();
+            } catch (ApiException refreshFailure) {
+                refreshed = false;
+            }
+            if (!refreshed) throw e; // 401 stays retryable until the user signs in again
+            postJsonWithAuth(restUrl(path), body, accessToken);
+        }
+    }
+
+    private void invalidateCached(String path) {
+        try {
+            responseCache.invalidate(restUrl(path));
+        } catch (ApiException ignored) {
+        }
+    }
+
+    private void postJsonWithAuth(String url, JsonElement payload, String bearerToken) throws ApiException {
         String anonKey;
         try {
             anonKey = SupabaseConfig.getAnonKey();
@@ -2030,6 +2144,7 @@ public final class ApiService {
         JsonObject userJson = asObject(root.get("user"));
         if (userJson != null && userJson.has("id")) {
             currentUserId = userJson.get("id").getAsString();
+            outbox.wake();
         }
     }
 
@@ -2179,96 +2294,17 @@ public final class ApiService {
         return null;
     }
 
-    private List<CommunityRoom> parseCommunityRooms(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<CommunityRoom> rooms = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    rooms.add(new CommunityRoom(
-                        asString(o.get("id")),
-                        asString(o.get("name")),
-                        asString(o.get("description")),
-                        asString(o.get("scope_label")),
-                        o.has("member_count") && !o.get("member_count").isJsonNull() ? o.get("member_count").getAsInt() : 0,
-                        o.has("is_verified") && !o.get("is_verified").isJsonNull() && o.get("is_verified").getAsBoolean(),
-                        o.has("is_auto_joined") && !o.get("is_auto_joined").isJsonNull() && o.get("is_auto_joined").getAsBoolean(),
-                        o.has("is_custom") && !o.get("is_custom").isJsonNull() && o.get("is_custom").getAsBoolean(),
-                        asString(o.get("owner_user_id")),
-                        asString(o.get("university_key"))
-                    ));
-                }
-            }
-            return rooms;
-        } catch (Exception e) {
-            return Collections.emptyList();
-        }
-    }
-
-    private List<CommunityMessage> parseCommunityMessages(String body) {
-        if (body == null || body.isBlank()) return Collections.emptyList();
-        try {
-            var parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray()) return Collections.emptyList();
-            List<CommunityMessage> messages = new ArrayList<>();
-            for (JsonElement el : parsed.getAsJsonArray()) {
-                if (el != null && el.isJsonObject()) {
-                    JsonObject o = el.getAsJsonObject();
-                    messages.add(new CommunityMessage(
-                        asString(o.get("room_id")),
-                        asString(o.get("sender_id")),
-                        asString(o.get("sender_name")),
-                        asString(o.get("content")),
-                        asString(o.get("image_url")),
-                        asString(o.get("created_at"))
-                    ));
-                }
-            }
-            return messages;
-        } catch (Exception e) {
-            return Collections.emptyList();
-        }
-    }
-
     private static String encodeQueryValue(String value) {
         if (value == null) return "";
         return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
     }
 
-    private CallRecord parseSingleCall(String body) {
-        if (body == null || body.isBlank()) return null;
-        try {
-            JsonElement parsed = JsonParser.parseString(body);
-            if (parsed == null || !parsed.isJsonArray() || parsed.getAsJsonArray().isEmpty()) return null;
-            JsonObject o = parsed.getAsJsonArray().get(0).getAsJsonObject();
-            CallRecord call = new CallRecord();
-            call.setId(asString(o.get("id")));
-            call.setCallerId(asString(o.get("caller_id")));
-            call.setReceiverId(asString(o.get("receiver_id")));
-            call.setStatus(asString(o.get("status")));
-            call.setChannelName(asString(o.get("channel_name")));
-            call.setCreatedAt(asString(o.get("created_at")));
-            return call;
-        } catch (Exception e) {
-            return null;
-        }
-    }
     
     // Cache utility methods
-    private boolean isCacheValid(String key) {
-        Long timestamp = cacheTimestamp.get(key);
-        if (timestamp == null) return false;
-        return (System.currentTimeMillis() - timestamp) < CACHE_DURATION;
-    }
-    
     public void clearCache() {
         profileCache.clear();
-        followingCache.clear();
-        friendStatusCache.clear();
-        cacheTimestamp.clear();
+        responseCache.clear();
+        resetSocialGraph();
     }
     
     /**
@@ -2277,7 +2313,7 @@ public final class ApiService {
      * Important: This uses the existing notifications schema (user_id, type, actor_id, actor_name, post_id, created_at, read_at).
      * The "message" is stored in actor_name so it can be displayed without requiring schema changes.
      */
-    public void sendBloodRequestNotification(String recipientUserId, String message) throws ApiException {
+    public CompletableFuture<Void> sendBloodRequestNotification(String recipientUserId, String message) throws ApiException {
         if (recipientUserId == null || recipientUserId.isBlank() || message == null || message.isBlank()) {
             throw new ApiException(-1, "Invalid notification data", null, null, null);
         }
@@ -2296,6 +2332,6 @@ public final class ApiService {
         // Store full message (including contact) here for backwards compatibility with current schema.
         payload.addProperty("actor_name", message);
 
-        postJsonWithAuth(restUrl("/notifications"), payload, accessToken);
+        return enqueueInsert("/notifications", payload);
     }
 }
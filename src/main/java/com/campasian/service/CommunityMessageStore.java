@@ -0,0 +1,214 @@
+package com.campasian.service;
+
+import com.campasian.model.CommunityMessage;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-room cache of community messages, kept oldest first in (created_at, id) order.
+ * A refresh only asks the server for rows after the newest row a fetch has returned (not the newest cached
+ * row, which may have come from Realtime ahead of rows missed while the socket was down), and older history is
+ * read one page at a time before the oldest cached row as the user scrolls up.
+ * Rows are identified by id, so bulk inserts that share a created_at are neither skipped nor merged.
+ * One store belongs to one Community view; create it with {@code new}.
+ */
+public final class CommunityMessageStore {
+
+    public static final int PAGE_SIZE = 50;
+
+    /** Server order: created_at, then id. Rows without a parseable created_at (or id) sort last. */
+    public static final Comparator<CommunityMessage> ORDER = Comparator
+        .comparing((CommunityMessage m) -> instant(m.getCreatedAt()), Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(CommunityMessage::getId, Comparator.nullsLast(CommunityMessageStore::compareIds));
+
+    /** Reads pages of a room's messages from the server. */
+    interface Source {
+        List<CommunityMessage> after(String roomId, String createdAfter, String afterId) throws ApiException;
+
+        List<CommunityMessage> before(String roomId, String createdBefore, String beforeId, int limit) throws ApiException;
+    }
+
+    private final Source source;
+    /** Guarded by this. */
+    private final Map<String, Room> rooms = new HashMap<>();
+
+    public CommunityMessageStore() {
+        this(new Source() {
+            @Override
+            public List<CommunityMessage> after(String roomId, String createdAfter, String afterId) throws ApiException {
+                return ApiService.getInstance().getCommunityMessagesAfter(roomId, createdAfter, afterId);
+            }
+
+            @Override
+            public List<CommunityMessage> before(String roomId, String createdBefore, String beforeId, int limit) throws ApiException {
+                return ApiService.getInstance().getCommunityMessagesBefore(roomId, createdBefore, beforeId, limit);
+            }
+        });
+    }
+
+    CommunityMessageStore(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Messages cached for the room, oldest first.
+     */
+    public synchronized List<CommunityMessage> cached(String roomId) {
+        Room room = rooms.get(roomId);
+        return room != null ? new ArrayList<>(room.messages) : List.of();
+    }
+
+    /**
+     * Whether the server may hold messages older than the cached ones.
+     */
+    public synchronized boolean hasOlder(String roomId) {
+        Room room = rooms.get(roomId);
+        return room != null && room.hasOlder;
+    }
+
+    /**
+     * Fetches rows newer than the last one fetched, or the latest page if the room was never fetched.
+     * Returns the rows that were not cached before, oldest first.
+     */
+    public List<CommunityMessage> fetchNewer(String roomId) throws ApiException {
+        CommunityMessage cursor;
+        synchronized (this) {
+            Room room = rooms.get(roomId);
+            cursor = room != null ? room.fetchedThrough : null;
+        }
+        if (cursor == null || cursor.getCreatedAt() == null) {
+            return mergeLatest(roomId, source.before(roomId, null, null, PAGE_SIZE));
+        }
+        List<CommunityMessage> rows = source.after(roomId, cursor.getCreatedAt(), cursor.getId());
+        synchronized (this) {
+            return rooms.get(roomId).mergeFetched(rows);
+        }
+    }
+
+    /**
+     * Merges the latest page of a room; the first one loaded decides whether older history exists.
+     */
+    synchronized List<CommunityMessage> mergeLatest(String roomId, List<CommunityMessage> page) {
+        Room room = rooms.computeIfAbsent(roomId, k -> new Room());
+        if (!room.loaded) {
+            room.loaded = true;
+            room.hasOlder = page.size() >= PAGE_SIZE;
+        }
+        return room.mergeFetched(page);
+    }
+
+    /**
+     * Fetches the page before the oldest cached row. Returns the rows that were not cached before, oldest
+     * first; empty once the start of the room is reached.
+     */
+    public List<CommunityMessage> fetchOlder(String roomId) throws ApiException {
+        CommunityMessage oldest;
+        synchronized (this) {
+            Room room = rooms.get(roomId);
+            if (room == null || !room.hasOlder || room.messages.isEmpty()) return List.of();
+            oldest = room.messages.get(0);
+        }
+        List<CommunityMessage> page = source.before(roomId, oldest.getCreatedAt(), oldest.getId(), PAGE_SIZE);
+        synchronized (this) {
+            Room room = rooms.get(roomId);
+            room.hasOlder = page.size() >= PAGE_SIZE;
+            return room.merge(page);
+        }
+    }
+
+    /**
+     * Records a row delivered by Realtime. Returns false if it was already cached. Rooms that were never
+     * fetched are left alone, as their first fetch will include the row. Does not move the fetch cursor.
+     */
+    public synchronized boolean add(CommunityMessage message) {
+        Room room = message != null ? rooms.get(message.getRoomId()) : null;
+        if (room == null || !room.loaded) return message != null;
+        return !room.merge(List.of(message)).isEmpty();
+    }
+
+    /**
+     * Whether two rows are the same stored message: same id, or, when either has no id, the same created_at,
+     * sender and content.
+     */
+    public static boolean sameRow(CommunityMessage a, CommunityMessage b) {
+        if (a.getId() != null && b.getId() != null) return a.getId().equals(b.getId());
+        return contentKey(a).equals(contentKey(b));
+    }
+
+    /**
+     * created_at as an instant, or null if missing or unparseable (such rows sort last).
+     */
+    public static Instant instant(String createdAt) {
+        if (createdAt == null || createdAt.isBlank()) return null;
+        try {
+            return OffsetDateTime.parse(createdAt).toInstant();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static final class Room {
+        final List<CommunityMessage> messages = new ArrayList<>();
+        final Set<String> keys = new HashSet<>();
+        boolean loaded;
+        boolean hasOlder;
+        /** Newest row returned by a fetch; the next fetchNewer starts after it. */
+        CommunityMessage fetchedThrough;
+
+        /**
+         * Merges rows the server returned for a query that reached the newest end of the room, and advances
+         * the fetch cursor past them (including rows already cached from Realtime).
+         */
+        List<CommunityMessage> mergeFetched(List<CommunityMessage> rows) {
+            for (CommunityMessage row : rows) {
+                if (row != null && row.getCreatedAt() != null && (fetchedThrough == null || ORDER.compare(row, fetchedThrough) > 0)) {
+                    fetchedThrough = row;
+                }
+            }
+            return merge(rows);
+        }
+
+        /**
+         * Inserts the rows that are not cached yet in (created_at, id) order and returns them.
+         */
+        List<CommunityMessage> merge(List<CommunityMessage> rows) {
+            List<CommunityMessage> added = new ArrayList<>();
+            for (CommunityMessage row : rows) {
+                if (row == null || !keys.add(key(row))) continue;
+                int index = messages.size();
+                while (index > 0 && ORDER.compare(messages.get(index - 1), row) > 0) index--;
+                messages.add(index, row);
+                added.add(row);
+            }
+            return added;
+        }
+    }
+
+    private static String key(CommunityMessage m) {
+        return m.getId() != null ? "id:" + m.getId() : contentKey(m);
+    }
+
+    private static String contentKey(CommunityMessage m) {
+        Instant at = instant(m.getCreatedAt());
+        return (at != null ? at.toString() : m.getCreatedAt()) + '\u0000' + m.getSenderId() + '\u0000' + m.getContent();
+    }
+
+    /**
+     * Compares ids the way Postgres orders them: numerically for bigint ids, as text otherwise (uuid).
+     */
+    private static int compareIds(String a, String b) {
+        try {
+            return Long.compare(Long.parseLong(a), Long.parseLong(b));
+        } catch (NumberFormatException e) {
+            return a.compareTo(b);
+        }
+    }
+}
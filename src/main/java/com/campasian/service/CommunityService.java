@@ -1,13 +1,16 @@
 package com.campasian.service;
 
-import com.campasian.model.CommunityMessage;
+import com.campasian.model.CommunityMemberCounts;
 import com.campasian.model.CommunityRoom;
 import com.campasian.model.UserProfile;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Supabase-backed community room service.
@@ -27,34 +30,41 @@ public final class CommunityService {
         String universityKey = normalizeUniversity(universityName);
         if (universityKey.isBlank()) return;
 
-        upsertBuiltInRooms(universityName, department, universityKey, 1, 1);
+        syncBuiltInRooms(universityName, department, universityKey, null);
     }
 
-    public List<CommunityRoom> buildCommunities(UserProfile currentUser, List<UserProfile> allProfiles) throws ApiException {
+    /**
+     * Rooms of the user's university in display order. Member counts are computed by the server
+     * (community_member_counts RPC) and built-in rooms are only written when missing or when their count
+     * changed, so a refresh costs one RPC and one (cached) room query regardless of the number of students.
+     */
+    public List<CommunityRoom> buildCommunities(UserProfile currentUser) throws ApiException {
         if (currentUser == null) return List.of();
 
         String universityName = safeName(currentUser.getUniversityName());
         String universityKey = normalizeUniversity(universityName);
         if (universityKey.isBlank()) return List.of();
 
-        List<UserProfile> sameUniversity = allProfiles == null ? List.of() : allProfiles.stream()
-            .filter(profile -> isSameUniversity(currentUser, profile))
-            .sorted(Comparator.comparing(profile -> safeName(profile.getFullName())))
-            .toList();
-
         String department = safeName(currentUser.getDepartment());
-        int universityCount = Math.max(sameUniversity.size(), 1);
-        int departmentCount = Math.max((int) sameUniversity.stream()
-            .filter(profile -> safeName(profile.getDepartment()).equalsIgnoreCase(department))
-            .count(), 1);
+        CommunityMemberCounts counts;
+        try {
+            counts = ApiService.getInstance().getCommunityMemberCounts(universityName, safeName(currentUser.getEinNumber()), department);
+        } catch (ApiException e) {
+            counts = null; // keep the stored counts; missing rooms are still created
+        }
 
-        upsertBuiltInRooms(universityName, department, universityKey, universityCount, departmentCount);
+        List<CommunityRoom> rooms = syncBuiltInRooms(universityName, department, universityKey, counts);
+        rooms.sort(roomOrder());
+        return rooms;
+    }
 
-        List<CommunityRoom> rooms = new ArrayList<>(ApiService.getInstance().getCommunityRooms(universityKey));
-        rooms.sort(Comparator
+    /**
+     * Display order of rooms: university hub, department, freshers, custom rooms, then by name.
+     */
+    public Comparator<CommunityRoom> roomOrder() {
+        return Comparator
             .comparingInt(this::roomPriority)
-            .thenComparing(CommunityRoom::getName, String.CASE_INSENSITIVE_ORDER));
-        return rooms;
+            .thenComparing(CommunityRoom::getName, String.CASE_INSENSITIVE_ORDER);
     }
 
     public CommunityRoom createCustomRoom(String currentUserId, String universityName, String roomName,
@@ -75,8 +85,7 @@ public final class CommunityService {
             universityKey
         );
         ApiService.getInstance().upsertCommunityRoom(room);
-        List<CommunityMessage> messages = ApiService.getInstance().getCommunityMessages(id);
-        if (messages.isEmpty()) {
+        if (!hasMessages(id)) {
             ApiService.getInstance().sendCommunityMessage(id, currentUserId, "Community Creator", "Custom community created. Start the discussion here.", null);
         }
         return room;
@@ -111,19 +120,45 @@ public final class CommunityService {
         return room != null && room.isCustom() && currentUserId != null && currentUserId.equals(room.getOwnerUserId());
     }
 
-    public List<CommunityMessage> getMessages(String roomId) throws ApiException {
-        return ApiService.getInstance().getCommunityMessages(roomId);
-    }
-
-    public CommunityMessage sendMessage(String roomId, String senderId, String senderName, String content, String imageUrl) throws ApiException {
+    public CompletableFuture<Void> sendMessage(String roomId, String senderId, String senderName, String content, String imageUrl) throws ApiException {
         return ApiService.getInstance().sendCommunityMessage(roomId, senderId, senderName, content, imageUrl);
     }
 
-    private void upsertBuiltInRooms(String universityName, String department, String universityKey,
-                                    int universityCount, int departmentCount) throws ApiException {
+    /**
+     * Upserts the built-in rooms that are missing from the university's rooms or whose member count differs
+     * from counts (null: only missing rooms, with a count of 1), and returns the resulting room list.
+     */
+    private List<CommunityRoom> syncBuiltInRooms(String universityName, String department, String universityKey,
+                                                 CommunityMemberCounts counts) throws ApiException {
         ApiService api = ApiService.getInstance();
+        List<CommunityRoom> rooms = new ArrayList<>(api.getCommunityRooms(universityKey));
+        Map<String, CommunityRoom> existing = new HashMap<>();
+        for (CommunityRoom room : rooms) {
+            existing.put(room.getId(), room);
+        }
+
+        for (BuiltInRoom builtIn : builtInRooms(universityName, department, universityKey, counts)) {
+            CommunityRoom current = existing.get(builtIn.room.getId());
+            if (current != null && (counts == null || current.getMemberCount() == builtIn.room.getMemberCount())) {
+                continue;
+            }
+            api.upsertCommunityRoom(builtIn.room);
+            if (current == null) {
+                ensureSeedMessage(builtIn.room.getId(), builtIn.seedSender, builtIn.seedContent);
+            }
+            rooms.remove(current);
+            rooms.add(builtIn.room);
+        }
+        return rooms;
+    }
+
+    private List<BuiltInRoom> builtInRooms(String universityName, String department, String universityKey,
+                                           CommunityMemberCounts counts) {
+        int universityCount = counts != null ? counts.getUniversityCount() : 1;
+        int departmentCount = counts != null ? counts.getDepartmentCount() : 1;
+        List<BuiltInRoom> rooms = new ArrayList<>();
 
-        api.upsertCommunityRoom(new CommunityRoom(
+        rooms.add(new BuiltInRoom(new CommunityRoom(
             roomId(universityKey, "general"),
             safeName(universityName) + " Community",
             "Messenger-style university room for announcements, study help, and cross-department discussion.",
@@ -134,11 +169,10 @@ public final class CommunityService {
             false,
             null,
             universityKey
-        ));
-        ensureSeedMessage(roomId(universityKey, "general"), "Campus Community Bot",
-            "Welcome to the " + safeName(universityName) + " university hub. Students can chat here by default.");
+        ), "Campus Community Bot",
+            "Welcome to the " + safeName(universityName) + " university hub. Students can chat here by default."));
 
-        api.upsertCommunityRoom(new CommunityRoom(
+        rooms.add(new BuiltInRoom(new CommunityRoom(
             roomId(universityKey, "freshers"),
             "Freshers Help Desk",
             "Structured support room for onboarding, campus logistics, and student Q&A.",
@@ -149,13 +183,12 @@ public final class CommunityService {
             false,
             null,
             universityKey
-        ));
-        ensureSeedMessage(roomId(universityKey, "freshers"), "Campus Mentor",
-            "Use this room for orientation questions, class routines, and first-week help.");
+        ), "Campus Mentor",
+            "Use this room for orientation questions, class routines, and first-week help."));
 
         String cleanedDepartment = normalizeDepartment(department);
         if (!cleanedDepartment.isBlank()) {
-            api.upsertCommunityRoom(new CommunityRoom(
+            rooms.add(new BuiltInRoom(new CommunityRoom(
                 roomId(universityKey, cleanedDepartment),
                 safeName(department) + " Lounge",
                 "Verified room for " + safeName(department) + " students from " + safeName(universityName) + ".",
@@ -166,18 +199,22 @@ public final class CommunityService {
                 false,
                 null,
                 universityKey
-            ));
-            ensureSeedMessage(roomId(universityKey, cleanedDepartment), "Department Coordinator",
-                "Department space ready for " + safeName(department) + " students.");
+            ), "Department Coordinator",
+                "Department space ready for " + safeName(department) + " students."));
         }
+        return rooms;
     }
 
     private void ensureSeedMessage(String roomId, String senderName, String content) throws ApiException {
-        if (ApiService.getInstance().getCommunityMessages(roomId).isEmpty()) {
+        if (!hasMessages(roomId)) {
             ApiService.getInstance().sendCommunityMessage(roomId, "system", senderName, content, null);
         }
     }
 
+    private boolean hasMessages(String roomId) throws ApiException {
+        return !ApiService.getInstance().getCommunityMessagesBefore(roomId, null, null, 1).isEmpty();
+    }
+
     private int roomPriority(CommunityRoom room) {
         if (room == null) return 99;
         if (room.getId() != null && room.getId().endsWith("::general")) return 0;
@@ -187,19 +224,6 @@ public final class CommunityService {
         return 4;
     }
 
-    private boolean isSameUniversity(UserProfile currentUser, UserProfile candidate) {
-        if (candidate == null) return false;
-        String currentEin = safeName(currentUser.getEinNumber());
-        String candidateEin = safeName(candidate.getEinNumber());
-        if (!currentEin.isBlank() && !candidateEin.isBlank() && currentEin.length() >= 3 && candidateEin.length() >= 3) {
-            if (currentEin.substring(0, 3).equalsIgnoreCase(candidateEin.substring(0, 3))) {
-                return true;
-            }
-        }
-        return normalizeUniversity(currentUser.getUniversityName())
-            .equalsIgnoreCase(normalizeUniversity(candidate.getUniversityName()));
-    }
-
     private static String roomId(String universityKey, String scope) {
         return universityKey + "::" + scope;
     }
@@ -226,4 +250,16 @@ public final class CommunityService {
     private static String safeName(String value, String fallback) {
         return value != null && !value.isBlank() ? value.trim() : fallback;
     }
+
+    private static final class BuiltInRoom {
+        final CommunityRoom room;
+        final String seedSender;
+        final String seedContent;
+
+        BuiltInRoom(CommunityRoom room, String seedSender, String seedContent) {
+            this.room = room;
+            this.seedSender = seedSender;
+            this.seedContent = seedContent;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,346 @@
+package com.campasian.service;
+
+import com.campasian.config.AppPaths;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.stage.Screen;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache for remote images (avatars, post, chat and community attachments).
+ * Decoded images are kept in an in-memory LRU keyed by URL and requested size and bounded by
+ * decoded pixel bytes. Raw bytes live in a content-addressed disk store (blobs named by SHA-256,
+ * plus a URL index), so a rebuilt card never re-downloads and a restart never hits the network.
+ */
+public final class ImageCache {
+
+    private static final ImageCache INSTANCE = new ImageCache();
+
+    private static final long MAX_MEMORY_BYTES = 128L * 1024 * 1024; // decoded ARGB pixels
+    private static final long MAX_DISK_BYTES = 256L * 1024 * 1024;
+    private static final String VIEW_KEY = "campasian.imageKey";
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .followRedirects(HttpClient.Redirect.NORMAL)
+        .build();
+    private final Path blobDir;
+    private final Path urlDir;
+
+    private final LinkedHashMap<String, Image> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private final Map<String, CompletableFuture<Image>> pending = new ConcurrentHashMap<>();
+
+    private volatile double outputScale = 1;
+    private final AtomicLong diskBytes = new AtomicLong(-1);
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong downloads = new AtomicLong();
+
+    private ImageCache() {
+        Path root = AppPaths.getCacheDir("images");
+        this.blobDir = root.resolve("blobs");
+        this.urlDir = root.resolve("urls");
+    }
+
+    public static ImageCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Same as {@link #load(ImageView, String, double, double)} using the view's fitWidth/fitHeight.
+     */
+    public void loadFitted(ImageView view, String url) {
+        if (view == null) return;
+        load(view, url, view.getFitWidth(), view.getFitHeight());
+    }
+
+    /**
+     * Shows the image in the view, from memory immediately if possible, otherwise once it is loaded.
+     * The image is decoded at the given display size (times the screen's output scale), never larger
+     * than the source, so a 12 MP photo in a 520x340 card costs ~1 MB of pixels instead of ~48 MB.
+     * Safe for recycled cells: a late result is dropped if the view was since pointed at another image.
+     * A width/height of 0 keeps the source dimension.
+     */
+    public void load(ImageView view, String url, double width, double height) {
+        if (view == null) return;
+        if (Platform.isFxApplicationThread()) outputScale = Math.max(1, Screen.getPrimary().getOutputScaleX());
+        if (url == null || url.isBlank()) {
+            view.getProperties().remove(VIEW_KEY);
+            view.setImage(null);
+            return;
+        }
+        String key = key(url, width, height);
+        view.getProperties().put(VIEW_KEY, key);
+        Image cached = getIfPresent(url, width, height);
+        if (cached != null) {
+            view.setImage(cached);
+            return;
+        }
+        view.setImage(null);
+        get(url, width, height).whenComplete((image, error) -> {
+            Image result = image != null ? image : new Image(url, width, height, true, true, true);
+            Platform.runLater(() -> {
+                if (key.equals(view.getProperties().get(VIEW_KEY))) view.setImage(result);
+            });
+        });
+    }
+
+    /**
+     * Returns the decoded image if it is in memory, otherwise null. Never blocks.
+     */
+    public Image getIfPresent(String url, double width, double height) {
+        String key = key(url, width, height);
+        synchronized (memory) {
+            Image image = memory.get(key);
+            if (image != null) memoryHits.incrementAndGet();
+            return image;
+        }
+    }
+
+    /**
+     * Loads the image from memory, disk or network. Concurrent requests for the same URL and size share one load.
+     */
+    public CompletableFuture<Image> get(String url, double width, double height) {
+        Image cached = getIfPresent(url, width, height);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        String key = key(url, width, height);
+        CompletableFuture<Image> future = new CompletableFuture<>();
+        CompletableFuture<Image> existing = pending.putIfAbsent(key, future);
+        if (existing != null) return existing;
+        TaskScheduler.getInstance().submit(() -> {
+            try {
+                Path blob = blobFor(url);
+                double[] size = decodeSize(blob, width * outputScale, height * outputScale);
+                Image image;
+                try (InputStream in = Files.newInputStream(blob)) {
+                    image = new Image(in, size[0], size[1], true, true);
+                }
+                if (image.isError()) throw new IOException("Undecodable image: " + url);
+                remember(key, image);
+                future.complete(image);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            } finally {
+                pending.remove(key, future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Drops decoded images; the disk store is kept.
+     */
+    public void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (memory) {
+            return "ImageCache[entries=" + memory.size() + ", memoryBytes=" + memoryBytes + "/" + MAX_MEMORY_BYTES
+                + ", memoryHits=" + memoryHits.get() + ", diskHits=" + diskHits.get() + ", downloads=" + downloads.get() + "]";
+        }
+    }
+
+    // ----- Memory tier -----
+
+    private void remember(String key, Image image) {
+        long size = decodedBytes(image);
+        if (size > MAX_MEMORY_BYTES) return;
+        synchronized (memory) {
+            Image previous = memory.put(key, image);
+            if (previous != null) memoryBytes -= decodedBytes(previous);
+            memoryBytes += size;
+            Iterator<Image> eldest = memory.values().iterator();
+            while (memoryBytes > MAX_MEMORY_BYTES && eldest.hasNext()) {
+                memoryBytes -= decodedBytes(eldest.next());
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Clamps a requested bounding box so decoding never upscales: if the source already fits, decode at
+     * source size (0, 0). Only the image header is read to find the source dimensions.
+     */
+    private static double[] decodeSize(Path blob, double width, double height) {
+        if (width <= 0 && height <= 0) return new double[] { 0, 0 };
+        try (ImageInputStream in = ImageIO.createImageInputStream(blob.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) return new double[] { width, height };
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                double sourceWidth = reader.getWidth(0);
+                double sourceHeight = reader.getHeight(0);
+                double fx = width > 0 ? width / sourceWidth : Double.MAX_VALUE;
+                double fy = height > 0 ? height / sourceHeight : Double.MAX_VALUE;
+                if (Math.min(fx, fy) >= 1) return new double[] { 0, 0 };
+            } finally {
+                reader.dispose();
+            }
+        } catch (Exception ignored) {
+            // Unknown format (e.g. WEBP without a plugin): let the decoder scale to the box.
+        }
+        return new double[] { width, height };
+    }
+
+    private static long decodedBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4;
+    }
+
+    // ----- Disk tier -----
+
+    /**
+     * Returns the blob holding the URL's bytes, downloading it on a miss.
+     */
+    private Path blobFor(String url) throws IOException, InterruptedException {
+        Path index = urlDir.resolve(sha256(url.getBytes(StandardCharsets.UTF_8)));
+        if (Files.isRegularFile(index)) {
+            Path blob = blobDir.resolve(Files.readString(index, StandardCharsets.UTF_8).trim());
+            if (Files.isRegularFile(blob)) {
+                diskHits.incrementAndGet();
+                touch(blob);
+                return blob;
+            }
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new IOException("HTTP " + response.statusCode() + " for " + url);
+        }
+        downloads.incrementAndGet();
+        byte[] bytes = response.body();
+        String hash = sha256(bytes);
+        Path blob = blobDir.resolve(hash);
+        if (!Files.isRegularFile(blob)) {
+            writeAtomically(blob, bytes);
+            trackDiskGrowth(bytes.length);
+        } else {
+            touch(blob);
+        }
+        writeAtomically(index, hash.getBytes(StandardCharsets.UTF_8));
+        return blob;
+    }
+
+    private void trackDiskGrowth(long added) {
+        if (diskBytes.get() < 0) diskBytes.compareAndSet(-1, sizeOf(blobDir));
+        else diskBytes.addAndGet(added);
+        if (diskBytes.get() > MAX_DISK_BYTES) trimDisk();
+    }
+
+    /**
+     * Deletes least recently used blobs until the store is under 80% of its cap.
+     * Index entries pointing at deleted blobs are treated as misses on their next read.
+     */
+    private synchronized void trimDisk() {
+        List<Path> blobs = new ArrayList<>();
+        try (var files = Files.list(blobDir)) {
+            files.filter(Files::isRegularFile).forEach(blobs::add);
+        } catch (IOException e) {
+            return;
+        }
+        blobs.sort(Comparator.comparing(ImageCache::lastModified));
+        long total = 0;
+        for (Path p : blobs) total += fileSize(p);
+        long target = MAX_DISK_BYTES * 8 / 10;
+        for (Path p : blobs) {
+            if (total <= target) break;
+            long size = fileSize(p);
+            try {
+                Files.deleteIfExists(p);
+                total -= size;
+            } catch (IOException ignored) {
+            }
+        }
+        diskBytes.set(total);
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, bytes);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static long sizeOf(Path dir) {
+        if (!Files.isDirectory(dir)) return 0;
+        try (var files = Files.list(dir)) {
+            return files.mapToLong(ImageCache::fileSize).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long fileSize(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String key(String url, double width, double height) {
+        return url + "@" + Math.round(width) + "x" + Math.round(height);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.campasian.service;
+
+import com.campasian.model.Post;
+import javafx.application.Platform;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optimistic like toggling.
+ * A click flips {@link Post#isLikedByMe()} and the like count right away; the server is only told once the
+ * post has been left alone for DEBOUNCE_MILLIS, and only if the net state differs from what the server has,
+ * so a double-click sends nothing and a burst of clicks sends one request. Requests are idempotent
+ * (see {@link ApiService#setLiked(Long, boolean)}); if one fails, the post is reloaded from the server.
+ */
+public final class LikeManager {
+
+    private static final LikeManager INSTANCE = new LikeManager();
+
+    private static final long DEBOUNCE_MILLIS = 400;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "campasian-likes");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Posts with unsent or in-flight changes, by post id. Guarded by this. */
+    private final Map<Long, Pending> pending = new HashMap<>();
+
+    private LikeManager() {
+    }
+
+    public static LikeManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Flips the like on the post and runs onChange to re-render it. Call on the FX thread.
+     * onChange runs again on the FX thread if the server state turns out to differ.
+     */
+    public void toggle(Post post, Runnable onChange) {
+        if (post == null || post.getId() == null) return;
+        boolean liked = !post.isLikedByMe();
+        post.setLikedByMe(liked);
+        post.setLikeCount(Math.max(0, post.getLikeCount() + (liked ? 1 : -1)));
+        if (onChange != null) onChange.run();
+
+        Long id = post.getId();
+        synchronized (this) {
+            Pending p = pending.computeIfAbsent(id, k -> new Pending(!liked));
+            p.desired = liked;
+            p.post = post;
+            p.onChange = onChange;
+            if (p.timer != null) p.timer.cancel(false);
+            p.timer = timer.schedule(() -> flush(id), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // ----- Sending -----
+
+    private void flush(Long id) {
+        Pending p;
+        boolean target;
+        synchronized (this) {
+            p = pending.get(id);
+            if (p == null || p.inFlight) return; // an in-flight send re-checks when it finishes
+            if (p.desired == p.serverLiked) {
+                pending.remove(id);
+                return;
+            }
+            p.inFlight = true;
+            target = p.desired;
+        }
+        TaskScheduler.getInstance().submit(() -> send(id, p, target));
+    }
+
+    private void send(Long id, Pending p, boolean target) {
+        try {
+            ApiService.getInstance().setLiked(id, target);
+            synchronized (this) {
+                p.inFlight = false;
+                p.serverLiked = target;
+                if (!p.timer.isDone()) return; // toggled again meanwhile; that timer will flush
+                if (p.desired == target) {
+                    pending.remove(id);
+                    return;
+                }
+            }
+            flush(id);
+        } catch (ApiException e) {
+            reconcile(id, p);
+        }
+    }
+
+    /**
+     * After a failed send, takes the like state and count from the server. If that fails too, the optimistic
+     * change is rolled back to the last state known to be on the server.
+     */
+    private void reconcile(Long id, Pending p) {
+        Post server = null;
+        try {
+            server = ApiService.getInstance().fetchLikeState(id);
+        } catch (ApiException ignored) {
+        }
+        Post fresh = server;
+        synchronized (this) {
+            p.inFlight = false;
+            if (fresh != null) p.serverLiked = fresh.isLikedByMe();
+            if (!p.timer.isDone()) return; // the user toggled again; send their latest choice
+            pending.remove(id);
+        }
+        Platform.runLater(() -> {
+            Post post = p.post;
+            if (fresh != null) {
+                post.setLikedByMe(fresh.isLikedByMe());
+                post.setLikeCount(fresh.getLikeCount());
+            } else if (post.isLikedByMe() != p.serverLiked) {
+                post.setLikedByMe(p.serverLiked);
+                post.setLikeCount(Math.max(0, post.getLikeCount() + (p.serverLiked ? 1 : -1)));
+            }
+            if (p.onChange != null) p.onChange.run();
+        });
+    }
+
+    private static final class Pending {
+        boolean serverLiked;
+        boolean desired;
+        boolean inFlight;
+        Post post;
+        Runnable onChange;
+        ScheduledFuture<?> timer;
+
+        Pending(boolean serverLiked) {
+            this.serverLiked = serverLiked;
+            this.desired = serverLiked;
+        }
+    }
+}
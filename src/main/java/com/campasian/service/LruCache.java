@@ -0,0 +1,138 @@
+package com.campasian.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache with LRU eviction and a freshness TTL.
+ * Entries past the TTL stay readable as stale (for stale-while-revalidate) until the stale window ends
+ * or they are evicted; the entry count never exceeds maxEntries.
+ */
+public final class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final long staleMillis;
+    private final Map<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxEntries  hard cap on cached entries
+     * @param ttlMillis   how long an entry counts as fresh
+     * @param staleMillis how long after the TTL an entry may still be served as stale
+     */
+    public LruCache(int maxEntries, long ttlMillis, long staleMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.staleMillis = staleMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= LruCache.this.maxEntries) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the value if it is still fresh, otherwise null.
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && age(entry) < ttlMillis) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Returns the value if it is fresh or within the stale window. Entries past the window are dropped.
+     * Callers check {@link #isFresh(Object)} to decide whether to revalidate.
+     */
+    public synchronized V getAllowStale(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        long age = age(entry);
+        if (age < ttlMillis) {
+            hits.incrementAndGet();
+            return entry.value;
+        }
+        if (age < ttlMillis + staleMillis) {
+            staleHits.incrementAndGet();
+            return entry.value;
+        }
+        entries.remove(key);
+        evictions.incrementAndGet();
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public synchronized boolean isFresh(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && age(entry) < ttlMillis;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (key == null || value == null) return;
+        entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return "LruCache[size=" + size() + "/" + maxEntries + ", hits=" + hits.get() + ", staleHits=" + staleHits.get()
+            + ", misses=" + misses.get() + ", evictions=" + evictions.get() + "]";
+    }
+
+    private static long age(Entry<?> entry) {
+        return System.currentTimeMillis() - entry.storedAt;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long storedAt;
+
+        private Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.campasian.service;
+
+import com.campasian.model.CallRecord;
+import com.campasian.model.CampusEvent;
+import com.campasian.model.Comment;
+import com.campasian.model.CommunityMessage;
+import com.campasian.model.CommunityRoom;
+import com.campasian.model.Confession;
+import com.campasian.model.CourseResource;
+import com.campasian.model.Faculty;
+import com.campasian.model.FacultyFeedback;
+import com.campasian.model.FriendRequest;
+import com.campasian.model.LostFoundItem;
+import com.campasian.model.MarketplaceItem;
+import com.campasian.model.Message;
+import com.campasian.model.Notification;
+import com.campasian.model.Post;
+import com.campasian.model.StudyPartnerPost;
+import com.campasian.model.UserProfile;
+import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Registry of pre-built, read-only Gson TypeAdapters for the REST models in com.campasian.model.
+ * Each adapter maps snake_case PostgREST columns straight from the token stream; unknown columns are skipped.
+ * The adapters stay private to this class and are only reached through readList and fromTree.
+ * (User is the local JDBC model and is never read from REST, so it has no adapter.)
+ */
+public final class ModelAdapters {
+
+    private static final TypeAdapter<Post> POST = new RowAdapter<>(Post::new)
+        .field("id", (p, in) -> p.setId(nextLong(in)))
+        .field("user_id", (p, in) -> p.setUserId(nextString(in)))
+        .field("user_name", (p, in) -> p.setUserName(nextString(in)))
+        .field("content", (p, in) -> p.setContent(nextString(in)))
+        .field("university", (p, in) -> p.setUniversity(nextString(in)))
+        .field("created_at", (p, in) -> p.setCreatedAt(nextString(in)))
+        .field("image_url", (p, in) -> p.setImageUrl(nextString(in)))
+        .field("likes", (p, in) -> p.setLikeCount(nextEmbeddedCount(in)))
+        .field("comments", (p, in) -> p.setCommentCount(nextEmbeddedCount(in)));
+
+    private static final TypeAdapter<UserProfile> USER_PROFILE = new RowAdapter<>(UserProfile::new)
+        .field("id", (p, in) -> p.setId(nextString(in)))
+        .field("full_name", (p, in) -> p.setFullName(nextString(in)))
+        .field("university_name", (p, in) -> p.setUniversityName(nextString(in)))
+        .field("ein_number", (p, in) -> p.setEinNumber(nextString(in)))
+        .field("bio", (p, in) -> p.setBio(nextString(in)))
+        .field("avatar_url", (p, in) -> p.setAvatarUrl(nextString(in)))
+        .field("blood_group", (p, in) -> p.setBloodGroup(nextString(in)))
+        .field("session", (p, in) -> p.setSession(nextString(in)))
+        .field("batch", (p, in) -> p.setBatch(nextString(in)))
+        .field("department", (p, in) -> p.setDepartment(nextString(in)));
+
+    private static final TypeAdapter<Message> MESSAGE = new RowAdapter<>(Message::new)
+        .field("id", (m, in) -> m.setId(nextString(in)))
+        .field("sender_id", (m, in) -> m.setSenderId(nextString(in)))
+        .field("receiver_id", (m, in) -> m.setReceiverId(nextString(in)))
+        .field("content", (m, in) -> m.setContent(nextString(in)))
+        .field("image_url", (m, in) -> m.setImageUrl(nextString(in)))
+        .field("created_at", (m, in) -> m.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<CallRecord> CALL_RECORD = new RowAdapter<>(CallRecord::new)
+        .field("id", (c, in) -> c.setId(nextString(in)))
+        .field("caller_id", (c, in) -> c.setCallerId(nextString(in)))
+        .field("receiver_id", (c, in) -> c.setReceiverId(nextString(in)))
+        .field("status", (c, in) -> c.setStatus(nextString(in)))
+        .field("channel_name", (c, in) -> c.setChannelName(nextString(in)))
+        .field("created_at", (c, in) -> c.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<Comment> COMMENT = new RowAdapter<>(Comment::new)
+        .field("id", (c, in) -> c.setId(nextLong(in)))
+        .field("post_id", (c, in) -> c.setPostId(nextLong(in)))
+        .field("user_id", (c, in) -> c.setUserId(nextString(in)))
+        .field("user_name", (c, in) -> c.setUserName(nextString(in)))
+        .field("content", (c, in) -> c.setContent(nextString(in)))
+        .field("created_at", (c, in) -> c.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<Notification> NOTIFICATION = new RowAdapter<>(Notification::new)
+        .field("id", (n, in) -> n.setId(nextString(in)))
+        .field("user_id", (n, in) -> n.setUserId(nextString(in)))
+        .field("type", (n, in) -> n.setType(nextString(in)))
+        .field("actor_id", (n, in) -> n.setActorId(nextString(in)))
+        .field("actor_name", (n, in) -> n.setActorName(nextString(in)))
+        .field("post_id", (n, in) -> n.setPostId(nextLong(in)))
+        .field("created_at", (n, in) -> n.setCreatedAt(nextString(in)))
+        .field("read_at", (n, in) -> n.setReadAt(nextString(in)));
+
+    private static final TypeAdapter<FriendRequest> FRIEND_REQUEST = new RowAdapter<>(FriendRequest::new)
+        .field("id", (f, in) -> f.setId(nextString(in)))
+        .field("from_id", (f, in) -> f.setFromId(nextString(in)))
+        .field("to_id", (f, in) -> f.setToId(nextString(in)))
+        .field("status", (f, in) -> f.setStatus(nextString(in)))
+        .field("created_at", (f, in) -> f.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<MarketplaceItem> MARKETPLACE_ITEM = new RowAdapter<>(MarketplaceItem::new)
+        .field("id", (m, in) -> m.setId(nextString(in)))
+        .field("user_id", (m, in) -> m.setUserId(nextString(in)))
+        .field("user_name", (m, in) -> m.setUserName(nextString(in)))
+        .field("title", (m, in) -> m.setTitle(nextString(in)))
+        .field("description", (m, in) -> m.setDescription(nextString(in)))
+        .field("price", (m, in) -> m.setPrice(nextString(in)))
+        .field("condition", (m, in) -> m.setCondition(nextString(in)))
+        .field("category", (m, in) -> m.setCategory(nextString(in)))
+        .field("created_at", (m, in) -> m.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<LostFoundItem> LOST_FOUND_ITEM = new RowAdapter<>(LostFoundItem::new)
+        .field("id", (l, in) -> l.setId(nextString(in)))
+        .field("user_id", (l, in) -> l.setUserId(nextString(in)))
+        .field("user_name", (l, in) -> l.setUserName(nextString(in)))
+        .field("type", (l, in) -> l.setType(nextString(in)))
+        .field("title", (l, in) -> l.setTitle(nextString(in)))
+        .field("description", (l, in) -> l.setDescription(nextString(in)))
+        .field("location", (l, in) -> l.setLocation(nextString(in)))
+        .field("created_at", (l, in) -> l.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<CourseResource> COURSE_RESOURCE = new RowAdapter<>(CourseResource::new)
+        .field("id", (r, in) -> r.setId(nextString(in)))
+        .field("user_id", (r, in) -> r.setUserId(nextString(in)))
+        .field("user_name", (r, in) -> r.setUserName(nextString(in)))
+        .field("title", (r, in) -> r.setTitle(nextString(in)))
+        .field("drive_link", (r, in) -> r.setDriveLink(nextString(in)))
+        .field("department", (r, in) -> r.setDepartment(nextString(in)))
+        .field("semester", (r, in) -> r.setSemester(nextString(in)))
+        .field("created_at", (r, in) -> r.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<Confession> CONFESSION = new RowAdapter<>(Confession::new)
+        .field("id", (c, in) -> c.setId(nextString(in)))
+        .field("content", (c, in) -> c.setContent(nextString(in)))
+        .field("created_at", (c, in) -> c.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<CampusEvent> CAMPUS_EVENT = new RowAdapter<>(CampusEvent::new)
+        .field("id", (e, in) -> e.setId(nextString(in)))
+        .field("title", (e, in) -> e.setTitle(nextString(in)))
+        .field("description", (e, in) -> e.setDescription(nextString(in)))
+        .field("event_date", (e, in) -> e.setEventDate(nextString(in)))
+        .field("venue", (e, in) -> e.setVenue(nextString(in)))
+        .field("interested_count", (e, in) -> e.setInterestedCount(nextInt(in, 0)))
+        .field("created_at", (e, in) -> e.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<StudyPartnerPost> STUDY_PARTNER_POST = new RowAdapter<>(StudyPartnerPost::new)
+        .field("id", (s, in) -> s.setId(nextString(in)))
+        .field("user_id", (s, in) -> s.setUserId(nextString(in)))
+        .field("user_name", (s, in) -> s.setUserName(nextString(in)))
+        .field("subject", (s, in) -> s.setSubject(nextString(in)))
+        .field("description", (s, in) -> s.setDescription(nextString(in)))
+        .field("created_at", (s, in) -> s.setCreatedAt(nextString(in)));
+
+    private static final TypeAdapter<Faculty> FACULTY = new RowAdapter<>(Faculty::new)
+        .field("id", (f, in) -> f.setId(nextString(in)))
+        .field("name", (f, in) -> f.setName(nextString(in)))
+        .field("department", (f, in) -> f.setDepartment(nextString(in)))
+        .field("email", (f, in) -> f.setEmail(nextString(in)));
+
+    private static final TypeAdapter<FacultyFeedback> FACULTY_FEEDBACK = new RowAdapter<>(FacultyFeedback::new)
+        .field("id", (f, in) -> f.setId(nextString(in)))
+        .field("faculty_id", (f, in) -> f.setFacultyId(nextString(in)))
+        .field("user_id", (f, in) -> f.setUserId(nextString(in)))
+        .field("rating", (f, in) -> f.setRating(nextInteger(in)))
+        .field("feedback", (f, in) -> f.setFeedback(nextString(in)))
+        .field("created_at", (f, in) -> f.setCreatedAt(nextString(in)));
+
+    /** CommunityRoom is immutable, so columns are collected first and passed to its constructor. */
+    private static final TypeAdapter<CommunityRoom> COMMUNITY_ROOM = new ReadOnlyAdapter<>() {
+        @Override
+        public CommunityRoom read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            String id = null, name = null, description = null, scopeLabel = null, owner = null, universityKey = null;
+            int memberCount = 0;
+            boolean verified = false, autoJoined = false, custom = false;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = nextString(in);
+                    case "name" -> name = nextString(in);
+                    case "description" -> description = nextString(in);
+                    case "scope_label" -> scopeLabel = nextString(in);
+                    case "member_count" -> memberCount = nextInt(in, 0);
+                    case "is_verified" -> verified = nextBoolean(in);
+                    case "is_auto_joined" -> autoJoined = nextBoolean(in);
+                    case "is_custom" -> custom = nextBoolean(in);
+                    case "owner_user_id" -> owner = nextString(in);
+                    case "university_key" -> universityKey = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new CommunityRoom(id, name, description, scopeLabel, memberCount, verified, autoJoined, custom, owner, universityKey);
+        }
+    };
+
+    /** CommunityMessage is immutable, so columns are collected first and passed to its constructor. */
+    private static final TypeAdapter<CommunityMessage> COMMUNITY_MESSAGE = new ReadOnlyAdapter<>() {
+        @Override
+        public CommunityMessage read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            String id = null, roomId = null, senderId = null, senderName = null, content = null, imageUrl = null, createdAt = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id" -> id = nextString(in);
+                    case "room_id" -> roomId = nextString(in);
+                    case "sender_id" -> senderId = nextString(in);
+                    case "sender_name" -> senderName = nextString(in);
+                    case "content" -> content = nextString(in);
+                    case "image_url" -> imageUrl = nextString(in);
+                    case "created_at" -> createdAt = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new CommunityMessage(id, roomId, senderId, senderName, content, imageUrl, createdAt);
+        }
+    };
+
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS = new HashMap<>();
+
+    static {
+        ADAPTERS.put(Post.class, POST);
+        ADAPTERS.put(UserProfile.class, USER_PROFILE);
+        ADAPTERS.put(Message.class, MESSAGE);
+        ADAPTERS.put(CallRecord.class, CALL_RECORD);
+        ADAPTERS.put(Comment.class, COMMENT);
+        ADAPTERS.put(Notification.class, NOTIFICATION);
+        ADAPTERS.put(FriendRequest.class, FRIEND_REQUEST);
+        ADAPTERS.put(MarketplaceItem.class, MARKETPLACE_ITEM);
+        ADAPTERS.put(LostFoundItem.class, LOST_FOUND_ITEM);
+        ADAPTERS.put(CourseResource.class, COURSE_RESOURCE);
+        ADAPTERS.put(Confession.class, CONFESSION);
+        ADAPTERS.put(CampusEvent.class, CAMPUS_EVENT);
+        ADAPTERS.put(StudyPartnerPost.class, STUDY_PARTNER_POST);
+        ADAPTERS.put(Faculty.class, FACULTY);
+        ADAPTERS.put(FacultyFeedback.class, FACULTY_FEEDBACK);
+        ADAPTERS.put(CommunityRoom.class, COMMUNITY_ROOM);
+        ADAPTERS.put(CommunityMessage.class, COMMUNITY_MESSAGE);
+    }
+
+    private ModelAdapters() {}
+
+    @SuppressWarnings("unchecked")
+    private static <T> TypeAdapter<T> adapter(Class<T> type) {
+        TypeAdapter<T> adapter = (TypeAdapter<T>) ADAPTERS.get(type);
+        if (adapter == null) throw new IllegalArgumentException("No adapter registered for " + type.getName());
+        return adapter;
+    }
+
+    /**
+     * Reads a top-level JSON array of rows. Anything other than an array (or an empty body) yields an empty list.
+     */
+    public static <T> List<T> readList(JsonReader in, Class<T> type) throws IOException {
+        TypeAdapter<T> adapter = adapter(type);
+        List<T> list = new ArrayList<>();
+        JsonToken first;
+        try {
+            first = in.peek();
+        } catch (EOFException empty) {
+            return list;
+        }
+        if (first != JsonToken.BEGIN_ARRAY) {
+            in.skipValue();
+            return list;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+            T item = adapter.read(in);
+            if (item != null) list.add(item);
+        }
+        in.endArray();
+        return list;
+    }
+
+    /**
+     * Reads rows from an already-buffered body without building a JsonElement tree.
+     */
+    public static <T> List<T> readList(String body, Class<T> type) throws IOException {
+        if (body == null || body.isBlank()) return new ArrayList<>();
+        return readList(new JsonReader(new StringReader(body)), type);
+    }
+
+    /**
+     * Maps a single row that is already a tree, e.g. a realtime change record.
+     */
+    public static <T> T fromTree(JsonElement row, Class<T> type) {
+        if (row == null || !row.isJsonObject()) return null;
+        return adapter(type).fromJsonTree(row);
+    }
+
+    // ----- Lenient token readers (same semantics as ApiService.asString / asLong) -----
+
+    static String nextString(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case NULL -> {
+                in.nextNull();
+                return null;
+            }
+            case STRING, NUMBER -> {
+                return in.nextString();
+            }
+            case BOOLEAN -> {
+                return String.valueOf(in.nextBoolean());
+            }
+            default -> {
+                in.skipValue();
+                return null;
+            }
+        }
+    }
+
+    static Long nextLong(JsonReader in) throws IOException {
+        String value = nextString(in);
+        if (value == null || value.isBlank()) return null;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static Integer nextInteger(JsonReader in) throws IOException {
+        String value = nextString(in);
+        if (value == null || value.isBlank()) return null;
+        try {
+            return (int) Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static int nextInt(JsonReader in, int fallback) throws IOException {
+        Integer value = nextInteger(in);
+        return value != null ? value : fallback;
+    }
+
+    static boolean nextBoolean(JsonReader in) throws IOException {
+        return Boolean.parseBoolean(nextString(in));
+    }
+
+    /**
+     * Reads an embedded aggregate such as likes(count), which PostgREST returns as [{"count": n}].
+     */
+    static int nextEmbeddedCount(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            in.skipValue();
+            return 0;
+        }
+        int count = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                continue;
+            }
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("count".equals(in.nextName())) count += nextInt(in, 0);
+                else in.skipValue();
+            }
+            in.endObject();
+        }
+        in.endArray();
+        return count;
+    }
+
+    @FunctionalInterface
+    interface FieldReader<T> {
+        void read(T target, JsonReader in) throws IOException;
+    }
+
+    /**
+     * Adapters here only deserialize; request payloads are still built as JsonObjects.
+     */
+    private abstract static class ReadOnlyAdapter<T> extends TypeAdapter<T> {
+        @Override
+        public void write(JsonWriter out, T value) {
+            throw new UnsupportedOperationException("Model adapters are read-only");
+        }
+    }
+
+    /**
+     * Adapter for mutable models: instantiates via the no-arg constructor and dispatches each column
+     * to its setter through a pre-built name table.
+     */
+    private static final class RowAdapter<T> extends ReadOnlyAdapter<T> {
+        private final Supplier<T> factory;
+        private final Map<String, FieldReader<T>> fields = new HashMap<>();
+
+        private RowAdapter(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        private RowAdapter<T> field(String column, FieldReader<T> reader) {
+            fields.put(column, reader);
+            return this;
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            T target = factory.get();
+            in.beginObject();
+            while (in.hasNext()) {
+                FieldReader<T> reader = fields.get(in.nextName());
+                if (reader != null) reader.read(target, in);
+                else in.skipValue();
+            }
+            in.endObject();
+            return target;
+        }
+    }
+}
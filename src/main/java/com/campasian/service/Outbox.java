@@ -0,0 +1,318 @@
+package com.campasian.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Durable queue of pending inserts, drained in the background.
+ * Every mutation is appended to a local journal (one JSON line per "add" / "done" record) before it is
+ * sent, so nothing typed by the user is lost to a network error or a restart. The flusher sends entries
+ * of the signed-in user in order, coalescing consecutive inserts into the same table into one PostgREST
+ * bulk insert (JSON array body), and backs off exponentially while the network or server is failing.
+ * Delivery is at-least-once: a batch whose response is lost is sent again.
+ */
+final class Outbox {
+
+    /** Sends one body (object or array) as a return=minimal POST to a REST path, using the current session. */
+    @FunctionalInterface
+    interface Sender {
+        void post(String path, JsonElement body) throws ApiException;
+    }
+
+    private static final int MAX_BATCH = 100;
+    private static final long COALESCE_DELAY_MILLIS = 50;
+    private static final long MIN_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final Path journal;
+    private final Sender sender;
+    private final Supplier<String> currentUser;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "campasian-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Pending entries by id, in enqueue order. Guarded by this. */
+    private final LinkedHashMap<String, Entry> pending = new LinkedHashMap<>();
+    private final Map<String, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+    private boolean flushScheduled;
+    private ScheduledFuture<?> retry;
+    private long backoffMillis;
+
+    Outbox(Path journal, Sender sender, Supplier<String> currentUser) {
+        this.journal = journal;
+        this.sender = sender;
+        this.currentUser = currentUser;
+        load();
+    }
+
+    /**
+     * Journals an insert of one row into the table and schedules a flush. The returned future completes
+     * once the row is stored on the server, or exceptionally if the server rejects it for good.
+     */
+    CompletableFuture<Void> enqueueInsert(String userId, String path, JsonObject row) {
+        Entry entry = new Entry();
+        entry.op = "add";
+        entry.id = UUID.randomUUID().toString();
+        entry.userId = userId;
+        entry.path = path;
+        entry.row = row;
+        entry.createdAt = System.currentTimeMillis();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        waiters.put(entry.id, done);
+        synchronized (this) {
+            append(entry, true);
+            pending.put(entry.id, entry);
+        }
+        wake();
+        return done;
+    }
+
+    /**
+     * Schedules a flush now, e.g. after sign-in or a token refresh. Resets any backoff.
+     */
+    synchronized void wake() {
+        backoffMillis = 0;
+        if (retry != null && retry.cancel(false)) flushScheduled = false;
+        retry = null;
+        schedule(COALESCE_DELAY_MILLIS);
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    // ----- Flushing -----
+
+    private ScheduledFuture<?> schedule(long delayMillis) {
+        if (flushScheduled || pending.isEmpty()) return null;
+        flushScheduled = true;
+        return flusher.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        while (true) {
+            List<Entry> batch;
+            synchronized (this) {
+                batch = nextBatch();
+                if (batch.isEmpty()) {
+                    flushScheduled = false;
+                    return;
+                }
+            }
+            Entry first = batch.get(0);
+            try {
+                if (batch.size() == 1) {
+                    sender.post(first.path, first.row);
+                } else {
+                    JsonArray rows = new JsonArray();
+                    for (Entry e : batch) rows.add(e.row);
+                    sender.post(first.path, rows);
+                }
+                complete(batch, null);
+                synchronized (this) {
+                    backoffMillis = 0;
+                }
+            } catch (ApiException e) {
+                if (isRetryable(e)) {
+                    synchronized (this) {
+                        backoffMillis = backoffMillis == 0 ? MIN_BACKOFF_MILLIS : Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+                        flushScheduled = false;
+                        retry = schedule(backoffMillis);
+                    }
+                    return;
+                }
+                if (batch.size() > 1) {
+                    // A bulk insert is all-or-nothing: resend one by one so only the bad row is dropped.
+                    synchronized (this) {
+                        for (Entry entry : batch) entry.solo = true;
+                    }
+                    continue;
+                }
+                if ("true".equalsIgnoreCase(System.getProperty("campasian.log.api"))) {
+                    System.err.println("[Campasian Outbox] dropping " + first.path + " " + first.row + ": " + e.getMessage());
+                }
+                complete(batch, e);
+            } catch (RuntimeException e) {
+                complete(batch, e);
+            }
+        }
+    }
+
+    /**
+     * Consecutive entries of the signed-in user with the same table and column set, up to MAX_BATCH.
+     */
+    private List<Entry> nextBatch() {
+        List<Entry> batch = new ArrayList<>();
+        String user = currentUser.get();
+        if (user == null || user.isBlank()) return batch;
+        for (Entry entry : pending.values()) {
+            if (!user.equals(entry.userId)) continue;
+            if (batch.isEmpty()) {
+                batch.add(entry);
+                if (entry.solo) break;
+                continue;
+            }
+            Entry first = batch.get(0);
+            if (entry.solo || !first.path.equals(entry.path) || !first.row.keySet().equals(entry.row.keySet())
+                || batch.size() >= MAX_BATCH) {
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    private void complete(List<Entry> batch, Exception failure) {
+        synchronized (this) {
+            for (Entry entry : batch) {
+                pending.remove(entry.id);
+                Entry done = new Entry();
+                done.op = "done";
+                done.id = entry.id;
+                append(done, false);
+            }
+            if (pending.isEmpty()) truncate();
+        }
+        for (Entry entry : batch) {
+            CompletableFuture<Void> waiter = waiters.remove(entry.id);
+            if (waiter == null) continue;
+            if (failure == null) waiter.complete(null);
+            else waiter.completeExceptionally(failure);
+        }
+    }
+
+    private static boolean isRetryable(ApiException e) {
+        int status = e.getStatusCode();
+        return status <= 0 || status == 401 || status == 408 || status == 425 || status == 429 || status >= 500;
+    }
+
+    // ----- Journal -----
+
+    private void append(Entry entry, boolean sync) {
+        try {
+            Files.createDirectories(journal.getParent());
+            byte[] line = (entry.toJson() + "\n").getBytes(StandardCharsets.UTF_8);
+            if (sync) {
+                Files.write(journal, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            } else {
+                Files.write(journal, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // Still queued in memory; only durability across restarts is lost.
+        }
+    }
+
+    private void truncate() {
+        try {
+            Files.deleteIfExists(journal);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Replays the journal: "add" records minus their "done" records, then rewrites it compacted.
+     */
+    private void load() {
+        if (!Files.isRegularFile(journal)) return;
+        try {
+            List<String> lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+            Set<String> done = new HashSet<>();
+            for (String line : lines) {
+                Entry entry = parse(line);
+                if (entry == null) continue;
+                if ("add".equals(entry.op) && entry.path != null && entry.row != null) pending.put(entry.id, entry);
+                else if ("done".equals(entry.op)) done.add(entry.id);
+            }
+            for (Iterator<String> it = pending.keySet().iterator(); it.hasNext(); ) {
+                if (done.contains(it.next())) it.remove();
+            }
+            Path tmp = journal.resolveSibling(journal.getFileName() + ".tmp");
+            StringBuilder compacted = new StringBuilder();
+            for (Entry entry : pending.values()) compacted.append(entry.toJson()).append('\n');
+            Files.writeString(tmp, compacted, StandardCharsets.UTF_8);
+            Files.move(tmp, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private Entry parse(String line) {
+        if (line == null || line.isBlank()) return null;
+        try {
+            JsonElement json = JsonParser.parseString(line);
+            Entry entry = json.isJsonObject() ? Entry.fromJson(json.getAsJsonObject()) : null;
+            return entry != null && entry.id != null ? entry : null;
+        } catch (Exception e) {
+            return null; // torn last line after a crash
+        }
+    }
+
+    /**
+     * One journal record. Written and read field by field rather than reflectively, as this package is not
+     * opened to Gson.
+     */
+    private static final class Entry {
+        String op;
+        String id;
+        String userId;
+        String path;
+        JsonObject row;
+        long createdAt;
+        /** In memory only: send on its own after its batch was rejected. */
+        boolean solo;
+
+        String toJson() {
+            JsonObject o = new JsonObject();
+            o.addProperty("op", op);
+            o.addProperty("id", id);
+            if (userId != null) o.addProperty("userId", userId);
+            if (path != null) o.addProperty("path", path);
+            if (row != null) o.add("row", row);
+            if (createdAt != 0) o.addProperty("createdAt", createdAt);
+            return o.toString();
+        }
+
+        static Entry fromJson(JsonObject o) {
+            Entry entry = new Entry();
+            entry.op = string(o, "op");
+            entry.id = string(o, "id");
+            entry.userId = string(o, "userId");
+            entry.path = string(o, "path");
+            JsonElement row = o.get("row");
+            entry.row = row != null && row.isJsonObject() ? row.getAsJsonObject() : null;
+            JsonElement createdAt = o.get("createdAt");
+            entry.createdAt = createdAt != null && createdAt.isJsonPrimitive() ? createdAt.getAsLong() : 0;
+            return entry;
+        }
+
+        private static String string(JsonObject o, String key) {
+            JsonElement e = o.get(key);
+            return e != null && e.isJsonPrimitive() ? e.getAsString() : null;
+        }
+    }
+}
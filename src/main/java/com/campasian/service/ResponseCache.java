@@ -0,0 +1,205 @@
+package com.campasian.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Disk-backed cache of GET response bodies with their validators (ETag / Last-Modified).
+ * Entries are keyed by user + URL and stored as one JSON file each; an in-memory index avoids
+ * re-reading files on every lookup. All disk errors are swallowed: the cache is an optimization only.
+ */
+final class ResponseCache {
+
+    private final Path dir;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+
+    ResponseCache(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Returns the cached entry for this user and URL, or null.
+     */
+    Entry get(String user, String url) {
+        String key = key(user, url);
+        Entry entry = index.get(key);
+        if (entry != null) return entry;
+        Path file = dir.resolve(key + ".json");
+        if (!Files.isRegularFile(file)) return null;
+        entry = read(file);
+        if (entry == null) {
+            deleteQuietly(file);
+            return null;
+        }
+        // Hash collisions are practically impossible, but never serve another URL's body.
+        if (entry.body == null || !url.equals(entry.url) || !user.equals(entry.user)) return null;
+        index.put(key, entry);
+        return entry;
+    }
+
+    void put(String user, String url, String body, String etag, String lastModified) {
+        if (body == null) return;
+        Entry entry = new Entry();
+        entry.user = user;
+        entry.url = url;
+        entry.body = body;
+        entry.etag = etag;
+        entry.lastModified = lastModified;
+        entry.fetchedAt = System.currentTimeMillis();
+        String key = key(user, url);
+        index.put(key, entry);
+        write(key, entry);
+    }
+
+    /**
+     * Marks an entry as just revalidated (HTTP 304) so it counts as fresh again.
+     */
+    void touch(String user, String url) {
+        String key = key(user, url);
+        Entry current = index.get(key);
+        if (current == null) return;
+        Entry entry = current.copy();
+        entry.fetchedAt = System.currentTimeMillis();
+        index.put(key, entry);
+        write(key, entry);
+    }
+
+    /**
+     * Drops every entry whose URL starts with the prefix, for all users. Call after writes to that table.
+     * File names are hashes, so entries not loaded into the index are found by reading the files.
+     */
+    void invalidate(String urlPrefix) {
+        index.entrySet().removeIf(e -> {
+            if (!e.getValue().url.startsWith(urlPrefix)) return false;
+            deleteQuietly(dir.resolve(e.getKey() + ".json"));
+            return true;
+        });
+        try (var files = Files.list(dir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(".json")).forEach(file -> {
+                Entry entry = read(file);
+                if (entry == null || entry.url == null || entry.url.startsWith(urlPrefix)) deleteQuietly(file);
+            });
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Drops all entries, including temp files left behind by an interrupted write.
+     */
+    void clear() {
+        index.clear();
+        try (var files = Files.list(dir)) {
+            files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.endsWith(".json") || name.endsWith(".tmp");
+            }).forEach(ResponseCache::deleteQuietly);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void write(String key, Entry entry) {
+        Path tmp = null;
+        try {
+            String json = entry.toJson();
+            Files.createDirectories(dir);
+            tmp = Files.createTempFile(dir, key, ".tmp");
+            Files.writeString(tmp, json, StandardCharsets.UTF_8);
+            Files.move(tmp, dir.resolve(key + ".json"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            if (tmp != null) deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * The entry stored in the file, or null if it is missing or unreadable.
+     */
+    private static Entry read(Path file) {
+        try {
+            JsonElement json = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8));
+            return json.isJsonObject() ? Entry.fromJson(json.getAsJsonObject()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static String key(String user, String url) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha.digest((user + "\n" + url).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    static final class Entry {
+        String user;
+        String url;
+        String body;
+        String etag;
+        String lastModified;
+        long fetchedAt;
+
+        long ageMillis() {
+            return System.currentTimeMillis() - fetchedAt;
+        }
+
+        private Entry copy() {
+            Entry e = new Entry();
+            e.user = user;
+            e.url = url;
+            e.body = body;
+            e.etag = etag;
+            e.lastModified = lastModified;
+            e.fetchedAt = fetchedAt;
+            return e;
+        }
+
+        /** Written field by field: this package is not opened to Gson for reflection. */
+        private String toJson() {
+            JsonObject o = new JsonObject();
+            o.addProperty("user", user);
+            o.addProperty("url", url);
+            o.addProperty("body", body);
+            o.addProperty("etag", etag);
+            o.addProperty("lastModified", lastModified);
+            o.addProperty("fetchedAt", fetchedAt);
+            return o.toString();
+        }
+
+        private static Entry fromJson(JsonObject o) {
+            Entry e = new Entry();
+            e.user = string(o, "user");
+            e.url = string(o, "url");
+            e.body = string(o, "body");
+            e.etag = string(o, "etag");
+            e.lastModified = string(o, "lastModified");
+            JsonElement fetchedAt = o.get("fetchedAt");
+            e.fetchedAt = fetchedAt != null && fetchedAt.isJsonPrimitive() ? fetchedAt.getAsLong() : 0;
+            return e;
+        }
+
+        private static String string(JsonObject o, String key) {
+            JsonElement v = o.get(key);
+            return v != null && v.isJsonPrimitive() ? v.getAsString() : null;
+        }
+    }
+}
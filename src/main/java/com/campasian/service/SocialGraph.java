@@ -0,0 +1,208 @@
+package com.campasian.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory social graph of the signed-in user: who they follow, how many follow them, and their friend
+ * requests (pending either way, or accepted). Loaded once with bulk queries by ApiService, then kept current
+ * by the user's own follow/friend calls and by Realtime changes on follows and friend_requests, so
+ * relationship questions are answered without network calls. Entries older than MAX_AGE_MILLIS are reloaded
+ * to cover events missed while the socket was down.
+ */
+final class SocialGraph {
+
+    private static final long MAX_AGE_MILLIS = 5 * 60 * 1000;
+
+    private String userId;
+    private long loadedAt;
+    private final Set<String> following = new HashSet<>();
+    private int followerCount;
+    /** Friend requests involving the user, by the other user's id. */
+    private final Map<String, Request> requests = new HashMap<>();
+
+    synchronized boolean isLoadedFor(String user) {
+        return user != null && user.equals(userId) && System.currentTimeMillis() - loadedAt < MAX_AGE_MILLIS;
+    }
+
+    /**
+     * Replaces the graph with freshly fetched state. requestRows are friend_requests rows with id, from_id,
+     * to_id and status.
+     */
+    synchronized void load(String user, Collection<String> followingIds, int followers, Iterable<JsonElement> requestRows) {
+        userId = user;
+        following.clear();
+        following.addAll(followingIds);
+        followerCount = followers;
+        requests.clear();
+        for (JsonElement el : requestRows) {
+            if (el != null && el.isJsonObject()) putRequest(el.getAsJsonObject());
+        }
+        loadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Forces a reload on the next query, e.g. after Realtime reconnected and may have missed changes.
+     */
+    synchronized void expire() {
+        loadedAt = 0;
+    }
+
+    synchronized void clear() {
+        userId = null;
+        loadedAt = 0;
+        following.clear();
+        followerCount = 0;
+        requests.clear();
+    }
+
+    // ----- Queries -----
+
+    synchronized boolean isFollowing(String targetId) {
+        return following.contains(targetId);
+    }
+
+    synchronized List<String> followingIds() {
+        return new ArrayList<>(following);
+    }
+
+    synchronized int followingCount() {
+        return following.size();
+    }
+
+    synchronized int followerCount() {
+        return followerCount;
+    }
+
+    /**
+     * "none", "pending" or "accepted", same as ApiService.getFriendRequestStatus.
+     */
+    synchronized String friendStatus(String otherId) {
+        Request r = requests.get(otherId);
+        return r != null ? r.status : "none";
+    }
+
+    /**
+     * The request id with that user, or null if there is none or it is not known yet (sent from this client).
+     */
+    synchronized String requestId(String otherId) {
+        Request r = requests.get(otherId);
+        return r != null ? r.id : null;
+    }
+
+    synchronized List<String> friendIds() {
+        List<String> ids = new ArrayList<>();
+        for (Map.Entry<String, Request> e : requests.entrySet()) {
+            if ("accepted".equals(e.getValue().status)) ids.add(e.getKey());
+        }
+        return ids;
+    }
+
+    // ----- Local updates (after a successful write) -----
+
+    synchronized void followed(String targetId) {
+        following.add(targetId);
+    }
+
+    synchronized void unfollowed(String targetId) {
+        following.remove(targetId);
+    }
+
+    synchronized void requestSent(String targetId) {
+        requests.putIfAbsent(targetId, new Request(null, "pending"));
+    }
+
+    synchronized void requestAccepted(String requestId) {
+        for (Request r : requests.values()) {
+            if (requestId.equals(r.id)) r.status = "accepted";
+        }
+    }
+
+    synchronized void requestRemoved(String requestId) {
+        requests.values().removeIf(r -> requestId.equals(r.id));
+    }
+
+    synchronized void friendRemoved(String otherId) {
+        requests.remove(otherId);
+    }
+
+    // ----- Realtime -----
+
+    /**
+     * Applies a postgres_changes payload for follows or friend_requests. DELETE events arrive unfiltered,
+     * so rows not involving the user are ignored.
+     */
+    synchronized void apply(JsonObject payload) {
+        if (userId == null) return;
+        JsonObject data = payload != null && payload.has("data") && payload.get("data").isJsonObject()
+            ? payload.getAsJsonObject("data") : null;
+        if (data == null) return;
+        String table = string(data, "table");
+        String type = string(data, "type");
+        JsonObject record = object(data, "record");
+        JsonObject old = object(data, "old_record");
+        if ("follows".equals(table)) {
+            JsonObject row = "DELETE".equals(type) ? old : record;
+            if (row == null) return;
+            boolean added = "INSERT".equals(type);
+            if (userId.equals(string(row, "follower_id"))) {
+                if (added) following.add(string(row, "following_id"));
+                else following.remove(string(row, "following_id"));
+            } else if (userId.equals(string(row, "following_id"))) {
+                followerCount = Math.max(0, followerCount + (added ? 1 : -1));
+            }
+        } else if ("friend_requests".equals(table)) {
+            if ("DELETE".equals(type)) {
+                String id = old != null ? string(old, "id") : null;
+                if (id != null) requestRemoved(id);
+            } else if (record != null) {
+                putRequest(record);
+            }
+        }
+    }
+
+    private void putRequest(JsonObject row) {
+        String from = string(row, "from_id");
+        String to = string(row, "to_id");
+        String other = userId.equals(from) ? to : userId.equals(to) ? from : null;
+        if (other == null) return;
+        String status = string(row, "status");
+        if ("accepted".equalsIgnoreCase(status) || "pending".equalsIgnoreCase(status)) {
+            Request existing = requests.get(other);
+            // Keep "accepted" if the other direction also has a pending request.
+            if (existing != null && "accepted".equals(existing.status) && "pending".equalsIgnoreCase(status)) return;
+            requests.put(other, new Request(string(row, "id"), status.toLowerCase()));
+        } else {
+            Request existing = requests.get(other); // rejected
+            if (existing != null && (existing.id == null || existing.id.equals(string(row, "id")))) requests.remove(other);
+        }
+    }
+
+    private static String string(JsonObject o, String key) {
+        JsonElement e = o.get(key);
+        return e != null && !e.isJsonNull() ? e.getAsString() : null;
+    }
+
+    private static JsonObject object(JsonObject o, String key) {
+        JsonElement e = o.get(key);
+        return e != null && e.isJsonObject() ? e.getAsJsonObject() : null;
+    }
+
+    private static final class Request {
+        final String id;
+        String status;
+
+        Request(String id, String status) {
+            this.id = id;
+            this.status = status;
+        }
+    }
+}
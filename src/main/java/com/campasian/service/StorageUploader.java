@@ -0,0 +1,335 @@
+package com.campasian.service;
+
+import com.campasian.config.SupabaseConfig;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams files to Supabase Storage without buffering them in memory.
+ * Files up to RESUMABLE_THRESHOLD go in a single streamed POST; larger files use the TUS resumable endpoint
+ * in chunks of at most 6 MB. The TUS upload URL is persisted per (bucket, path, file), so a failed or
+ * interrupted upload resumes from the server's offset on the next call instead of restarting from zero.
+ */
+final class StorageUploader {
+
+    /** Supabase's TUS endpoint requires every chunk except the last to be exactly 6 MB. */
+    static final long CHUNK_SIZE = 6L * 1024 * 1024;
+    /** Smaller files are cheaper to resend whole than to open a resumable upload for. */
+    static final long RESUMABLE_THRESHOLD = 1024L * 1024;
+    private static final long MIN_BYTES_PER_SECOND = 32L * 1024; // budget for a slow campus link
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private final HttpClient client;
+    private final Path stateDir;
+
+    StorageUploader(HttpClient client, Path stateDir) {
+        this.client = client;
+        this.stateDir = stateDir;
+    }
+
+    /**
+     * Timeout for sending the given number of bytes: 20 seconds plus time at MIN_BYTES_PER_SECOND.
+     */
+    static Duration timeoutFor(long bytes) {
+        return Duration.ofSeconds(20 + bytes / MIN_BYTES_PER_SECOND);
+    }
+
+    void upload(String bucket, String path, Path file, String contentType, String token,
+                UploadProgressListener listener) throws ApiException {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new ApiException(-1, "Upload failed: " + e.getMessage(), null, null, null);
+        }
+        if (size <= RESUMABLE_THRESHOLD) {
+            uploadWhole(bucket, path, file, size, contentType, token, listener);
+        } else {
+            uploadResumable(bucket, path, file, size, contentType, token, listener);
+        }
+    }
+
+    // ----- Single request -----
+
+    private void uploadWhole(String bucket, String path, Path file, long size, String contentType, String token,
+                             UploadProgressListener listener) throws ApiException {
+        String base = SupabaseConfig.getSupabaseUrl();
+        String storageUrl = base + "/storage/v1/object/" + bucket + "/" + path.replace(" ", "%20");
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(storageUrl))
+                .timeout(timeoutFor(size))
+                .header("apikey", SupabaseConfig.getAnonKey())
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", contentType != null ? contentType : "application/octet-stream")
+                .header("x-upsert", "true")
+                .POST(counting(HttpRequest.BodyPublishers.ofFile(file), 0, size, listener))
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new ApiException(response.statusCode(), "Upload failed", null, null, response.body());
+            }
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new ApiException(-1, "Upload failed: " + e.getMessage(), null, null, null);
+        }
+    }
+
+    // ----- TUS resumable -----
+
+    private void uploadResumable(String bucket, String path, Path file, long size, String contentType, String token,
+                                 UploadProgressListener listener) throws ApiException {
+        Path state = stateFile(bucket, path, file, size);
+        String uploadUrl = readState(state);
+        long offset = uploadUrl != null ? serverOffset(uploadUrl, token) : -1;
+        if (offset < 0) {
+            uploadUrl = createUpload(bucket, path, size, contentType, token);
+            writeState(state, uploadUrl);
+            offset = 0;
+        }
+        int failures = 0;
+        while (offset < size) {
+            long length = Math.min(CHUNK_SIZE, size - offset);
+            try {
+                offset = sendChunk(uploadUrl, file, offset, length, size, token, listener);
+                failures = 0;
+            } catch (ApiException e) {
+                if (Thread.currentThread().isInterrupted() || ++failures >= MAX_CHUNK_ATTEMPTS) throw e;
+                // The server may have stored part of the chunk; continue from what it acknowledges.
+                long acknowledged = serverOffset(uploadUrl, token);
+                if (acknowledged < 0) throw e;
+                offset = acknowledged;
+            }
+        }
+        deleteState(state);
+    }
+
+    private String createUpload(String bucket, String path, long size, String contentType, String token) throws ApiException {
+        String endpoint = SupabaseConfig.getSupabaseUrl() + "/storage/v1/upload/resumable";
+        String metadata = "bucketName " + b64(bucket)
+            + ",objectName " + b64(path)
+            + ",contentType " + b64(contentType != null ? contentType : "application/octet-stream")
+            + ",cacheControl " + b64("3600");
+        try {
+            HttpRequest request = tusRequest(endpoint, token)
+                .timeout(timeoutFor(0))
+                .header("Upload-Length", String.valueOf(size))
+                .header("Upload-Metadata", metadata)
+                .header("x-upsert", "true")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (response.statusCode() != 201 || location == null) {
+                throw new ApiException(response.statusCode(), "Upload failed", null, null, response.body());
+            }
+            return URI.create(endpoint).resolve(location).toString();
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new ApiException(-1, "Upload failed: " + e.getMessage(), null, null, null);
+        }
+    }
+
+    /**
+     * Returns the server's Upload-Offset for an upload, or -1 if it is unknown or expired.
+     */
+    private long serverOffset(String uploadUrl, String token) {
+        try {
+            HttpRequest request = tusRequest(uploadUrl, token)
+                .timeout(timeoutFor(0))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() < 200 || response.statusCode() >= 300) return -1;
+            return Long.parseLong(response.headers().firstValue("Upload-Offset").orElse("-1"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private long sendChunk(String uploadUrl, Path file, long offset, long length, long total, String token,
+                           UploadProgressListener listener) throws ApiException {
+        try {
+            HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+                HttpRequest.BodyPublishers.ofInputStream(() -> slice(file, offset, length)), length);
+            HttpRequest request = tusRequest(uploadUrl, token)
+                .timeout(timeoutFor(length))
+                .header("Upload-Offset", String.valueOf(offset))
+                .header("Content-Type", "application/offset+octet-stream")
+                .method("PATCH", counting(body, offset, total, listener))
+                .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() != 204) {
+                throw new ApiException(response.statusCode(), "Upload failed", null, null, response.body());
+            }
+            return Long.parseLong(response.headers().firstValue("Upload-Offset").orElse(String.valueOf(offset + length)));
+        } catch (ApiException e) {
+            throw e;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            throw new ApiException(-1, "Upload failed: " + e.getMessage(), null, null, null);
+        }
+    }
+
+    private static HttpRequest.Builder tusRequest(String url, String token) {
+        return HttpRequest.newBuilder()
+            .uri(URI.create(url))
+            .header("apikey", SupabaseConfig.getAnonKey())
+            .header("Authorization", "Bearer " + token)
+            .header("Tus-Resumable", "1.0.0");
+    }
+
+    // ----- Streaming helpers -----
+
+    /**
+     * Reads [offset, offset + length) of the file straight from disk.
+     */
+    private static InputStream slice(Path file, long offset, long length) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            channel.position(offset);
+            return new FilterInputStream(Channels.newInputStream(channel)) {
+                private long remaining = length;
+
+                @Override
+                public int read() throws IOException {
+                    if (remaining <= 0) return -1;
+                    int b = super.read();
+                    if (b >= 0) remaining--;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int off, int len) throws IOException {
+                    if (remaining <= 0) return -1;
+                    int n = super.read(buffer, off, (int) Math.min(len, remaining));
+                    if (n > 0) remaining -= n;
+                    return n;
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Wraps a body publisher to report bytes handed to the connection, starting from alreadySent.
+     */
+    private static HttpRequest.BodyPublisher counting(HttpRequest.BodyPublisher delegate, long alreadySent, long total,
+                                                      UploadProgressListener listener) {
+        if (listener == null) return delegate;
+        return new HttpRequest.BodyPublisher() {
+            @Override
+            public long contentLength() {
+                return delegate.contentLength();
+            }
+
+            @Override
+            public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+                AtomicLong sent = new AtomicLong(alreadySent);
+                delegate.subscribe(new Flow.Subscriber<>() {
+                    @Override
+                    public void onSubscribe(Flow.Subscription subscription) {
+                        subscriber.onSubscribe(subscription);
+                    }
+
+                    @Override
+                    public void onNext(ByteBuffer item) {
+                        long n = item.remaining();
+                        subscriber.onNext(item);
+                        listener.onProgress(sent.addAndGet(n), total);
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        subscriber.onError(throwable);
+                    }
+
+                    @Override
+                    public void onComplete() {
+                        subscriber.onComplete();
+                    }
+                });
+            }
+        };
+    }
+
+    // ----- Resume state -----
+
+    private Path stateFile(String bucket, String path, Path file, long size) {
+        String identity = bucket + "\n" + path + "\n" + file.toAbsolutePath() + "\n" + size + "\n" + lastModified(file);
+        return stateDir.resolve(sha256(identity));
+    }
+
+    private static String readState(Path state) {
+        try {
+            return Files.isRegularFile(state) ? Files.readString(state, StandardCharsets.UTF_8).trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeState(Path state, String uploadUrl) {
+        try {
+            Files.createDirectories(state.getParent());
+            Files.writeString(state, uploadUrl, StandardCharsets.UTF_8);
+        } catch (IOException ignored) {
+            // Upload still works; it just cannot resume after a restart.
+        }
+    }
+
+    private static void deleteState(Path state) {
+        try {
+            Files.deleteIfExists(state);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String b64(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -10,52 +10,154 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
  * Minimal Supabase Realtime websocket subscriber for Postgres changes.
+ * Several channels (calls, messages, ...) share one socket; events are routed by topic.
+ * A dropped socket (close, error or missed heartbeats) is reconnected with exponential backoff and every
+ * channel rejoined with the current access token; a channel the server closes is rejoined the same way.
+ * Changes made while disconnected are not replayed, so owners reload once via {@link #setOnReconnect}.
  */
 public final class SupabaseRealtimeService implements WebSocket.Listener {
 
+    private static final long HEARTBEAT_SECONDS = 20;
+    /** No heartbeat reply for this long means the connection is dead even without a close frame. */
+    private static final long HEARTBEAT_TIMEOUT_MILLIS = 3 * HEARTBEAT_SECONDS * 1000;
+    private static final long MIN_RECONNECT_MILLIS = 1000;
+    private static final long MAX_RECONNECT_MILLIS = 30_000;
+
+    /** Services with channels, so a refreshed access token reaches all of them. */
+    private static final Set<SupabaseRealtimeService> ACTIVE = ConcurrentHashMap.newKeySet();
+
     private final HttpClient client = HttpClient.newHttpClient();
     private final Gson gson = new Gson();
     private final AtomicInteger refCounter = new AtomicInteger(1);
+    private final Map<String, JsonObject> joinPayloads = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<JsonObject>> listeners = new ConcurrentHashMap<>();
+    private final StringBuilder partialText = new StringBuilder();
     private ScheduledExecutorService heartbeatExecutor;
+    private ScheduledFuture<?> heartbeat;
+    private ScheduledFuture<?> reconnect;
+    private long reconnectDelayMillis;
+    private boolean resumed;
+    private volatile long lastReplyAt;
+    private volatile Runnable onReconnect;
+    private CompletableFuture<WebSocket> connecting;
+    /** Tail of the outgoing frames; the WebSocket rejects a sendText while the previous one is pending. */
+    private CompletableFuture<?> lastSend = CompletableFuture.completedFuture(null);
 
     private volatile WebSocket socket;
-    private volatile String topic;
-    private volatile Consumer<JsonObject> changeListener;
 
+    /**
+     * Subscribes to INSERT/UPDATE/DELETE on calls where the user is caller or receiver.
+     */
     public void subscribeToCalls(String userId, String bearerToken, Consumer<JsonObject> onChange) {
-        unsubscribe();
         if (userId == null || userId.isBlank()) return;
+        JsonArray postgresChanges = new JsonArray();
+        postgresChanges.add(changeFilter("*", "calls", "receiver_id=eq." + userId));
+        postgresChanges.add(changeFilter("*", "calls", "caller_id=eq." + userId));
+        join("realtime:calls-" + Math.abs(userId.hashCode()), postgresChanges, bearerToken, onChange);
+    }
 
-        this.changeListener = onChange;
-        this.topic = "realtime:calls-" + Math.abs(userId.hashCode());
-        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "supabase-realtime-heartbeat");
-            thread.setDaemon(true);
-            return thread;
-        });
+    /**
+     * Subscribes to direct messages sent or received by the user.
+     * Realtime cannot filter DELETE events, so deletes arrive unfiltered and callers must match
+     * the old record's id against the open conversation.
+     */
+    public void subscribeToMessages(String userId, String bearerToken, Consumer<JsonObject> onChange) {
+        if (userId == null || userId.isBlank()) return;
+        JsonArray postgresChanges = new JsonArray();
+        postgresChanges.add(changeFilter("INSERT", "messages", "receiver_id=eq." + userId));
+        postgresChanges.add(changeFilter("INSERT", "messages", "sender_id=eq." + userId));
+        postgresChanges.add(changeFilter("UPDATE", "messages", "receiver_id=eq." + userId));
+        postgresChanges.add(changeFilter("UPDATE", "messages", "sender_id=eq." + userId));
+        postgresChanges.add(changeFilter("DELETE", "messages", null));
+        join("realtime:messages-" + Math.abs(userId.hashCode()), postgresChanges, bearerToken, onChange);
+    }
 
-        String base = SupabaseConfig.getSupabaseUrl().replace("https://", "wss://").replace("http://", "ws://");
-        String websocketUrl = base + "/realtime/v1/websocket?apikey=" + SupabaseConfig.getAnonKey() + "&vsn=1.0.0";
-        client.newWebSocketBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .buildAsync(URI.create(websocketUrl), this)
-            .thenAccept(ws -> {
-                socket = ws;
-                joinCallsChannel(userId, bearerToken);
-                heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeat, 20, 20, TimeUnit.SECONDS);
-            });
+    /**
+     * Subscribes to follows and friend_requests rows involving the user (for SocialGraph).
+     * As with messages, DELETE events arrive unfiltered.
+     */
+    public void subscribeToRelationships(String userId, String bearerToken, Consumer<JsonObject> onChange) {
+        if (userId == null || userId.isBlank()) return;
+        JsonArray postgresChanges = new JsonArray();
+        postgresChanges.add(changeFilter("INSERT", "follows", "follower_id=eq." + userId));
+        postgresChanges.add(changeFilter("INSERT", "follows", "following_id=eq." + userId));
+        postgresChanges.add(changeFilter("DELETE", "follows", null));
+        postgresChanges.add(changeFilter("INSERT", "friend_requests", "from_id=eq." + userId));
+        postgresChanges.add(changeFilter("INSERT", "friend_requests", "to_id=eq." + userId));
+        postgresChanges.add(changeFilter("UPDATE", "friend_requests", "from_id=eq." + userId));
+        postgresChanges.add(changeFilter("UPDATE", "friend_requests", "to_id=eq." + userId));
+        postgresChanges.add(changeFilter("DELETE", "friend_requests", null));
+        join("realtime:relationships-" + Math.abs(userId.hashCode()), postgresChanges, bearerToken, onChange);
+    }
+
+    /**
+     * Subscribes to new messages in one community room. Returns without effect for a blank room id.
+     */
+    public void subscribeToCommunityRoom(String roomId, String bearerToken, Consumer<JsonObject> onChange) {
+        if (roomId == null || roomId.isBlank()) return;
+        JsonArray postgresChanges = new JsonArray();
+        postgresChanges.add(changeFilter("INSERT", "community_messages", "room_id=eq." + roomId));
+        join(communityRoomTopic(roomId), postgresChanges, bearerToken, onChange);
+    }
+
+    public void unsubscribeFromCommunityRoom(String roomId) {
+        if (roomId == null || roomId.isBlank()) return;
+        leave(communityRoomTopic(roomId));
+    }
+
+    /**
+     * Subscribes to community_rooms rows of a university (created, renamed, member counts).
+     * DELETE events arrive unfiltered; callers match the old record's id against their room list.
+     */
+    public void subscribeToCommunityRooms(String universityKey, String bearerToken, Consumer<JsonObject> onChange) {
+        if (universityKey == null || universityKey.isBlank()) return;
+        JsonArray postgresChanges = new JsonArray();
+        postgresChanges.add(changeFilter("INSERT", "community_rooms", "university_key=eq." + universityKey));
+        postgresChanges.add(changeFilter("UPDATE", "community_rooms", "university_key=eq." + universityKey));
+        postgresChanges.add(changeFilter("DELETE", "community_rooms", null));
+        join("realtime:community-rooms-" + Math.abs(universityKey.hashCode()), postgresChanges, bearerToken, onChange);
+    }
+
+    /**
+     * Runs on a websocket thread after the socket reconnected or a channel was rejoined. Changes made in the
+     * gap were missed, so this is where owners reload.
+     */
+    public void setOnReconnect(Runnable onReconnect) {
+        this.onReconnect = onReconnect;
     }
 
-    public void unsubscribe() {
+    /**
+     * Sends a refreshed access token to the open channels of every service, and uses it for later rejoins.
+     */
+    public static void accessTokenChanged(String accessToken) {
+        if (accessToken == null || accessToken.isBlank()) return;
+        for (SupabaseRealtimeService service : ACTIVE) {
+            service.updateAccessToken(accessToken);
+        }
+    }
+
+    public synchronized void unsubscribe() {
+        ACTIVE.remove(this);
+        joinPayloads.clear();
+        listeners.clear();
+        connecting = null;
+        reconnect = null;
+        heartbeat = null;
+        reconnectDelayMillis = 0;
         WebSocket existing = socket;
         socket = null;
         if (existing != null) {
@@ -70,7 +172,7 @@ public final class SupabaseRealtimeService implements WebSocket.Listener {
         }
     }
 
-    private void joinCallsChannel(String userId, String bearerToken) {
+    private synchronized void join(String topic, JsonArray postgresChanges, String bearerToken, Consumer<JsonObject> onChange) {
         JsonObject payload = new JsonObject();
         JsonObject config = new JsonObject();
         JsonObject broadcast = new JsonObject();
@@ -82,36 +184,176 @@ public final class SupabaseRealtimeService implements WebSocket.Listener {
         presence.addProperty("enabled", false);
         config.add("presence", presence);
 
-        JsonArray postgresChanges = new JsonArray();
-        JsonObject receiverFilter = new JsonObject();
-        receiverFilter.addProperty("event", "*");
-        receiverFilter.addProperty("schema", "public");
-        receiverFilter.addProperty("table", "calls");
-        receiverFilter.addProperty("filter", "receiver_id=eq." + userId);
-        postgresChanges.add(receiverFilter);
-
-        JsonObject callerFilter = new JsonObject();
-        callerFilter.addProperty("event", "*");
-        callerFilter.addProperty("schema", "public");
-        callerFilter.addProperty("table", "calls");
-        callerFilter.addProperty("filter", "caller_id=eq." + userId);
-        postgresChanges.add(callerFilter);
-
         config.add("postgres_changes", postgresChanges);
         payload.add("config", config);
         if (bearerToken != null && !bearerToken.isBlank()) {
             payload.addProperty("access_token", bearerToken);
         }
 
-        send(topic, "phx_join", payload);
+        joinPayloads.put(topic, payload);
+        listeners.put(topic, onChange);
+        ACTIVE.add(this);
+        if (socket != null) {
+            send(topic, "phx_join", payload);
+        } else {
+            connect();
+        }
+    }
+
+    /**
+     * Leaves one channel and keeps the socket open for the others.
+     */
+    private synchronized void leave(String topic) {
+        if (joinPayloads.remove(topic) == null) return;
+        listeners.remove(topic);
+        send(topic, "phx_leave", new JsonObject());
+    }
+
+    private static String communityRoomTopic(String roomId) {
+        return "realtime:community-room-" + Math.abs(roomId.hashCode());
+    }
+
+    private synchronized void updateAccessToken(String accessToken) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("access_token", accessToken);
+        joinPayloads.forEach((topic, join) -> {
+            join.addProperty("access_token", accessToken);
+            send(topic, "access_token", payload);
+        });
+    }
+
+    private ScheduledExecutorService scheduler() {
+        if (heartbeatExecutor == null) {
+            heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "supabase-realtime-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return heartbeatExecutor;
+    }
+
+    private void connect() {
+        if (connecting != null) return;
+        ScheduledExecutorService timer = scheduler();
+
+        String base = SupabaseConfig.getSupabaseUrl().replace("https://", "wss://").replace("http://", "ws://");
+        String websocketUrl = base + "/realtime/v1/websocket?apikey=" + SupabaseConfig.getAnonKey() + "&vsn=1.0.0";
+        CompletableFuture<WebSocket> attempt = client.newWebSocketBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .buildAsync(URI.create(websocketUrl), this);
+        connecting = attempt;
+        attempt.whenComplete((ws, error) -> {
+            Runnable reload;
+            synchronized (this) {
+                if (connecting != attempt) {
+                    // Unsubscribed while the handshake was in flight.
+                    if (ws != null) ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye");
+                    return;
+                }
+                if (error != null) {
+                    connecting = null;
+                    scheduleReconnect();
+                    return;
+                }
+                socket = ws;
+                lastSend = CompletableFuture.completedFuture(null);
+                lastReplyAt = System.currentTimeMillis();
+                reconnectDelayMillis = 0;
+                joinPayloads.forEach((topic, payload) -> send(topic, "phx_join", payload));
+                heartbeat = timer.scheduleAtFixedRate(this::sendHeartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                reload = resumed ? onReconnect : null;
+                resumed = false;
+            }
+            if (reload != null) reload.run();
+        });
+    }
+
+    // ----- Reconnecting -----
+
+    private synchronized void connectionLost(WebSocket webSocket) {
+        if (webSocket == null || webSocket != socket) return; // closed by unsubscribe, or an older socket
+        socket = null;
+        connecting = null;
+        if (heartbeat != null) heartbeat.cancel(false);
+        heartbeat = null;
+        webSocket.abort();
+        scheduleReconnect();
+    }
+
+    /**
+     * Reconnects after a growing delay and rejoins every channel with the current access token. Holds the lock.
+     */
+    private void scheduleReconnect() {
+        if (joinPayloads.isEmpty() || reconnect != null) return;
+        reconnectDelayMillis = reconnectDelayMillis == 0 ? MIN_RECONNECT_MILLIS : Math.min(MAX_RECONNECT_MILLIS, reconnectDelayMillis * 2);
+        resumed = true;
+        reconnect = scheduler().schedule(() -> {
+            synchronized (this) {
+                reconnect = null;
+                if (joinPayloads.isEmpty() || socket != null) return;
+                useCurrentAccessToken();
+                connect();
+            }
+        }, reconnectDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Rejoins a channel the server closed or refused, e.g. because its access token expired. The token is
+     * refreshed first when the server says so.
+     */
+    private synchronized void rejoinLater(String topic, boolean tokenExpired) {
+        if (!joinPayloads.containsKey(topic) || heartbeatExecutor == null) return;
+        reconnectDelayMillis = reconnectDelayMillis == 0 ? MIN_RECONNECT_MILLIS : Math.min(MAX_RECONNECT_MILLIS, reconnectDelayMillis * 2);
+        scheduler().schedule(() -> {
+            if (tokenExpired) {
+                try {
+                    ApiService.getInstance().refreshAccessToken(); // pushes the new token via accessTokenChanged
+                } catch (ApiException ignored) {
+                }
+            }
+            Runnable reload;
+            synchronized (this) {
+                JsonObject payload = joinPayloads.get(topic);
+                if (payload == null || socket == null) return; // a socket reconnect rejoins it anyway
+                useCurrentAccessToken();
+                send(topic, "phx_join", payload);
+                reload = onReconnect;
+            }
+            if (reload != null) reload.run();
+        }, reconnectDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void useCurrentAccessToken() {
+        String token = ApiService.getInstance().getAccessToken();
+        if (token == null || token.isBlank()) return;
+        joinPayloads.values().forEach(payload -> payload.addProperty("access_token", token));
+    }
+
+    private static JsonObject changeFilter(String event, String table, String filter) {
+        JsonObject change = new JsonObject();
+        change.addProperty("event", event);
+        change.addProperty("schema", "public");
+        change.addProperty("table", table);
+        if (filter != null) change.addProperty("filter", filter);
+        return change;
     }
 
     private void sendHeartbeat() {
-        if (socket == null) return;
+        WebSocket current = socket;
+        if (current == null) return;
+        if (System.currentTimeMillis() - lastReplyAt > HEARTBEAT_TIMEOUT_MILLIS) {
+            connectionLost(current);
+            return;
+        }
         send("phoenix", "heartbeat", new JsonObject());
     }
 
-    private void send(String sendTopic, String event, JsonObject payload) {
+    /**
+     * Queues a frame behind the previous one. A failed send drops the socket, so the reconnect rejoins
+     * every channel instead of leaving a join silently lost.
+     */
+    private synchronized void send(String sendTopic, String event, JsonObject payload) {
         WebSocket current = socket;
         if (current == null) return;
         JsonObject envelope = new JsonObject();
@@ -120,7 +362,17 @@ public final class SupabaseRealtimeService implements WebSocket.Listener {
         envelope.add("payload", payload);
         envelope.addProperty("ref", String.valueOf(refCounter.getAndIncrement()));
         envelope.addProperty("join_ref", "1");
-        current.sendText(gson.toJson(envelope), true);
+        String text = gson.toJson(envelope);
+        lastSend = lastSend
+            .handle((ignored, previousError) -> null)
+            .thenCompose(ignored -> current.sendText(text, true))
+            .whenComplete((ignored, error) -> {
+                if (error == null) return;
+                if ("true".equalsIgnoreCase(System.getProperty("campasian.log.api"))) {
+                    System.err.println("[Campasian Realtime Error] " + event + " on " + sendTopic + " failed: " + error);
+                }
+                connectionLost(current);
+            });
     }
 
     @Override
@@ -131,16 +383,54 @@ public final class SupabaseRealtimeService implements WebSocket.Listener {
 
     @Override
     public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
-        try {
-            JsonObject message = JsonParser.parseString(data.toString()).getAsJsonObject();
-            String event = message.has("event") ? message.get("event").getAsString() : "";
-            if ("postgres_changes".equals(event) && changeListener != null) {
-                JsonObject payload = message.getAsJsonObject("payload");
-                if (payload != null) changeListener.accept(payload);
+        partialText.append(data);
+        if (last) {
+            String text = partialText.toString();
+            partialText.setLength(0);
+            try {
+                JsonObject message = JsonParser.parseString(text).getAsJsonObject();
+                String event = message.has("event") ? message.get("event").getAsString() : "";
+                String messageTopic = message.has("topic") ? message.get("topic").getAsString() : "";
+                JsonObject payload = message.has("payload") && message.get("payload").isJsonObject()
+                    ? message.getAsJsonObject("payload") : null;
+                lastReplyAt = System.currentTimeMillis();
+                Consumer<JsonObject> listener = listeners.get(messageTopic);
+                if ("postgres_changes".equals(event) && listener != null) {
+                    if (payload != null) listener.accept(payload);
+                } else if (isChannelFailure(event, payload)) {
+                    rejoinLater(messageTopic, mentionsExpiredToken(payload));
+                }
+            } catch (Exception ignored) {
             }
-        } catch (Exception ignored) {
         }
         webSocket.request(1);
         return null;
     }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        connectionLost(webSocket);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        connectionLost(webSocket);
+    }
+
+    /**
+     * phx_close / phx_error on a channel, a refused join, or a "system" error (Realtime's report of an
+     * expired token).
+     */
+    private static boolean isChannelFailure(String event, JsonObject payload) {
+        if ("phx_close".equals(event) || "phx_error".equals(event)) return true;
+        String status = payload != null && payload.has("status") && payload.get("status").isJsonPrimitive()
+            ? payload.get("status").getAsString() : null;
+        return ("phx_reply".equals(event) || "system".equals(event)) && "error".equals(status);
+    }
+
+    private static boolean mentionsExpiredToken(JsonObject payload) {
+        String text = payload != null ? payload.toString().toLowerCase() : "";
+        return text.contains("token") && (text.contains("expired") || text.contains("invalid"));
+    }
 }
@@ -0,0 +1,191 @@
+package com.campasian.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Application-wide background scheduler backed by virtual threads.
+ * Each sub-view gets a {@link Scope}; HomeController cancels the previous scope when it swaps views,
+ * which interrupts in-flight loads and stops their results from being rendered.
+ */
+public final class TaskScheduler {
+
+    private static final TaskScheduler INSTANCE = new TaskScheduler();
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("campasian-task-", 1).factory()
+    );
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "campasian-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Scope appScope = new Scope("app");
+    private volatile Scope viewScope = new Scope("view");
+
+    private TaskScheduler() {}
+
+    public static TaskScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs work that must outlive the current view (e.g. writes). Never cancelled by navigation.
+     */
+    public Future<?> submit(Runnable task) {
+        return appScope.submit(task);
+    }
+
+    /**
+     * Scope of the view currently shown in the home content area. Controllers capture it at load time.
+     */
+    public Scope viewScope() {
+        return viewScope;
+    }
+
+    /**
+     * Cancels the current view scope and starts a fresh one for the view about to be loaded.
+     */
+    public Scope beginViewScope(String name) {
+        Scope previous = viewScope;
+        viewScope = new Scope(name);
+        previous.cancel();
+        return viewScope;
+    }
+
+    /**
+     * Group of background tasks tied to one view's lifetime.
+     */
+    public final class Scope {
+
+        private final String name;
+        private final Set<Future<?>> tasks = ConcurrentHashMap.newKeySet();
+        private final List<Runnable> cancelHooks = new CopyOnWriteArrayList<>();
+        private volatile boolean cancelled;
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Runs a task on a virtual thread. Returns an already-cancelled future if the scope is closed.
+         */
+        public Future<?> submit(Runnable task) {
+            FutureTask<Void> future = new FutureTask<>(task, null) {
+                @Override
+                protected void done() {
+                    tasks.remove(this);
+                    reportFailure(this);
+                }
+            };
+            if (cancelled) {
+                future.cancel(false);
+                return future;
+            }
+            tasks.add(future);
+            executor.execute(future);
+            if (cancelled) future.cancel(true);
+            return future;
+        }
+
+        /**
+         * Repeats a task on a virtual thread. A tick is skipped while the previous run is still busy.
+         */
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            AtomicBoolean running = new AtomicBoolean(false);
+            ScheduledFuture<?> future = timer.scheduleAtFixedRate(() -> {
+                if (cancelled || !running.compareAndSet(false, true)) return;
+                submit(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        running.set(false);
+                    }
+                });
+            }, initialDelay, period, unit);
+            tasks.add(future);
+            if (cancelled) future.cancel(false);
+            return future;
+        }
+
+        /**
+         * Cancels the given future together with this scope.
+         */
+        public <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+            if (cancelled) {
+                future.cancel(true);
+                return future;
+            }
+            tasks.add(future);
+            future.whenComplete((result, error) -> tasks.remove(future));
+            return future;
+        }
+
+        /**
+         * Wraps a UI update so it becomes a no-op once the scope is cancelled.
+         */
+        public Runnable guard(Runnable action) {
+            return () -> {
+                if (!cancelled) action.run();
+            };
+        }
+
+        /**
+         * Registers cleanup (closing sockets, stopping timelines) to run when the scope is cancelled.
+         */
+        public void onCancel(Runnable hook) {
+            if (cancelled) {
+                hook.run();
+                return;
+            }
+            cancelHooks.add(hook);
+        }
+
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            for (Future<?> task : tasks) {
+                task.cancel(true);
+            }
+            tasks.clear();
+            for (Runnable hook : cancelHooks) {
+                try {
+                    hook.run();
+                } catch (Exception ignored) {
+                }
+            }
+            cancelHooks.clear();
+        }
+    }
+
+    private static void reportFailure(Future<?> future) {
+        if (future.isCancelled()) return;
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        } catch (InterruptedException | CancellationException ignored) {
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.campasian.service;
+
+/**
+ * Receives upload progress. Called from HTTP threads; marshal to the FX thread before touching UI.
+ */
+@FunctionalInterface
+public interface UploadProgressListener {
+
+    void onProgress(long bytesSent, long totalBytes);
+}
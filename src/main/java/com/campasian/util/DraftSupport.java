@@ -0,0 +1,47 @@
+package com.campasian.util;
+
+import com.campasian.service.ApiService;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+import javafx.stage.Stage;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared handling for compose modals whose writes go through the outbox.
+ * The modal closes as soon as the row is queued; closing only hides the stage, so its fields keep the
+ * draft and the same stage is shown again if the server rejects the row for good.
+ */
+public final class DraftSupport {
+
+    private DraftSupport() {
+    }
+
+    /**
+     * Closes the modal, then runs onSuccess once the server has stored the row, or reopens the modal
+     * with its draft and reports the error if the row was dropped. Both run on the FX thread.
+     */
+    public static void closeUntilDelivered(Stage stage, CompletableFuture<?> delivery, Runnable onSuccess, String what) {
+        if (stage != null) stage.close();
+        delivery.whenComplete((ignored, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                if (onSuccess != null) onSuccess.run();
+                return;
+            }
+            if (stage != null) stage.show();
+            reportRejected(what, error, true);
+        }));
+    }
+
+    /**
+     * Tells the user the server rejected a queued row. Call on the FX thread.
+     */
+    public static void reportRejected(String what, Throwable error, boolean draftRestored) {
+        String details = ApiService.unwrap(error).getMessage();
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setHeaderText("Could not save your " + what);
+        alert.setContentText("The server rejected it" + (details != null && !details.isBlank() ? " (" + details + ")" : "")
+            + (draftRestored ? ". Your draft has been restored." : "."));
+        alert.showAndWait();
+    }
+}
@@ -0,0 +1,394 @@
+package com.campasian.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Resizes and re-encodes images before they are uploaded to Storage.
+ * Output is a fresh encode, so EXIF/GPS and other metadata are dropped; the EXIF orientation is
+ * applied to the pixels first so phone photos stay upright. Animated GIFs and formats ImageIO
+ * cannot decode (e.g. WEBP) keep their pixel data as-is, but their metadata blocks are cut out.
+ */
+public final class ImageCompressor {
+
+    public static final int MAX_DIMENSION = 1600;
+    public static final int AVATAR_DIMENSION = 512;
+
+    private static final long TARGET_BYTES = 600L * 1024L;
+    private static final float[] JPEG_QUALITIES = { 0.82f, 0.72f, 0.6f };
+    private static final Set<String> PNG_METADATA_CHUNKS = Set.of("tEXt", "zTXt", "iTXt", "eXIf", "tIME");
+
+    private ImageCompressor() {
+    }
+
+    /**
+     * Compresses the source to fit maxDimension. Never throws: on any decode/encode problem the
+     * original image is returned with its metadata stripped.
+     */
+    public static Result compress(byte[] source, String extension, String contentType, int maxDimension) {
+        if (source == null || source.length == 0) return new Result(source, extension, contentType);
+        Result original = new Result(stripMetadata(source, extension), extension, contentType);
+        if ("gif".equals(extension)) return original;
+        try {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(source));
+            if (decoded == null) return original;
+            BufferedImage upright = applyOrientation(decoded, "jpg".equals(extension) || "jpeg".equals(extension)
+                ? exifOrientation(source) : 1);
+            boolean transparent = hasTransparency(upright);
+
+            byte[] main = encode(scale(upright, maxDimension, transparent), transparent);
+            boolean resized = Math.max(upright.getWidth(), upright.getHeight()) > maxDimension;
+            if (transparent && !resized && "png".equals(extension) && main.length > source.length) {
+                main = original.bytes; // ImageIO's PNG encoder is not always smaller than the original
+            }
+            return new Result(main, transparent ? "png" : "jpg", transparent ? "image/png" : "image/jpeg");
+        } catch (Exception | OutOfMemoryError e) {
+            return original;
+        }
+    }
+
+    // ----- Metadata -----
+
+    /**
+     * Cuts metadata out of an image that is uploaded without re-encoding: APPn/COM segments of a JPEG
+     * (JFIF, ICC and Adobe are kept), text/EXIF/time chunks of a PNG, EXIF/XMP chunks of a WEBP and
+     * comment/XMP extensions of a GIF. Pixel data is copied unchanged. Input that does not parse as the
+     * given format is returned as-is.
+     */
+    static byte[] stripMetadata(byte[] source, String extension) {
+        try {
+            byte[] stripped = switch (extension == null ? "" : extension) {
+                case "jpg", "jpeg" -> stripJpeg(source);
+                case "png" -> stripPng(source);
+                case "webp" -> stripWebp(source);
+                case "gif" -> stripGif(source);
+                default -> null;
+            };
+            return stripped != null ? stripped : source;
+        } catch (RuntimeException e) {
+            return source;
+        }
+    }
+
+    private static byte[] stripJpeg(byte[] b) {
+        if (b.length < 4 || (b[0] & 0xFF) != 0xFF || (b[1] & 0xFF) != 0xD8) return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(b.length);
+        out.write(b, 0, 2);
+        int pos = 2;
+        while (pos + 4 <= b.length) {
+            if ((b[pos] & 0xFF) != 0xFF) return null;
+            int marker = b[pos + 1] & 0xFF;
+            if (marker == 0xFF) { // fill byte
+                pos++;
+                continue;
+            }
+            if (marker == 0xDA) { // start of scan: the rest is image data
+                out.write(b, pos, b.length - pos);
+                return out.toByteArray();
+            }
+            int end = pos + 2 + (((b[pos + 2] & 0xFF) << 8) | (b[pos + 3] & 0xFF));
+            if (end > b.length) return null;
+            boolean metadata = marker == 0xFE || (marker >= 0xE1 && marker <= 0xEF && marker != 0xEE
+                && !(marker == 0xE2 && startsWith(b, pos + 4, "ICC_PROFILE")));
+            if (!metadata) out.write(b, pos, end - pos);
+            pos = end;
+        }
+        return null;
+    }
+
+    private static byte[] stripPng(byte[] b) {
+        if (b.length < 8 || (b[0] & 0xFF) != 0x89 || b[1] != 'P' || b[2] != 'N' || b[3] != 'G') return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(b.length);
+        out.write(b, 0, 8);
+        int pos = 8;
+        while (pos + 12 <= b.length) {
+            long length = readInt(b, pos, false) & 0xFFFFFFFFL;
+            if (pos + 12 + length > b.length) return null;
+            int end = pos + 12 + (int) length;
+            String type = new String(b, pos + 4, 4, StandardCharsets.US_ASCII);
+            if (!PNG_METADATA_CHUNKS.contains(type)) out.write(b, pos, end - pos);
+            pos = end;
+            if ("IEND".equals(type)) return out.toByteArray();
+        }
+        return null;
+    }
+
+    private static byte[] stripWebp(byte[] b) {
+        if (b.length < 12 || b[0] != 'R' || b[1] != 'I' || b[2] != 'F' || b[3] != 'F'
+            || b[8] != 'W' || b[9] != 'E' || b[10] != 'B' || b[11] != 'P') return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(b.length);
+        out.write(b, 0, 12);
+        int pos = 12;
+        while (pos + 8 <= b.length) {
+            long size = readInt(b, pos + 4, true) & 0xFFFFFFFFL;
+            long padded = size + (size & 1);
+            if (pos + 8 + padded > b.length) return null;
+            int end = pos + 8 + (int) padded;
+            String fourCc = new String(b, pos, 4, StandardCharsets.US_ASCII);
+            if ("VP8X".equals(fourCc) && size >= 1) {
+                byte[] chunk = Arrays.copyOfRange(b, pos, end);
+                chunk[8] &= ~0x0C; // clear the EXIF and XMP flags
+                out.write(chunk, 0, chunk.length);
+            } else if (!"EXIF".equals(fourCc) && !"XMP ".equals(fourCc)) {
+                out.write(b, pos, end - pos);
+            }
+            pos = end;
+        }
+        byte[] result = out.toByteArray();
+        int riffSize = result.length - 8;
+        result[4] = (byte) riffSize;
+        result[5] = (byte) (riffSize >>> 8);
+        result[6] = (byte) (riffSize >>> 16);
+        result[7] = (byte) (riffSize >>> 24);
+        return result;
+    }
+
+    private static byte[] stripGif(byte[] b) {
+        if (b.length < 13 || b[0] != 'G' || b[1] != 'I' || b[2] != 'F') return null;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(b.length);
+        int pos = 13 + colorTableSize(b[10]);
+        if (pos > b.length) return null;
+        out.write(b, 0, pos);
+        while (pos < b.length) {
+            int start = pos;
+            int introducer = b[pos] & 0xFF;
+            if (introducer == 0x3B) { // trailer
+                out.write(b, pos, 1);
+                return out.toByteArray();
+            }
+            boolean metadata = false;
+            if (introducer == 0x21) {
+                int label = b[pos + 1] & 0xFF;
+                metadata = label == 0xFE || (label == 0xFF && startsWith(b, pos + 3, "XMP DataXMP"));
+                pos = skipSubBlocks(b, pos + 2);
+            } else if (introducer == 0x2C) {
+                pos += 10 + colorTableSize(b[pos + 9]);
+                pos = skipSubBlocks(b, pos + 1); // LZW minimum code size, then the data sub-blocks
+            } else {
+                return null;
+            }
+            if (pos > b.length) return null;
+            if (!metadata) out.write(b, start, pos - start);
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] b, int at, String ascii) {
+        return at + ascii.length() <= b.length && new String(b, at, ascii.length(), StandardCharsets.US_ASCII).equals(ascii);
+    }
+
+    private static int colorTableSize(byte packed) {
+        return (packed & 0x80) != 0 ? 3 * (1 << ((packed & 0x07) + 1)) : 0;
+    }
+
+    /**
+     * Returns the position just past a chain of GIF data sub-blocks and its zero-length terminator.
+     */
+    private static int skipSubBlocks(byte[] b, int pos) {
+        while (pos < b.length) {
+            int size = b[pos] & 0xFF;
+            pos += 1 + size;
+            if (size == 0) return pos;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    // ----- Encoding -----
+
+    private static byte[] encode(BufferedImage image, boolean transparent) throws IOException {
+        if (transparent) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        byte[] best = null;
+        for (float quality : JPEG_QUALITIES) {
+            best = encodeJpeg(image, quality);
+            if (best.length <= TARGET_BYTES) break;
+        }
+        return best;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) throw new IOException("No JPEG writer available");
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // ----- Pixels -----
+
+    /**
+     * Downscales in halving steps with bilinear filtering, which avoids the aliasing of a single large step.
+     * Always returns an INT_RGB / INT_ARGB copy so the JPEG writer never sees an alpha channel.
+     */
+    private static BufferedImage scale(BufferedImage source, int maxDimension, boolean transparent) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double factor = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * factor));
+        int targetHeight = Math.max(1, (int) Math.round(height * factor));
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            if (factor >= 1.0) {
+                currentWidth = targetWidth;
+                currentHeight = targetHeight;
+            }
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight,
+                transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!transparent) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private static boolean hasTransparency(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) return false;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) >>> 24) != 0xFF) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rotates/mirrors the pixels according to an EXIF orientation value (1-8).
+     */
+    private static BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation < 2 || orientation > 8) return image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.rotate(-Math.PI / 2); t.scale(-1, 1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.translate(h, w); t.rotate(Math.PI / 2); t.scale(-1, 1); }
+            default -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+        }
+        boolean swap = orientation >= 5;
+        BufferedImage rotated = new BufferedImage(swap ? h : w, swap ? w : h,
+            image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rotated.createGraphics();
+        try {
+            g.drawImage(image, t, null);
+        } finally {
+            g.dispose();
+        }
+        return rotated;
+    }
+
+    /**
+     * Reads the orientation tag (0x0112) from a JPEG's APP1 Exif segment. Returns 1 when absent.
+     */
+    private static int exifOrientation(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) return 1;
+        int pos = 2;
+        while (pos + 4 <= jpeg.length && (jpeg[pos] & 0xFF) == 0xFF) {
+            int marker = jpeg[pos + 1] & 0xFF;
+            int length = ((jpeg[pos + 2] & 0xFF) << 8) | (jpeg[pos + 3] & 0xFF);
+            if (marker == 0xDA || length < 2) break; // start of scan: no more metadata
+            int segment = pos + 4;
+            if (marker == 0xE1 && segment + 14 <= jpeg.length
+                && jpeg[segment] == 'E' && jpeg[segment + 1] == 'x' && jpeg[segment + 2] == 'i' && jpeg[segment + 3] == 'f') {
+                return readTiffOrientation(jpeg, segment + 6, Math.min(jpeg.length, pos + 2 + length));
+            }
+            pos += 2 + length;
+        }
+        return 1;
+    }
+
+    private static int readTiffOrientation(byte[] b, int tiff, int end) {
+        boolean little = b[tiff] == 'I';
+        int ifd = tiff + readInt(b, tiff + 4, little);
+        if (ifd + 2 > end) return 1;
+        int entries = readShort(b, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) break;
+            if (readShort(b, entry, little) == 0x0112) return readShort(b, entry + 8, little);
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] b, int at, boolean little) {
+        return little ? (b[at] & 0xFF) | ((b[at + 1] & 0xFF) << 8) : ((b[at] & 0xFF) << 8) | (b[at + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] b, int at, boolean little) {
+        return little
+            ? (b[at] & 0xFF) | ((b[at + 1] & 0xFF) << 8) | ((b[at + 2] & 0xFF) << 16) | ((b[at + 3] & 0xFF) << 24)
+            : ((b[at] & 0xFF) << 24) | ((b[at + 1] & 0xFF) << 16) | ((b[at + 2] & 0xFF) << 8) | (b[at + 3] & 0xFF);
+    }
+
+    /**
+     * Upload-ready image bytes with the extension and content type that match them.
+     */
+    public static final class Result {
+        private final byte[] bytes;
+        private final String extension;
+        private final String contentType;
+
+        private Result(byte[] bytes, String extension, String contentType) {
+            this.bytes = bytes;
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.campasian.util;
 
+import com.campasian.config.AppPaths;
+import com.campasian.service.ApiException;
+import com.campasian.service.ApiService;
+import com.campasian.service.UploadProgressListener;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Labeled;
 import javafx.scene.image.Image;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
@@ -9,16 +15,27 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Shared image selection and validation helpers for post and chat uploads.
+ * Shared image selection, validation and upload helpers for post, chat, community and avatar images.
+ * Selected images are resized and re-encoded by {@link ImageCompressor} before they are handed out.
+ * Uploads are staged to a file named by content hash and streamed from there, so retrying the same image
+ * reuses the same file and storage path and a resumable upload continues where it stopped.
  */
 public final class ImageSelectionSupport {
 
     public static final long MAX_IMAGE_BYTES = 5L * 1024L * 1024L;
     private static final Set<String> ALLOWED_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "webp");
+    /** Supabase expires unfinished resumable uploads after a day, so older staged files cannot resume. */
+    private static final long STAGED_MAX_AGE_MILLIS = 24L * 60 * 60 * 1000;
 
     private ImageSelectionSupport() {
     }
@@ -55,11 +72,13 @@ public final class ImageSelectionSupport {
                     showValidationError("The selected file could not be loaded as an image.");
                     return null;
                 }
+                ImageCompressor.Result compressed = ImageCompressor.compress(
+                    bytes, extension, contentTypeFor(extension), ImageCompressor.MAX_DIMENSION);
                 return new SelectedImage(
                     file.getName(),
-                    extension,
-                    bytes,
-                    contentTypeFor(extension),
+                    compressed.getExtension(),
+                    compressed.getBytes(),
+                    compressed.getContentType(),
                     preview
                 );
             }
@@ -69,9 +88,82 @@ public final class ImageSelectionSupport {
         }
     }
 
-    public static String buildStoragePath(String userId, String extension) {
+    /**
+     * Uploads image bytes to the bucket under objectPrefix (e.g. "userId/") plus the content hash, and returns
+     * the public URL. Call off the FX thread. Progress (may be null) is reported from HTTP threads.
+     */
+    public static String uploadImage(String bucket, String objectPrefix, byte[] bytes, String extension,
+                                     String contentType, UploadProgressListener progress) throws ApiException {
         String safeExtension = ALLOWED_EXTENSIONS.contains(extension) ? extension : "png";
-        return userId + "/" + System.currentTimeMillis() + "." + safeExtension;
+        Path staged;
+        try {
+            staged = stage(bytes, safeExtension);
+        } catch (IOException e) {
+            throw new ApiException(-1, "Upload failed: " + e.getMessage(), null, null, null);
+        }
+        String url = ApiService.getInstance().uploadFileToStorage(
+            bucket, objectPrefix + staged.getFileName(), staged, contentType, progress);
+        deleteQuietly(staged);
+        return url;
+    }
+
+    /**
+     * Progress listener that shows the percentage sent as the control's text. Callers restore the text.
+     */
+    public static UploadProgressListener progressOn(Labeled target) {
+        if (target == null) return null;
+        AtomicInteger shown = new AtomicInteger(-1);
+        return (sent, total) -> {
+            int percent = total > 0 ? (int) Math.min(100, sent * 100 / total) : 0;
+            if (shown.getAndSet(percent) != percent) Platform.runLater(() -> target.setText(percent + "%"));
+        };
+    }
+
+    /**
+     * Writes the bytes to the staging directory unless an identical file is already there, and drops staged
+     * files too old to resume.
+     */
+    private static Path stage(byte[] bytes, String extension) throws IOException {
+        Path dir = AppPaths.getCacheDir("uploads");
+        Files.createDirectories(dir);
+        try (var files = Files.list(dir)) {
+            long cutoff = System.currentTimeMillis() - STAGED_MAX_AGE_MILLIS;
+            files.filter(p -> lastModified(p) < cutoff).forEach(ImageSelectionSupport::deleteQuietly);
+        }
+        Path file = dir.resolve(sha256(bytes) + "." + extension);
+        if (!Files.isRegularFile(file)) {
+            Path tmp = Files.createTempFile(dir, "staging", ".tmp");
+            try {
+                Files.write(tmp, bytes);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                deleteQuietly(tmp);
+            }
+        }
+        return file;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private static String extensionOf(String fileName) {
@@ -1,5 +1,6 @@
 package com.campasian.view;
 
+import com.campasian.service.TaskScheduler;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -25,6 +26,7 @@ public final class SceneManager {
             throw new IllegalStateException("SceneManager not initialized. Call initialize(Stage) in Application.start().");
         }
         try {
+            TaskScheduler.getInstance().beginViewScope(fxmlPath);
             Parent root = FXMLLoader.load(SceneManager.class.getResource(fxmlPath));
             Scene scene = primaryStage.getScene();
             if (scene == null) {
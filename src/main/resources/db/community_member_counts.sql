@@ -0,0 +1,58 @@
+-- Run this in Supabase SQL Editor so clients can read community member counts without downloading
+-- every profile. Requires profiles (profiles_table.sql).
+--
+-- Counts students of the caller's university the same way the app groups them: the first three
+-- characters of the EIN match, or the normalized university names match. The department count is
+-- the subset whose department equals p_department (case-insensitive). Both are at least 1.
+-- The two expression indexes below match both sides of the OR, so the lookup is a bitmap OR of two
+-- index scans instead of a scan over every profile.
+
+CREATE OR REPLACE FUNCTION public.community_normalize_key(p_value TEXT)
+RETURNS TEXT
+LANGUAGE sql
+IMMUTABLE
+AS $$
+    SELECT btrim(
+        regexp_replace(replace(lower(btrim(coalesce(p_value, ''))), '&', 'and'), '[^a-z0-9]+', '-', 'g'),
+        '-'
+    );
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_profiles_university_key
+    ON public.profiles (public.community_normalize_key(university_name));
+CREATE INDEX IF NOT EXISTS idx_profiles_ein_prefix
+    ON public.profiles (lower(left(btrim(ein_number), 3)));
+
+CREATE OR REPLACE FUNCTION public.community_member_counts(
+    p_university_name TEXT,
+    p_ein_number TEXT,
+    p_department TEXT
+)
+RETURNS JSON
+LANGUAGE sql
+STABLE
+SECURITY DEFINER
+SET search_path = public
+AS $$
+    WITH same_university AS (
+        SELECT p.department
+        FROM public.profiles p
+        WHERE (
+                length(btrim(coalesce(p_ein_number, ''))) >= 3
+                AND length(btrim(coalesce(p.ein_number, ''))) >= 3
+                AND lower(left(btrim(p.ein_number), 3)) = lower(left(btrim(p_ein_number), 3))
+            )
+            OR public.community_normalize_key(p.university_name) = public.community_normalize_key(p_university_name)
+    )
+    SELECT json_build_object(
+        'university_count', greatest(count(*), 1),
+        'department_count', greatest(count(*) FILTER (
+            WHERE lower(btrim(coalesce(department, ''))) = lower(btrim(coalesce(p_department, '')))
+        ), 1)
+    )
+    FROM same_university;
+$$;
+
+REVOKE ALL ON FUNCTION public.community_member_counts(TEXT, TEXT, TEXT) FROM public;
+GRANT EXECUTE ON FUNCTION public.community_member_counts(TEXT, TEXT, TEXT) TO authenticated;
+
@@ -0,0 +1,26 @@
+-- Run this in Supabase SQL Editor to stream community rooms and messages to open Community views.
+-- Requires community_rooms and community_messages.
+
+-- Full replica identity so DELETE events on rooms carry the old row's id.
+ALTER TABLE public.community_rooms REPLICA IDENTITY FULL;
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_publication_tables
+        WHERE pubname = 'supabase_realtime'
+          AND schemaname = 'public'
+          AND tablename = 'community_messages'
+    ) THEN
+        ALTER PUBLICATION supabase_realtime ADD TABLE public.community_messages;
+    END IF;
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_publication_tables
+        WHERE pubname = 'supabase_realtime'
+          AND schemaname = 'public'
+          AND tablename = 'community_rooms'
+    ) THEN
+        ALTER PUBLICATION supabase_realtime ADD TABLE public.community_rooms;
+    END IF;
+END $$;
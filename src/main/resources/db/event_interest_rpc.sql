@@ -0,0 +1,53 @@
+-- =============================================================================
+-- Atomic event interest toggle
+-- Run this in Supabase SQL Editor AFTER academic_community.sql
+--
+-- The client calls POST /rest/v1/rpc/toggle_event_interest {"p_event_id": ...}
+-- once per click. The interest row and campus_events.interested_count change in
+-- one transaction, under a row lock on the event, so concurrent toggles never
+-- lose updates. Returns {"interested_count": n, "interested": true|false}.
+-- =============================================================================
+
+CREATE OR REPLACE FUNCTION public.toggle_event_interest(p_event_id UUID)
+RETURNS JSON AS $$
+DECLARE
+    uid          UUID := auth.uid();
+    removed      INTEGER;
+    new_count    INTEGER;
+BEGIN
+    IF uid IS NULL THEN
+        RAISE EXCEPTION 'Not authenticated' USING ERRCODE = '28000';
+    END IF;
+
+    -- Serialize toggles on this event; also fails fast if the event is gone.
+    PERFORM 1 FROM public.campus_events WHERE id = p_event_id FOR UPDATE;
+    IF NOT FOUND THEN
+        RAISE EXCEPTION 'Event not found' USING ERRCODE = 'P0002';
+    END IF;
+
+    DELETE FROM public.event_interests WHERE event_id = p_event_id AND user_id = uid;
+    GET DIAGNOSTICS removed = ROW_COUNT;
+
+    IF removed > 0 THEN
+        UPDATE public.campus_events
+            SET interested_count = GREATEST(COALESCE(interested_count, 0) - 1, 0)
+            WHERE id = p_event_id
+            RETURNING interested_count INTO new_count;
+    ELSE
+        INSERT INTO public.event_interests (event_id, user_id) VALUES (p_event_id, uid);
+        UPDATE public.campus_events
+            SET interested_count = COALESCE(interested_count, 0) + 1
+            WHERE id = p_event_id
+            RETURNING interested_count INTO new_count;
+    END IF;
+
+    RETURN json_build_object('interested_count', new_count, 'interested', removed = 0);
+END;
+$$ LANGUAGE plpgsql SECURITY DEFINER SET search_path = public;
+
+REVOKE ALL ON FUNCTION public.toggle_event_interest(UUID) FROM public;
+GRANT EXECUTE ON FUNCTION public.toggle_event_interest(UUID) TO authenticated;
+
+-- Optional one-off repair of counts drifted by the old read-modify-write client:
+-- UPDATE public.campus_events e
+--     SET interested_count = (SELECT count(*) FROM public.event_interests i WHERE i.event_id = e.id);
@@ -0,0 +1,17 @@
+-- Run this in Supabase SQL Editor to stream direct messages to the chat view over Realtime.
+-- Requires the messages table from advanced_features.sql.
+
+-- Full replica identity so UPDATE/DELETE events carry the old row (needed to remove deleted bubbles).
+ALTER TABLE public.messages REPLICA IDENTITY FULL;
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_publication_tables
+        WHERE pubname = 'supabase_realtime'
+          AND schemaname = 'public'
+          AND tablename = 'messages'
+    ) THEN
+        ALTER PUBLICATION supabase_realtime ADD TABLE public.messages;
+    END IF;
+END $$;
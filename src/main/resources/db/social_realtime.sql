@@ -0,0 +1,27 @@
+-- Run this in Supabase SQL Editor to stream follows and friend requests to the client's social graph.
+-- Requires follows (social_schema.sql) and friend_requests (social_extensions.sql).
+
+-- Full replica identity so DELETE events carry the whole old row (follower/following ids, request ids).
+ALTER TABLE public.follows REPLICA IDENTITY FULL;
+ALTER TABLE public.friend_requests REPLICA IDENTITY FULL;
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_publication_tables
+        WHERE pubname = 'supabase_realtime'
+          AND schemaname = 'public'
+          AND tablename = 'follows'
+    ) THEN
+        ALTER PUBLICATION supabase_realtime ADD TABLE public.follows;
+    END IF;
+    IF NOT EXISTS (
+        SELECT 1
+        FROM pg_publication_tables
+        WHERE pubname = 'supabase_realtime'
+          AND schemaname = 'public'
+          AND tablename = 'friend_requests'
+    ) THEN
+        ALTER PUBLICATION supabase_realtime ADD TABLE public.friend_requests;
+    END IF;
+END $$;
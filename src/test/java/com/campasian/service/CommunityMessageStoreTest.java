@@ -0,0 +1,146 @@
+package com.campasian.service;
+
+import com.campasian.model.CommunityMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommunityMessageStoreTest {
+
+    private static final String ROOM = "room-1";
+    private static final String AT = "2026-03-01T10:00:00+00:00";
+
+    private final CommunityMessageStore store = new CommunityMessageStore();
+
+    @Test
+    void bulkRowsSharingCreatedAtStayDistinctAndOrderById() {
+        List<CommunityMessage> added = store.mergeLatest(ROOM, List.of(
+            message("12", AT, "same text"),
+            message("2", AT, "same text"),
+            message("7", "2026-03-01T09:59:59Z", "earlier")));
+
+        assertEquals(3, added.size());
+        assertEquals(List.of("7", "2", "12"), ids(store.cached(ROOM)));
+    }
+
+    @Test
+    void mergeSkipsRowsAlreadyCachedById() {
+        store.mergeLatest(ROOM, List.of(message("1", AT, "a"), message("2", AT, "b")));
+
+        List<CommunityMessage> added = store.mergeLatest(ROOM, List.of(
+            message("2", AT, "b"),
+            message("3", "2026-03-01T10:00:01Z", "c")));
+
+        assertEquals(List.of("3"), ids(added));
+        assertEquals(List.of("1", "2", "3"), ids(store.cached(ROOM)));
+    }
+
+    @Test
+    void timestampsInDifferentOffsetsAreOrderedByInstant() {
+        store.mergeLatest(ROOM, List.of(
+            message("1", "2026-03-01T12:00:00+02:00", "ten utc"),
+            message("2", "2026-03-01T09:30:00Z", "half nine utc")));
+
+        assertEquals(List.of("2", "1"), ids(store.cached(ROOM)));
+    }
+
+    @Test
+    void rowsWithoutCreatedAtSortLast() {
+        store.mergeLatest(ROOM, List.of(message("1", null, "no time"), message("2", AT, "timed")));
+
+        assertEquals(List.of("2", "1"), ids(store.cached(ROOM)));
+    }
+
+    @Test
+    void firstPageDecidesWhetherOlderHistoryExists() {
+        List<CommunityMessage> full = new ArrayList<>();
+        for (int i = 0; i < CommunityMessageStore.PAGE_SIZE; i++) full.add(message(String.valueOf(i), AT, "m" + i));
+        store.mergeLatest(ROOM, full);
+        store.mergeLatest("other", List.of(message("x", AT, "only one")));
+
+        assertTrue(store.hasOlder(ROOM));
+        assertFalse(store.hasOlder("other"));
+        assertFalse(store.hasOlder("never-fetched"));
+    }
+
+    @Test
+    void realtimeAddReportsOnlyNewRows() {
+        store.mergeLatest(ROOM, List.of(message("1", AT, "a")));
+
+        assertFalse(store.add(message("1", AT, "a")));
+        assertTrue(store.add(message("2", "2026-03-01T10:00:05Z", "b")));
+        assertEquals(List.of("1", "2"), ids(store.cached(ROOM)));
+    }
+
+    @Test
+    void realtimeAddOnAnUnfetchedRoomIsLeftForTheFirstFetch() {
+        assertTrue(store.add(message("1", AT, "a")));
+        assertTrue(store.cached(ROOM).isEmpty());
+        assertFalse(store.add(null));
+    }
+
+    @Test
+    void realtimeRowsDoNotMoveTheFetchCursor() throws ApiException {
+        FakeSource server = new FakeSource();
+        CommunityMessageStore store = new CommunityMessageStore(server);
+        server.latest = List.of(message("1", "2026-03-01T10:00:00Z", "a"), message("2", "2026-03-01T10:01:00Z", "b"));
+        store.fetchNewer(ROOM);
+
+        // Delivered right after a reconnect, before the catch-up fetch.
+        assertTrue(store.add(message("9", "2026-03-01T10:05:00Z", "live")));
+        server.newer = List.of(message("5", "2026-03-01T10:03:00Z", "sent while offline"), message("9", "2026-03-01T10:05:00Z", "live"));
+        List<CommunityMessage> added = store.fetchNewer(ROOM);
+
+        assertEquals(List.of("2026-03-01T10:01:00Z", "2"), server.afterCalls.get(0));
+        assertEquals(List.of("5"), ids(added));
+        assertEquals(List.of("1", "2", "5", "9"), ids(store.cached(ROOM)));
+
+        server.newer = List.of();
+        store.fetchNewer(ROOM);
+        assertEquals(List.of("2026-03-01T10:05:00Z", "9"), server.afterCalls.get(1));
+    }
+
+    @Test
+    void sameRowComparesIdsWhenBothHaveOne() {
+        assertTrue(CommunityMessageStore.sameRow(message("1", AT, "a"), message("1", AT, "edited")));
+        assertFalse(CommunityMessageStore.sameRow(message("1", AT, "a"), message("2", AT, "a")));
+    }
+
+    @Test
+    void sameRowFallsBackToContentWhenAnIdIsMissing() {
+        CommunityMessage optimistic = message(null, "2026-03-01T12:00:00+02:00", "hello");
+
+        assertTrue(CommunityMessageStore.sameRow(optimistic, message("9", "2026-03-01T10:00:00Z", "hello")));
+        assertFalse(CommunityMessageStore.sameRow(optimistic, message("9", "2026-03-01T10:00:00Z", "hello!")));
+    }
+
+    private static final class FakeSource implements CommunityMessageStore.Source {
+        List<CommunityMessage> latest = List.of();
+        List<CommunityMessage> newer = List.of();
+        final List<List<String>> afterCalls = new ArrayList<>();
+
+        @Override
+        public List<CommunityMessage> after(String roomId, String createdAfter, String afterId) {
+            afterCalls.add(List.of(createdAfter, afterId));
+            return newer;
+        }
+
+        @Override
+        public List<CommunityMessage> before(String roomId, String createdBefore, String beforeId, int limit) {
+            return createdBefore == null ? latest : List.of();
+        }
+    }
+
+    private static CommunityMessage message(String id, String createdAt, String content) {
+        return new CommunityMessage(id, ROOM, "user-1", "User One", content, null, createdAt);
+    }
+
+    private static List<String> ids(List<CommunityMessage> messages) {
+        return messages.stream().map(CommunityMessage::getId).toList();
+    }
+}
@@ -0,0 +1,82 @@
+package com.campasian.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LruCacheTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+
+    @Test
+    void evictsLeastRecentlyUsedEntryOverCapacity() {
+        LruCache<String, String> cache = new LruCache<>(2, HOUR, HOUR);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a")); // a is now more recent than b
+        cache.put("c", "C");
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void staleEntryIsServedOnlyThroughGetAllowStale() {
+        LruCache<String, String> cache = new LruCache<>(4, 0, HOUR);
+        cache.put("a", "A");
+
+        assertNull(cache.get("a"));
+        assertFalse(cache.isFresh("a"));
+        assertEquals("A", cache.getAllowStale("a"));
+        assertEquals(1, cache.getStaleHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void entryPastStaleWindowIsDropped() {
+        LruCache<String, String> cache = new LruCache<>(4, 0, 0);
+        cache.put("a", "A");
+
+        assertNull(cache.getAllowStale("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void freshEntryCountsAsHit() {
+        LruCache<String, String> cache = new LruCache<>(4, HOUR, 0);
+        cache.put("a", "A");
+
+        assertTrue(cache.isFresh("a"));
+        assertEquals("A", cache.getAllowStale("a"));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void nullKeysAndValuesAreNotStored() {
+        LruCache<String, String> cache = new LruCache<>(4, HOUR, HOUR);
+        cache.put(null, "A");
+        cache.put("a", null);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void removeAndClearDropEntries() {
+        LruCache<String, String> cache = new LruCache<>(4, HOUR, HOUR);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.remove("a");
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
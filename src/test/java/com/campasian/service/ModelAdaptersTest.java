@@ -0,0 +1,107 @@
+package com.campasian.service;
+
+import com.campasian.model.CommunityMessage;
+import com.campasian.model.CommunityRoom;
+import com.campasian.model.Post;
+import com.campasian.model.UserProfile;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelAdaptersTest {
+
+    @Test
+    void mapsPostColumnsAndEmbeddedCounts() throws IOException {
+        String body = "[{\"id\": 42, \"user_id\": \"u1\", \"user_name\": \"Ana\", \"content\": \"hi\","
+            + " \"university\": \"DU\", \"created_at\": \"2026-01-02T03:04:05+00:00\", \"image_url\": null,"
+            + " \"likes\": [{\"count\": 3}], \"comments\": [{\"count\": 2}], \"unknown\": {\"nested\": [1, 2]}}]";
+
+        List<Post> posts = ModelAdapters.readList(body, Post.class);
+
+        assertEquals(1, posts.size());
+        Post post = posts.get(0);
+        assertEquals(42L, (long) post.getId());
+        assertEquals("u1", post.getUserId());
+        assertEquals("Ana", post.getUserName());
+        assertEquals("hi", post.getContent());
+        assertEquals("DU", post.getUniversity());
+        assertEquals("2026-01-02T03:04:05+00:00", post.getCreatedAt());
+        assertNull(post.getImageUrl());
+        assertEquals(3, post.getLikeCount());
+        assertEquals(2, post.getCommentCount());
+    }
+
+    @Test
+    void readsNumericColumnsIntoStringFields() throws IOException {
+        String body = "[{\"id\": \"u1\", \"full_name\": \"Ana\", \"university_name\": \"DU\", \"ein_number\": 123456,"
+            + " \"department\": \"CSE\", \"batch\": 27}]";
+
+        UserProfile profile = ModelAdapters.readList(body, UserProfile.class).get(0);
+
+        assertEquals("u1", profile.getId());
+        assertEquals("Ana", profile.getFullName());
+        assertEquals("DU", profile.getUniversityName());
+        assertEquals("123456", profile.getEinNumber());
+        assertEquals("CSE", profile.getDepartment());
+        assertEquals("27", profile.getBatch());
+    }
+
+    @Test
+    void skipsNullAndNonObjectRows() throws IOException {
+        List<Post> posts = ModelAdapters.readList("[null, 7, \"x\", {\"id\": 1}]", Post.class);
+
+        assertEquals(1, posts.size());
+        assertEquals(1L, (long) posts.get(0).getId());
+    }
+
+    @Test
+    void nonArrayOrEmptyBodyYieldsEmptyList() throws IOException {
+        assertTrue(ModelAdapters.readList("{\"message\": \"error\"}", Post.class).isEmpty());
+        assertTrue(ModelAdapters.readList("", Post.class).isEmpty());
+        assertTrue(ModelAdapters.readList((String) null, Post.class).isEmpty());
+    }
+
+    @Test
+    void buildsImmutableCommunityModels() throws IOException {
+        CommunityRoom room = ModelAdapters.fromTree(JsonParser.parseString(
+            "{\"id\": \"r1\", \"name\": \"CSE\", \"member_count\": \"12\", \"is_verified\": true,"
+                + " \"is_custom\": false, \"owner_user_id\": null, \"university_key\": \"du\"}"), CommunityRoom.class);
+
+        assertEquals("r1", room.getId());
+        assertEquals("CSE", room.getName());
+        assertEquals(12, room.getMemberCount());
+        assertTrue(room.isVerified());
+        assertFalse(room.isCustom());
+        assertNull(room.getOwnerUserId());
+        assertEquals("du", room.getUniversityKey());
+
+        CommunityMessage message = ModelAdapters.readList(
+            "[{\"id\": 9, \"room_id\": \"r1\", \"sender_id\": \"u1\", \"sender_name\": \"Ana\", \"content\": \"hello\","
+                + " \"created_at\": \"2026-01-02T03:04:05+00:00\"}]", CommunityMessage.class).get(0);
+
+        assertEquals("9", message.getId());
+        assertEquals("r1", message.getRoomId());
+        assertEquals("u1", message.getSenderId());
+        assertEquals("hello", message.getContent());
+        assertNull(message.getImageUrl());
+    }
+
+    @Test
+    void fromTreeIgnoresNonObjects() {
+        assertNull(ModelAdapters.fromTree(JsonParser.parseString("[1]"), Post.class));
+        assertNull(ModelAdapters.fromTree(null, Post.class));
+    }
+
+    @Test
+    void unregisteredTypeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ModelAdapters.readList("[]", String.class));
+    }
+}
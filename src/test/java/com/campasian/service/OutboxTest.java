@@ -0,0 +1,177 @@
+package com.campasian.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxTest {
+
+    @TempDir
+    Path dir;
+
+    private final AtomicReference<String> user = new AtomicReference<>();
+    private final List<Post> posts = new ArrayList<>();
+
+    private record Post(String path, JsonElement body) {
+    }
+
+    private Outbox.Sender recording(Outbox.Sender delegate) {
+        return (path, body) -> {
+            synchronized (posts) {
+                posts.add(new Post(path, body.deepCopy()));
+            }
+            delegate.post(path, body);
+        };
+    }
+
+    private List<Post> posts() {
+        synchronized (posts) {
+            return new ArrayList<>(posts);
+        }
+    }
+
+    @Test
+    void replaysUnfinishedEntriesFromTheJournal() throws Exception {
+        Path journal = dir.resolve("journal.log");
+        Files.writeString(journal, String.join("\n",
+            "{\"op\":\"add\",\"id\":\"a\",\"userId\":\"u1\",\"path\":\"/posts\",\"row\":{\"content\":\"first\"},\"createdAt\":1}",
+            "{\"op\":\"add\",\"id\":\"b\",\"userId\":\"u1\",\"path\":\"/posts\",\"row\":{\"content\":\"second\"},\"createdAt\":2}",
+            "{\"op\":\"done\",\"id\":\"a\"}",
+            "{\"op\":\"add\",\"id\":\"c\",\"us"), StandardCharsets.UTF_8); // torn by a crash
+
+        Outbox outbox = new Outbox(journal, recording((path, body) -> { }), user::get);
+
+        assertEquals(1, outbox.size());
+        String compacted = Files.readString(journal, StandardCharsets.UTF_8);
+        assertTrue(compacted.contains("\"second\""));
+        assertFalse(compacted.contains("\"first\""));
+
+        user.set("u1");
+        outbox.wake();
+        awaitEmpty(outbox);
+
+        assertEquals(1, posts().size());
+        assertEquals("/posts", posts().get(0).path());
+        assertEquals("second", posts().get(0).body().getAsJsonObject().get("content").getAsString());
+        assertFalse(Files.exists(journal), "journal is removed once everything is delivered");
+    }
+
+    @Test
+    void entriesJournaledBeforeARestartAreSentAfterIt() throws Exception {
+        Path journal = dir.resolve("journal.log");
+        // Signed out for the whole life of the first instance, so it never sends.
+        new Outbox(journal, (path, body) -> { }, () -> null).enqueueInsert("u1", "/comments", row("typed offline"));
+
+        Outbox restarted = new Outbox(journal, recording((path, body) -> { }), user::get);
+        assertEquals(1, restarted.size());
+        user.set("u1");
+        restarted.wake();
+        awaitEmpty(restarted);
+
+        assertEquals(1, posts().size());
+        assertEquals("/comments", posts().get(0).path());
+        assertEquals("typed offline", posts().get(0).body().getAsJsonObject().get("content").getAsString());
+    }
+
+    @Test
+    void coalescesConsecutiveInsertsIntoOneBulkPost() throws Exception {
+        Outbox outbox = new Outbox(dir.resolve("journal.log"), recording((path, body) -> { }), user::get);
+        // Signed out while queueing, so nothing is sent until all four are in.
+        List<CompletableFuture<Void>> done = new ArrayList<>();
+        for (int i = 0; i < 3; i++) done.add(outbox.enqueueInsert("u1", "/posts", row("post " + i)));
+        done.add(outbox.enqueueInsert("u1", "/comments", row("comment")));
+
+        user.set("u1");
+        outbox.wake();
+        for (CompletableFuture<Void> future : done) future.get(5, TimeUnit.SECONDS);
+
+        List<Post> sent = posts();
+        assertEquals(2, sent.size());
+        assertEquals("/posts", sent.get(0).path());
+        assertTrue(sent.get(0).body().isJsonArray());
+        assertEquals(3, sent.get(0).body().getAsJsonArray().size());
+        assertEquals("/comments", sent.get(1).path());
+        assertTrue(sent.get(1).body().isJsonObject());
+    }
+
+    @Test
+    void rejectedBatchIsRetriedRowByRowAndOnlyTheBadRowIsDropped() throws Exception {
+        Outbox outbox = new Outbox(dir.resolve("journal.log"), recording((path, body) -> {
+            if (body.isJsonArray() || "bad".equals(body.getAsJsonObject().get("content").getAsString())) {
+                throw new ApiException(400, "HTTP 400", null, null, null);
+            }
+        }), user::get);
+        CompletableFuture<Void> first = outbox.enqueueInsert("u1", "/posts", row("good"));
+        CompletableFuture<Void> bad = outbox.enqueueInsert("u1", "/posts", row("bad"));
+        CompletableFuture<Void> last = outbox.enqueueInsert("u1", "/posts", row("also good"));
+
+        user.set("u1");
+        outbox.wake();
+        first.get(5, TimeUnit.SECONDS);
+        last.get(5, TimeUnit.SECONDS);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(ApiException.class, failure.getCause());
+        assertEquals(400, ((ApiException) failure.getCause()).getStatusCode());
+        List<Post> sent = posts();
+        assertEquals(4, sent.size()); // the bulk insert, then each row on its own
+        assertTrue(sent.get(0).body().isJsonArray());
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    void retryableFailureKeepsTheRowQueued() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Outbox outbox = new Outbox(dir.resolve("journal.log"), recording((path, body) -> {
+            if (attempts.incrementAndGet() == 1) throw new ApiException(503, "HTTP 503", null, null, null);
+        }), user::get);
+        user.set("u1");
+
+        outbox.enqueueInsert("u1", "/posts", row("hello")).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void onlyEntriesOfTheSignedInUserAreSent() throws Exception {
+        Outbox outbox = new Outbox(dir.resolve("journal.log"), recording((path, body) -> { }), user::get);
+        user.set("u1");
+
+        CompletableFuture<Void> other = outbox.enqueueInsert("u2", "/posts", row("from u2"));
+        outbox.enqueueInsert("u1", "/posts", row("from u1")).get(5, TimeUnit.SECONDS);
+
+        assertFalse(other.isDone());
+        assertEquals(1, outbox.size());
+        assertEquals(1, posts().size());
+    }
+
+    private static JsonObject row(String content) {
+        JsonObject row = new JsonObject();
+        row.addProperty("content", content);
+        return row;
+    }
+
+    private static void awaitEmpty(Outbox outbox) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outbox.size() > 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        assertEquals(0, outbox.size());
+    }
+}
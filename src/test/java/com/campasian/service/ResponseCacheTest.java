@@ -0,0 +1,84 @@
+package com.campasian.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+
+    private static final String POSTS = "https://example.supabase.co/rest/v1/posts?select=*";
+    private static final String EVENTS = "https://example.supabase.co/rest/v1/campus_events?select=*";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void entriesSurviveARestartWithTheirValidators() throws IOException {
+        new ResponseCache(dir).put("u1", POSTS, "[{\"id\":1}]", "\"v1\"", "Tue, 01 Sep 2026 10:00:00 GMT");
+
+        ResponseCache.Entry entry = new ResponseCache(dir).get("u1", POSTS);
+
+        assertNotNull(entry);
+        assertEquals("[{\"id\":1}]", entry.body);
+        assertEquals("\"v1\"", entry.etag);
+        assertEquals("Tue, 01 Sep 2026 10:00:00 GMT", entry.lastModified);
+        assertEquals(List.of(".json"), extensions());
+    }
+
+    @Test
+    void entriesAreKeptPerUser() {
+        ResponseCache cache = new ResponseCache(dir);
+        cache.put("u1", POSTS, "[1]", null, null);
+
+        assertNull(new ResponseCache(dir).get("u2", POSTS));
+    }
+
+    @Test
+    void invalidateAlsoDropsEntriesOnlyOnDisk() {
+        ResponseCache writer = new ResponseCache(dir);
+        writer.put("u1", POSTS, "[1]", null, null);
+        writer.put("u1", EVENTS, "[2]", null, null);
+
+        new ResponseCache(dir).invalidate("https://example.supabase.co/rest/v1/posts");
+
+        assertNull(new ResponseCache(dir).get("u1", POSTS));
+        assertNotNull(new ResponseCache(dir).get("u1", EVENTS));
+    }
+
+    @Test
+    void unreadableFilesAreTreatedAsMisses() throws IOException {
+        ResponseCache cache = new ResponseCache(dir);
+        cache.put("u1", POSTS, "[1]", null, null);
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) Files.writeString(file, "{\"user\":");
+        }
+
+        assertNull(new ResponseCache(dir).get("u1", POSTS));
+    }
+
+    @Test
+    void clearRemovesEntriesAndLeftoverTempFiles() throws IOException {
+        ResponseCache cache = new ResponseCache(dir);
+        cache.put("u1", POSTS, "[1]", null, null);
+        Files.writeString(dir.resolve("abc123.tmp"), "");
+
+        cache.clear();
+
+        assertNull(cache.get("u1", POSTS));
+        assertEquals(List.of(), extensions());
+    }
+
+    private List<String> extensions() throws IOException {
+        try (var files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString().replaceAll("^[^.]*", "")).toList();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.campasian.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SocialGraphTest {
+
+    private static final String ME = "me";
+
+    private SocialGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = new SocialGraph();
+        List<JsonElement> requests = List.of(
+            JsonParser.parseString("{\"id\":\"r1\",\"from_id\":\"me\",\"to_id\":\"ann\",\"status\":\"accepted\"}"),
+            JsonParser.parseString("{\"id\":\"r2\",\"from_id\":\"bob\",\"to_id\":\"me\",\"status\":\"pending\"}"));
+        graph.load(ME, List.of("ann"), 2, requests);
+    }
+
+    @Test
+    void ownFollowInsertAndDeleteUpdateFollowing() {
+        graph.apply(change("follows", "INSERT", "{\"follower_id\":\"me\",\"following_id\":\"bob\"}", null));
+        assertTrue(graph.isFollowing("bob"));
+        assertEquals(2, graph.followingCount());
+
+        graph.apply(change("follows", "DELETE", null, "{\"follower_id\":\"me\",\"following_id\":\"ann\"}"));
+        assertFalse(graph.isFollowing("ann"));
+        assertEquals(2, graph.followerCount(), "own follows do not touch the follower count");
+    }
+
+    @Test
+    void followsOfTheUserUpdateFollowerCountWithoutGoingNegative() {
+        graph.apply(change("follows", "INSERT", "{\"follower_id\":\"cat\",\"following_id\":\"me\"}", null));
+        assertEquals(3, graph.followerCount());
+
+        for (int i = 0; i < 5; i++) {
+            graph.apply(change("follows", "DELETE", null, "{\"follower_id\":\"cat\",\"following_id\":\"me\"}"));
+        }
+        assertEquals(0, graph.followerCount());
+    }
+
+    @Test
+    void followsBetweenOtherUsersAreIgnored() {
+        graph.apply(change("follows", "INSERT", "{\"follower_id\":\"ann\",\"following_id\":\"bob\"}", null));
+
+        assertFalse(graph.isFollowing("bob"));
+        assertEquals(2, graph.followerCount());
+    }
+
+    @Test
+    void friendRequestUpsertsTrackStatusAndId() {
+        graph.apply(change("friend_requests", "INSERT", "{\"id\":\"r3\",\"from_id\":\"cat\",\"to_id\":\"me\",\"status\":\"pending\"}", null));
+        assertEquals("pending", graph.friendStatus("cat"));
+        assertEquals("r3", graph.requestId("cat"));
+
+        graph.apply(change("friend_requests", "UPDATE", "{\"id\":\"r2\",\"from_id\":\"bob\",\"to_id\":\"me\",\"status\":\"ACCEPTED\"}", null));
+        assertEquals("accepted", graph.friendStatus("bob"));
+        assertEquals(List.of("ann", "bob"), graph.friendIds().stream().sorted().toList());
+    }
+
+    @Test
+    void pendingRequestDoesNotDowngradeAnAcceptedOne() {
+        graph.apply(change("friend_requests", "INSERT", "{\"id\":\"r9\",\"from_id\":\"ann\",\"to_id\":\"me\",\"status\":\"pending\"}", null));
+
+        assertEquals("accepted", graph.friendStatus("ann"));
+        assertEquals("r1", graph.requestId("ann"));
+    }
+
+    @Test
+    void rejectedRequestIsRemoved() {
+        graph.apply(change("friend_requests", "UPDATE", "{\"id\":\"r2\",\"from_id\":\"bob\",\"to_id\":\"me\",\"status\":\"rejected\"}", null));
+
+        assertEquals("none", graph.friendStatus("bob"));
+        assertNull(graph.requestId("bob"));
+    }
+
+    @Test
+    void rejectionOfAnOlderRequestKeepsTheCurrentOne() {
+        graph.apply(change("friend_requests", "UPDATE", "{\"id\":\"old\",\"from_id\":\"me\",\"to_id\":\"ann\",\"status\":\"rejected\"}", null));
+
+        assertEquals("accepted", graph.friendStatus("ann"));
+    }
+
+    @Test
+    void friendRequestDeleteRemovesByOldRecordId() {
+        graph.apply(change("friend_requests", "DELETE", null, "{\"id\":\"r1\"}"));
+
+        assertEquals("none", graph.friendStatus("ann"));
+        assertTrue(graph.friendIds().isEmpty());
+    }
+
+    @Test
+    void changesAreIgnoredUntilTheGraphIsLoaded() {
+        SocialGraph empty = new SocialGraph();
+
+        empty.apply(change("follows", "INSERT", "{\"follower_id\":\"me\",\"following_id\":\"bob\"}", null));
+        empty.apply(change("friend_requests", "INSERT", "{\"id\":\"r3\",\"from_id\":\"cat\",\"to_id\":\"me\",\"status\":\"pending\"}", null));
+
+        assertFalse(empty.isFollowing("bob"));
+        assertEquals("none", empty.friendStatus("cat"));
+        assertFalse(empty.isLoadedFor(ME));
+    }
+
+    @Test
+    void malformedPayloadsAreIgnored() {
+        graph.apply(null);
+        graph.apply(new JsonObject());
+        graph.apply(change("follows", "DELETE", null, null));
+
+        assertTrue(graph.isFollowing("ann"));
+        assertEquals(2, graph.followerCount());
+    }
+
+    private static JsonObject change(String table, String type, String record, String oldRecord) {
+        JsonObject data = new JsonObject();
+        data.addProperty("table", table);
+        data.addProperty("type", type);
+        if (record != null) data.add("record", JsonParser.parseString(record));
+        if (oldRecord != null) data.add("old_record", JsonParser.parseString(oldRecord));
+        JsonObject payload = new JsonObject();
+        payload.add("data", data);
+        return payload;
+    }
+}
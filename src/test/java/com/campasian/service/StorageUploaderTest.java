@@ -0,0 +1,156 @@
+package com.campasian.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StorageUploaderTest {
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private FakeStorage storage;
+    private StorageUploader uploader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new FakeStorage();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/storage/v1/", storage::handle);
+        server.start();
+        System.setProperty("SUPABASE_URL", "http://127.0.0.1:" + server.getAddress().getPort());
+        uploader = new StorageUploader(HttpClient.newHttpClient(), dir.resolve("state"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("SUPABASE_URL");
+        server.stop(0);
+    }
+
+    @Test
+    void smallFileIsStreamedInOnePost() throws Exception {
+        byte[] data = bytes(200 * 1024);
+        Path file = write("small.jpg", data);
+        AtomicLong reported = new AtomicLong();
+
+        uploader.upload("post-images", "u1/small.jpg", file, "image/jpeg", "token", (sent, total) -> reported.set(sent));
+
+        assertArrayEquals(data, storage.objects.get(0));
+        assertEquals("/storage/v1/object/post-images/u1/small.jpg", storage.requests.get(0));
+        assertEquals(1, storage.requests.size());
+        assertEquals((long) data.length, reported.get());
+    }
+
+    @Test
+    void largeFileResumesFromTheServerOffsetAfterAFailedChunk() throws Exception {
+        byte[] data = bytes((int) StorageUploader.RESUMABLE_THRESHOLD + 300 * 1024);
+        Path file = write("large.jpg", data);
+        storage.failingPatches = 1;
+
+        uploader.upload("post-images", "u1/large.jpg", file, "image/jpeg", "token", null);
+
+        assertArrayEquals(data, storage.upload.toByteArray());
+        assertEquals(List.of("POST create", "PATCH 0", "HEAD", "PATCH " + data.length / 2), storage.tusCalls);
+    }
+
+    @Test
+    void failedUploadResumesOnTheNextCallWithoutStartingOver() throws Exception {
+        byte[] data = bytes((int) StorageUploader.RESUMABLE_THRESHOLD + 300 * 1024);
+        Path file = write("large.jpg", data);
+        storage.failingPatches = 3;
+
+        assertThrows(ApiException.class,
+            () -> uploader.upload("post-images", "u1/large.jpg", file, "image/jpeg", "token", null));
+        long storedBefore = storage.upload.size();
+        AtomicLong firstReport = new AtomicLong(-1);
+        uploader.upload("post-images", "u1/large.jpg", file, "image/jpeg", "token",
+            (sent, total) -> firstReport.compareAndSet(-1, sent));
+
+        assertArrayEquals(data, storage.upload.toByteArray());
+        assertEquals(1L, storage.tusCalls.stream().filter("POST create"::equals).count());
+        assertEquals("PATCH " + storedBefore, storage.tusCalls.get(storage.tusCalls.size() - 1));
+        assertTrue(firstReport.get() > storedBefore, "progress continues from the resumed offset");
+    }
+
+    private Path write(String name, byte[] data) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, data);
+        return file;
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    /**
+     * Minimal Supabase Storage: the plain object endpoint and a TUS endpoint for one upload. A failing PATCH
+     * keeps the first half of what it received, as the real server keeps partially received chunks.
+     */
+    private static final class FakeStorage {
+        final List<String> requests = new ArrayList<>();
+        final List<byte[]> objects = new ArrayList<>();
+        final List<String> tusCalls = new ArrayList<>();
+        final ByteArrayOutputStream upload = new ByteArrayOutputStream();
+        int failingPatches;
+
+        synchronized void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            requests.add(path);
+            if (path.startsWith("/storage/v1/object/")) {
+                objects.add(body);
+                exchange.sendResponseHeaders(200, -1);
+            } else if ("POST".equals(method)) {
+                tusCalls.add("POST create");
+                exchange.getResponseHeaders().add("Location", "/storage/v1/upload/resumable/up1");
+                exchange.sendResponseHeaders(201, -1);
+            } else if ("HEAD".equals(method)) {
+                tusCalls.add("HEAD");
+                exchange.getResponseHeaders().add("Upload-Offset", String.valueOf(upload.size()));
+                exchange.sendResponseHeaders(200, -1);
+            } else if ("PATCH".equals(method)) {
+                long offset = Long.parseLong(exchange.getRequestHeaders().getFirst("Upload-Offset"));
+                tusCalls.add("PATCH " + offset);
+                if (offset != upload.size()) {
+                    exchange.sendResponseHeaders(409, -1);
+                } else if (failingPatches > 0) {
+                    failingPatches--;
+                    upload.write(Arrays.copyOf(body, body.length / 2));
+                    exchange.sendResponseHeaders(500, -1);
+                } else {
+                    upload.write(body);
+                    exchange.getResponseHeaders().add("Upload-Offset", String.valueOf(upload.size()));
+                    exchange.sendResponseHeaders(204, -1);
+                }
+            } else {
+                exchange.sendResponseHeaders(405, -1);
+            }
+            exchange.close();
+        }
+    }
+}
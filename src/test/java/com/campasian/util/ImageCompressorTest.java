@@ -0,0 +1,153 @@
+package com.campasian.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageCompressorTest {
+
+    @Test
+    void appliesExifRotationToPixels() throws IOException {
+        // 40x20 landscape pixels tagged "rotate 90° clockwise" (orientation 6), as a phone camera stores portraits.
+        byte[] jpeg = withExifOrientation(jpeg(40, 20), 6);
+
+        ImageCompressor.Result result = ImageCompressor.compress(jpeg, "jpg", "image/jpeg", ImageCompressor.MAX_DIMENSION);
+
+        BufferedImage upright = ImageIO.read(new ByteArrayInputStream(result.getBytes()));
+        assertEquals(20, upright.getWidth());
+        assertEquals(40, upright.getHeight());
+        assertTrue(isRed(upright.getRGB(10, 3)), "left half (red) ends up on top");
+        assertFalse(isRed(upright.getRGB(10, 36)));
+        assertEquals("image/jpeg", result.getContentType());
+        assertFalse(contains(result.getBytes(), "Exif"), "re-encoded image must not carry EXIF");
+    }
+
+    @Test
+    void leavesNormalOrientationAlone() throws IOException {
+        ImageCompressor.Result result = ImageCompressor.compress(
+            withExifOrientation(jpeg(40, 20), 1), "jpg", "image/jpeg", ImageCompressor.MAX_DIMENSION);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(result.getBytes()));
+        assertEquals(40, image.getWidth());
+        assertEquals(20, image.getHeight());
+    }
+
+    @Test
+    void downscalesToMaxDimension() throws IOException {
+        ImageCompressor.Result result = ImageCompressor.compress(jpeg(400, 100), "jpg", "image/jpeg", 200);
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(result.getBytes()));
+        assertEquals(200, image.getWidth());
+        assertEquals(50, image.getHeight());
+    }
+
+    @Test
+    void stripsMetadataFromJpegSegments() throws IOException {
+        byte[] plain = jpeg(8, 8);
+        byte[] tagged = withExifOrientation(plain, 6);
+
+        byte[] stripped = ImageCompressor.stripMetadata(tagged, "jpg");
+
+        assertFalse(contains(stripped, "Exif"));
+        assertEquals(plain.length, stripped.length);
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(stripped)));
+    }
+
+    @Test
+    void passThroughFormatsLoseTheirMetadata() {
+        // A WEBP ImageIO cannot decode: the bytes are uploaded as-is apart from the EXIF chunk.
+        byte[] webp = riff(chunk("VP8 ", new byte[] { 1, 2, 3, 4 }), chunk("EXIF", "GPS 52.1N".getBytes(StandardCharsets.US_ASCII)));
+
+        ImageCompressor.Result result = ImageCompressor.compress(webp, "webp", "image/webp", ImageCompressor.MAX_DIMENSION);
+
+        assertEquals("image/webp", result.getContentType());
+        assertFalse(contains(result.getBytes(), "GPS"));
+        assertTrue(contains(result.getBytes(), "VP8 "));
+        assertEquals(result.getBytes().length - 8, littleEndianInt(result.getBytes(), 4), "RIFF size is rewritten");
+    }
+
+    @Test
+    void unparseableInputIsReturnedUnchanged() {
+        byte[] junk = { 1, 2, 3 };
+        assertSame(junk, ImageCompressor.stripMetadata(junk, "jpg"));
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, x < width / 2 ? Color.RED.getRGB() : Color.BLUE.getRGB());
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Inserts a big-endian APP1 Exif segment holding only the orientation tag right after SOI.
+     */
+    private static byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] app1 = {
+            (byte) 0xFF, (byte) 0xE1, 0, 34,
+            'E', 'x', 'i', 'f', 0, 0,
+            'M', 'M', 0, 42, 0, 0, 0, 8,            // TIFF header, first IFD at offset 8
+            0, 1,                                   // one entry
+            0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+            0, 0, 0, 0                              // no next IFD
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(app1, 0, app1.length);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static byte[] chunk(String fourCc, byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(fourCc.getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(littleEndian(data.length));
+        out.writeBytes(data);
+        if (data.length % 2 == 1) out.write(0);
+        return out.toByteArray();
+    }
+
+    private static byte[] riff(byte[]... chunks) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes("WEBP".getBytes(StandardCharsets.US_ASCII));
+        for (byte[] c : chunks) body.writeBytes(c);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes("RIFF".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(littleEndian(body.size()));
+        out.writeBytes(body.toByteArray());
+        return out.toByteArray();
+    }
+
+    private static byte[] littleEndian(int value) {
+        return new byte[] { (byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24) };
+    }
+
+    private static int littleEndianInt(byte[] b, int at) {
+        return (b[at] & 0xFF) | ((b[at + 1] & 0xFF) << 8) | ((b[at + 2] & 0xFF) << 16) | ((b[at + 3] & 0xFF) << 24);
+    }
+
+    private static boolean isRed(int rgb) {
+        return ((rgb >> 16) & 0xFF) > (rgb & 0xFF);
+    }
+
+    private static boolean contains(byte[] haystack, String needle) {
+        return new String(haystack, StandardCharsets.ISO_8859_1).contains(needle);
+    }
+}